@@ -0,0 +1,130 @@
+package com.nexa.ingestion.loadtest;
+
+import io.grpc.Status;
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates Qdrant payload filters against a stored payload, following Qdrant's semantics: every {@code must}
+ * matches, at least one {@code should} matches (when any are given) and no {@code must_not} matches. A field
+ * holding a list matches when any element does. Geo, values-count and nested conditions are not used by the
+ * service and are rejected.
+ */
+final class Filters {
+
+    private Filters() {
+    }
+
+    static boolean matches(Points.Filter filter, Map<String, JsonWithInt.Value> payload) {
+        for (Points.Condition condition : filter.getMustList()) {
+            if (!matches(condition, payload)) {
+                return false;
+            }
+        }
+        for (Points.Condition condition : filter.getMustNotList()) {
+            if (matches(condition, payload)) {
+                return false;
+            }
+        }
+        if (filter.getShouldCount() == 0) {
+            return true;
+        }
+        for (Points.Condition condition : filter.getShouldList()) {
+            if (matches(condition, payload)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(Points.Condition condition, Map<String, JsonWithInt.Value> payload) {
+        return switch (condition.getConditionOneOfCase()) {
+            case FIELD -> matches(condition.getField(), payload);
+            case FILTER -> matches(condition.getFilter(), payload);
+            case IS_EMPTY -> isEmpty(payload.get(condition.getIsEmpty().getKey()));
+            case IS_NULL -> {
+                JsonWithInt.Value value = payload.get(condition.getIsNull().getKey());
+                yield value != null && value.hasNullValue();
+            }
+            case HAS_ID -> throw unsupported("has_id");
+            default -> throw unsupported(condition.getConditionOneOfCase().name().toLowerCase(Locale.ROOT));
+        };
+    }
+
+    private static boolean matches(Points.FieldCondition condition, Map<String, JsonWithInt.Value> payload) {
+        JsonWithInt.Value value = payload.get(condition.getKey());
+        if (value == null) {
+            return false;
+        }
+        if (condition.hasMatch()) {
+            return anyElement(value, v -> matches(condition.getMatch(), v));
+        }
+        if (condition.hasRange()) {
+            return anyElement(value, v -> inRange(condition.getRange(), v));
+        }
+        throw unsupported("field condition on " + condition.getKey());
+    }
+
+    private static boolean matches(Points.Match match, JsonWithInt.Value value) {
+        return switch (match.getMatchValueCase()) {
+            case KEYWORD -> value.hasStringValue() && value.getStringValue().equals(match.getKeyword());
+            case TEXT -> value.hasStringValue() && value.getStringValue().contains(match.getText());
+            case INTEGER -> value.hasIntegerValue() && value.getIntegerValue() == match.getInteger();
+            case BOOLEAN -> value.hasBoolValue() && value.getBoolValue() == match.getBoolean();
+            case KEYWORDS -> value.hasStringValue()
+                    && match.getKeywords().getStringsList().contains(value.getStringValue());
+            case INTEGERS -> value.hasIntegerValue()
+                    && match.getIntegers().getIntegersList().contains(value.getIntegerValue());
+            case EXCEPT_KEYWORDS -> value.hasStringValue()
+                    && !match.getExceptKeywords().getStringsList().contains(value.getStringValue());
+            case EXCEPT_INTEGERS -> value.hasIntegerValue()
+                    && !match.getExceptIntegers().getIntegersList().contains(value.getIntegerValue());
+            default -> false;
+        };
+    }
+
+    private static boolean inRange(Points.Range range, JsonWithInt.Value value) {
+        double number;
+        if (value.hasIntegerValue()) {
+            number = value.getIntegerValue();
+        } else if (value.hasDoubleValue()) {
+            number = value.getDoubleValue();
+        } else {
+            return false;
+        }
+        return (!range.hasLt() || number < range.getLt())
+                && (!range.hasLte() || number <= range.getLte())
+                && (!range.hasGt() || number > range.getGt())
+                && (!range.hasGte() || number >= range.getGte());
+    }
+
+    private static boolean anyElement(JsonWithInt.Value value, Predicate<JsonWithInt.Value> test) {
+        if (!value.hasListValue()) {
+            return test.test(value);
+        }
+        for (JsonWithInt.Value element : value.getListValue().getValuesList()) {
+            if (test.test(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isEmpty(JsonWithInt.Value value) {
+        if (value == null || value.hasNullValue()) {
+            return true;
+        }
+        List<JsonWithInt.Value> values = value.hasListValue() ? value.getListValue().getValuesList() : null;
+        return values != null && values.isEmpty();
+    }
+
+    private static RuntimeException unsupported(String what) {
+        return Status.UNIMPLEMENTED.withDescription("Qdrant stand-in does not support " + what + " conditions")
+                .asRuntimeException();
+    }
+}
@@ -0,0 +1,67 @@
+package com.nexa.ingestion.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response-time and failure behaviour of a stand-in: either a fixed delay ({@code "50ms"}) or a log-normal
+ * distribution fitted to a median and a 99th percentile ({@code "p50=40ms,p99=250ms"}), plus a failure rate.
+ * Real model endpoints have long right tails, which a fixed delay hides.
+ */
+final class LatencyModel {
+
+    /** Standard normal quantile at 0.99. */
+    private static final double Z99 = 2.3263;
+
+    private final double mu;
+    private final double sigma;
+    private final double errorRate;
+    private final String spec;
+
+    private LatencyModel(double mu, double sigma, double errorRate, String spec) {
+        this.mu = mu;
+        this.sigma = sigma;
+        this.errorRate = errorRate;
+        this.spec = spec;
+    }
+
+    static LatencyModel parse(String spec, double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+        }
+        if (!spec.contains("=")) {
+            double fixedMs = Options.parseDuration(spec).toNanos() / 1e6;
+            return new LatencyModel(Math.log(Math.max(fixedMs, 1e-3)), 0, errorRate, spec);
+        }
+        double p50 = 0;
+        double p99 = 0;
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=", 2);
+            double ms = Options.parseDuration(kv[1]).toNanos() / 1e6;
+            switch (kv[0].trim()) {
+                case "p50" -> p50 = ms;
+                case "p99" -> p99 = ms;
+                default -> throw new IllegalArgumentException("Unknown latency key " + kv[0] + " in " + spec);
+            }
+        }
+        if (p50 <= 0 || p99 < p50) {
+            throw new IllegalArgumentException("Latency needs 0 < p50 <= p99: " + spec);
+        }
+        return new LatencyModel(Math.log(p50), (Math.log(p99) - Math.log(p50)) / Z99, errorRate, spec);
+    }
+
+    Duration sample() {
+        double ms = sigma == 0 ? Math.exp(mu) : Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos(Math.round(ms * 1_000_000));
+    }
+
+    boolean fail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s, %.1f%% errors", spec, errorRate * 100);
+    }
+}
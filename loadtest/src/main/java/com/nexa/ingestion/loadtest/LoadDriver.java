@@ -0,0 +1,185 @@
+package com.nexa.ingestion.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open-loop load generator: requests are started at a fixed rate whether or not earlier ones have finished, the
+ * way independent users arrive. Latency is measured from each request's scheduled start rather than its actual
+ * send time, so a stalled client or server cannot hide queueing delay (coordinated omission). Requests that
+ * would exceed {@code maxInFlight} are dropped and counted instead of being queued.
+ */
+final class LoadDriver {
+
+    /**
+     * One request against the service.
+     */
+    interface Call {
+        /**
+         * @param sequence 0-based request number within the scenario
+         */
+        Mono<Response> execute(long sequence);
+    }
+
+    /**
+     * @param status HTTP status
+     * @param serverTiming {@code Server-Timing} header, if any
+     */
+    record Response(int status, String serverTiming) {}
+
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration timeout;
+    private final int maxInFlight;
+
+    LoadDriver(Duration warmup, Duration duration, Duration timeout, int maxInFlight) {
+        this.warmup = warmup;
+        this.duration = duration;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Runs {@code call} at {@code ratePerSecond} for the warm-up plus the measured duration; only requests
+     * scheduled after the warm-up are recorded.
+     */
+    Mono<Result> run(String name, double ratePerSecond, Call call) {
+        long periodNanos = Math.max(1, Math.round(1e9 / ratePerSecond));
+        long warmupRequests = warmup.toNanos() / periodNanos;
+        long total = warmupRequests + duration.toNanos() / periodNanos;
+        Result result = new Result(name, ratePerSecond, duration);
+        AtomicInteger inFlight = new AtomicInteger();
+        return Mono.defer(() -> {
+            long origin = System.nanoTime();
+            return Flux.interval(Duration.ofNanos(periodNanos))
+                    .take(total)
+                    .flatMap(sequence -> {
+                        boolean measured = sequence >= warmupRequests;
+                        long scheduled = origin + (sequence + 1) * periodNanos;
+                        if (inFlight.incrementAndGet() > maxInFlight) {
+                            inFlight.decrementAndGet();
+                            if (measured) {
+                                result.dropped.increment();
+                            }
+                            return Mono.empty();
+                        }
+                        return Mono.defer(() -> call.execute(sequence))
+                                .timeout(timeout)
+                                .doOnNext(response -> {
+                                    if (measured) {
+                                        result.record(response, System.nanoTime() - scheduled);
+                                    }
+                                })
+                                .onErrorResume(e -> {
+                                    if (measured) {
+                                        result.failed(e, System.nanoTime() - scheduled);
+                                    }
+                                    return Mono.empty();
+                                })
+                                .doFinally(signal -> inFlight.decrementAndGet());
+                    }, Integer.MAX_VALUE)
+                    .then(Mono.fromSupplier(() -> {
+                        result.elapsedNanos = System.nanoTime() - origin - warmupRequests * periodNanos;
+                        return result;
+                    }));
+        });
+    }
+
+    /**
+     * Outcome of one scenario. Latencies are recorded in microseconds.
+     */
+    static final class Result {
+        final String name;
+        final double targetRate;
+        final Duration duration;
+        final Histogram latency = new ConcurrentHistogram(3);
+        final Histogram errorLatency = new ConcurrentHistogram(3);
+        final Map<String, Histogram> stages = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        final LongAdder dropped = new LongAdder();
+        volatile long elapsedNanos;
+
+        private Result(String name, double targetRate, Duration duration) {
+            this.name = name;
+            this.targetRate = targetRate;
+            this.duration = duration;
+        }
+
+        private void record(Response response, long nanos) {
+            outcomes.computeIfAbsent(Integer.toString(response.status()), k -> new LongAdder()).increment();
+            if (response.status() >= 400) {
+                errorLatency.recordValue(nanos / 1000);
+                return;
+            }
+            latency.recordValue(nanos / 1000);
+            if (response.serverTiming() != null) {
+                parseServerTiming(response.serverTiming()).forEach((stage, ms) ->
+                        stages.computeIfAbsent(stage, k -> new ConcurrentHistogram(3))
+                                .recordValue(Math.round(ms * 1000)));
+            }
+        }
+
+        private void failed(Throwable error, long nanos) {
+            String kind = error instanceof TimeoutException ? "timeout" : error.getClass().getSimpleName();
+            outcomes.computeIfAbsent(kind, k -> new LongAdder()).increment();
+            errorLatency.recordValue(nanos / 1000);
+        }
+
+        long succeeded() {
+            return latency.getTotalCount();
+        }
+
+        long errors() {
+            return errorLatency.getTotalCount();
+        }
+
+        /**
+         * Errors and drops over everything that was scheduled in the measured window.
+         */
+        double errorRate() {
+            long attempted = succeeded() + errors() + dropped.sum();
+            return attempted == 0 ? 0 : (double) (errors() + dropped.sum()) / attempted;
+        }
+
+        double throughput() {
+            return elapsedNanos <= 0 ? 0 : succeeded() / (elapsedNanos / 1e9);
+        }
+
+        Map<String, Long> outcomeCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            outcomes.forEach((k, v) -> counts.put(k, v.sum()));
+            return counts;
+        }
+    }
+
+    /**
+     * Parses {@code "embed;dur=12.5, qdrant;dur=3.1"} into stage → milliseconds.
+     */
+    static Map<String, Double> parseServerTiming(String header) {
+        Map<String, Double> stages = new TreeMap<>();
+        for (String metric : header.split(",")) {
+            String[] parts = metric.trim().split(";");
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("dur=")) {
+                    try {
+                        stages.put(parts[0].trim(), Double.parseDouble(param.substring(4)));
+                    } catch (NumberFormatException ignored) {
+                        // Skip a malformed metric rather than the whole header
+                    }
+                }
+            }
+        }
+        return stages;
+    }
+}
@@ -0,0 +1,137 @@
+package com.nexa.ingestion.loadtest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Entry point of the load-test harness: {@code stubs} runs the Hugging Face, LLM and Qdrant stand-ins until
+ * killed; {@code drive} sends search and upload traffic to a running service and reports the results. Run
+ * without arguments for the options.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            System.exit(2);
+        }
+        Options options = new Options(args, 1);
+        switch (args[0]) {
+            case "stubs" -> stubs(options);
+            case "drive" -> System.exit(drive(options));
+            default -> {
+                usage();
+                System.exit(2);
+            }
+        }
+    }
+
+    private static void stubs(Options options) throws Exception {
+        StubServer http = new StubServer(
+                options.integer("dimensions", 1024),
+                LatencyModel.parse(options.string("embed-latency", "p50=40ms,p99=250ms"),
+                        options.decimal("embed-error-rate", 0)),
+                LatencyModel.parse(options.string("llm-latency", "p50=400ms,p99=2s"),
+                        options.decimal("llm-error-rate", 0)),
+                options.duration("llm-token-interval", "15ms"),
+                options.integer("llm-answer-tokens", 120));
+        QdrantStandIn qdrant = options.string("no-qdrant", null) != null ? null
+                : new QdrantStandIn(LatencyModel.parse(options.string("qdrant-latency", "2ms"),
+                        options.decimal("qdrant-error-rate", 0)));
+        http.start(options.integer("port", 9090));
+        if (qdrant != null) {
+            qdrant.start(options.integer("qdrant-port", 6334));
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            http.stop();
+            if (qdrant != null) {
+                qdrant.stop();
+            }
+            stopped.countDown();
+        }, "stubs-shutdown"));
+        stopped.await();
+    }
+
+    private static int drive(Options options) throws Exception {
+        double searchRate = options.decimal("search-rate", 10);
+        double uploadRate = options.decimal("upload-rate", 0);
+        int maxInFlight = options.integer("max-in-flight", 512);
+        Scenarios scenarios = new Scenarios(options.string("target", "http://localhost:5000"), maxInFlight,
+                options.integer("doc-kb", 16));
+        LoadDriver driver = new LoadDriver(options.duration("warmup", "10s"), options.duration("duration", "60s"),
+                options.duration("timeout", "30s"), maxInFlight);
+
+        List<Mono<LoadDriver.Result>> runs = new ArrayList<>();
+        if (searchRate > 0) {
+            runs.add(driver.run("search", searchRate, scenarios.search(options.integer("search-limit", 5))));
+        }
+        if (uploadRate > 0) {
+            runs.add(driver.run("upload", uploadRate, scenarios.upload()));
+        }
+        if (runs.isEmpty()) {
+            System.err.println("Nothing to drive: set --search-rate and/or --upload-rate");
+            return 2;
+        }
+
+        ResourceSampler sampler = new ResourceSampler(scenarios.client());
+        sampler.start();
+        List<LoadDriver.Result> results = Flux.merge(runs).collectList().block();
+        ResourceSampler.Summary resources = sampler.stop();
+
+        Report.print(System.out, results, resources);
+        String out = options.string("out", null);
+        if (out != null) {
+            Report.write(Path.of(out), results, resources);
+            System.out.println("\nReport written to " + out);
+        }
+        return check(options, results);
+    }
+
+    /**
+     * @return non-zero if any scenario exceeds the error-rate or p99 budget, for use as a CI gate
+     */
+    private static int check(Options options, List<LoadDriver.Result> results) {
+        double maxErrorRate = options.decimal("max-error-rate", 0.01);
+        String maxP99 = options.string("max-p99", null);
+        Duration p99Budget = maxP99 != null ? Options.parseDuration(maxP99) : null;
+        int status = 0;
+        for (LoadDriver.Result r : results) {
+            if (r.errorRate() > maxErrorRate) {
+                System.out.printf(Locale.ROOT, "FAIL %s: error rate %.2f%% exceeds %.2f%%%n",
+                        r.name, r.errorRate() * 100, maxErrorRate * 100);
+                status = 1;
+            }
+            double p99Ms = r.latency.getValueAtPercentile(99) / 1000.0;
+            if (p99Budget != null && p99Ms > p99Budget.toNanos() / 1e6) {
+                System.out.printf(Locale.ROOT, "FAIL %s: p99 %.1f ms exceeds %s%n", r.name, p99Ms, maxP99);
+                status = 1;
+            }
+        }
+        return status;
+    }
+
+    private static void usage() {
+        System.err.println("""
+                Usage:
+                  loadtest stubs [--port=9090] [--qdrant-port=6334] [--dimensions=1024] [--no-qdrant]
+                                 [--embed-latency=p50=40ms,p99=250ms] [--embed-error-rate=0]
+                                 [--llm-latency=p50=400ms,p99=2s] [--llm-error-rate=0]
+                                 [--llm-token-interval=15ms] [--llm-answer-tokens=120]
+                                 [--qdrant-latency=2ms] [--qdrant-error-rate=0]
+                  loadtest drive [--target=http://localhost:5000] [--search-rate=10] [--upload-rate=0]
+                                 [--duration=60s] [--warmup=10s] [--timeout=30s] [--max-in-flight=512]
+                                 [--search-limit=5] [--doc-kb=16] [--out=report.json]
+                                 [--max-error-rate=0.01] [--max-p99=ms]""");
+    }
+}
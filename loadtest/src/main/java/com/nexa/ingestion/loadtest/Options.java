@@ -0,0 +1,64 @@
+package com.nexa.ingestion.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --key=value} command-line options.
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Options(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+
+    String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int integer(String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    double decimal(String key, double defaultValue) {
+        String value = values.get(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    Duration duration(String key, String defaultValue) {
+        return parseDuration(values.getOrDefault(key, defaultValue));
+    }
+
+    /**
+     * Parses "250ms", "1.5s", "2m" or a bare number of milliseconds.
+     */
+    static Duration parseDuration(String value) {
+        String v = value.trim();
+        double amount;
+        if (v.endsWith("ms")) {
+            amount = Double.parseDouble(v.substring(0, v.length() - 2));
+        } else if (v.endsWith("s")) {
+            amount = Double.parseDouble(v.substring(0, v.length() - 1)) * 1000;
+        } else if (v.endsWith("m")) {
+            amount = Double.parseDouble(v.substring(0, v.length() - 1)) * 60_000;
+        } else {
+            amount = Double.parseDouble(v);
+        }
+        return Duration.ofNanos(Math.round(amount * 1_000_000));
+    }
+}
@@ -0,0 +1,532 @@
+package com.nexa.ingestion.loadtest;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.qdrant.client.grpc.Collections;
+import io.qdrant.client.grpc.CollectionsGrpc;
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points;
+import io.qdrant.client.grpc.PointsGrpc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process gRPC stand-in for Qdrant covering what the service calls: list/create/delete/get collection,
+ * upsert/delete/search/search-batch/search-groups/scroll points and create field index (accepted, not needed for
+ * a scan).
+ * Points live in memory; search is an exact cosine scan (or a dot product over named sparse vectors), returning
+ * payload and vectors on request, with Qdrant's filter semantics for keyword/integer/boolean matches and
+ * ranges ({@code must}, {@code should}, {@code must_not}).
+ * A scan is slower than Qdrant's HNSW index on large collections, so keep stand-in runs to realistic test sizes
+ * or point the service at a real Qdrant instead.
+ */
+final class QdrantStandIn {
+
+    private static final Logger log = LoggerFactory.getLogger(QdrantStandIn.class);
+
+    private final LatencyModel latency;
+    private final ConcurrentHashMap<String, Collection> collections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService delays = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "qdrant-stand-in-delay");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong operationIds = new AtomicLong();
+    private final LongAdder upserts = new LongAdder();
+    private final LongAdder searches = new LongAdder();
+    private Server server;
+
+    QdrantStandIn(LatencyModel latency) {
+        this.latency = latency;
+    }
+
+    void start(int port) throws IOException {
+        server = ServerBuilder.forPort(port)
+                .addService(CollectionsGrpc.bindService(new CollectionsService()))
+                .addService(PointsGrpc.bindService(new PointsService()))
+                .maxInboundMessageSize(64 * 1024 * 1024)
+                .build()
+                .start();
+        log.info("Qdrant stand-in (gRPC) on port {} ({})", server.getPort(), latency);
+    }
+
+    void stop() {
+        if (server != null) {
+            server.shutdownNow();
+        }
+        delays.shutdownNow();
+        long points = collections.values().stream().mapToLong(c -> c.points.size()).sum();
+        log.info("Qdrant stand-in handled {} upserts and {} searches; {} points in {} collections",
+                upserts.sum(), searches.sum(), points, collections.size());
+    }
+
+    /**
+     * Computes the response, then delivers it (or an injected failure) after a latency sample.
+     */
+    private <T> void respond(StreamObserver<T> observer, Supplier<T> response) {
+        Duration delay = latency.sample();
+        if (latency.fail()) {
+            delays.schedule(() -> observer.onError(Status.UNAVAILABLE
+                    .withDescription("Injected by Qdrant stand-in").asRuntimeException()),
+                    delay.toNanos(), TimeUnit.NANOSECONDS);
+            return;
+        }
+        T value;
+        try {
+            value = response.get();
+        } catch (StatusRuntimeException e) {
+            observer.onError(e);
+            return;
+        }
+        delays.schedule(() -> {
+            observer.onNext(value);
+            observer.onCompleted();
+        }, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Collection collection(String name) {
+        Collection collection = collections.get(name);
+        if (collection == null) {
+            throw Status.NOT_FOUND.withDescription("Collection `" + name + "` doesn't exist!").asRuntimeException();
+        }
+        return collection;
+    }
+
+    private Points.PointsOperationResponse updated(long startNanos) {
+        return Points.PointsOperationResponse.newBuilder()
+                .setResult(Points.UpdateResult.newBuilder()
+                        .setOperationId(operationIds.incrementAndGet())
+                        .setStatus(Points.UpdateStatus.Completed))
+                .setTime(seconds(startNanos))
+                .build();
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private final class CollectionsService implements CollectionsGrpc.AsyncService {
+
+        @Override
+        public void list(Collections.ListCollectionsRequest request,
+                         StreamObserver<Collections.ListCollectionsResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                var response = Collections.ListCollectionsResponse.newBuilder();
+                collections.keySet().forEach(name -> response.addCollections(
+                        Collections.CollectionDescription.newBuilder().setName(name)));
+                return response.setTime(seconds(start)).build();
+            });
+        }
+
+        @Override
+        public void create(Collections.CreateCollection request,
+                           StreamObserver<Collections.CollectionOperationResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                int size = (int) request.getVectorsConfig().getParams().getSize();
+                Collection collection = new Collection(size, request.getSparseVectorsConfig().getMapMap().keySet());
+                boolean created = collections.putIfAbsent(request.getCollectionName(), collection) == null;
+                return Collections.CollectionOperationResponse.newBuilder()
+                        .setResult(created)
+                        .setTime(seconds(start))
+                        .build();
+            });
+        }
+
+        @Override
+        public void delete(Collections.DeleteCollection request,
+                           StreamObserver<Collections.CollectionOperationResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> Collections.CollectionOperationResponse.newBuilder()
+                    .setResult(collections.remove(request.getCollectionName()) != null)
+                    .setTime(seconds(start))
+                    .build());
+        }
+
+        @Override
+        public void get(Collections.GetCollectionInfoRequest request,
+                        StreamObserver<Collections.GetCollectionInfoResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                Collection collection = collection(request.getCollectionName());
+                var sparseConfig = Collections.SparseVectorConfig.newBuilder();
+                collection.sparseNames.forEach(name ->
+                        sparseConfig.putMap(name, Collections.SparseVectorParams.getDefaultInstance()));
+                return Collections.GetCollectionInfoResponse.newBuilder()
+                        .setResult(Collections.CollectionInfo.newBuilder()
+                                .setStatus(Collections.CollectionStatus.Green)
+                                .setPointsCount(collection.points.size())
+                                .setConfig(Collections.CollectionConfig.newBuilder()
+                                        .setParams(Collections.CollectionParams.newBuilder()
+                                                .setVectorsConfig(Collections.VectorsConfig.newBuilder()
+                                                        .setParams(Collections.VectorParams.newBuilder()
+                                                                .setSize(collection.size)
+                                                                .setDistance(Collections.Distance.Cosine)))
+                                                .setSparseVectorsConfig(sparseConfig))))
+                        .setTime(seconds(start))
+                        .build();
+            });
+        }
+    }
+
+    private final class PointsService implements PointsGrpc.AsyncService {
+
+        @Override
+        public void upsert(Points.UpsertPoints request, StreamObserver<Points.PointsOperationResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                Collection collection = collection(request.getCollectionName());
+                for (Points.PointStruct point : request.getPointsList()) {
+                    Points.Vectors vectors = point.getVectors();
+                    Map<String, Map<Integer, Float>> sparse = new HashMap<>();
+                    List<Float> data;
+                    if (vectors.hasVectors()) {
+                        data = List.of();
+                        for (Map.Entry<String, Points.Vector> named : vectors.getVectors().getVectorsMap().entrySet()) {
+                            if (named.getKey().isEmpty()) {
+                                data = named.getValue().getDataList();
+                            } else if (collection.sparseNames.contains(named.getKey())) {
+                                sparse.put(named.getKey(), sparseMap(named.getValue().getIndices().getDataList(),
+                                        named.getValue().getDataList()));
+                            } else {
+                                throw Status.INVALID_ARGUMENT.withDescription(
+                                        "Wrong input: Not existing vector name error: " + named.getKey())
+                                        .asRuntimeException();
+                            }
+                        }
+                    } else {
+                        data = vectors.getVector().getDataList();
+                    }
+                    if (data.size() != collection.size) {
+                        throw Status.INVALID_ARGUMENT.withDescription(
+                                "Wrong input: Vector dimension error: expected dim: " + collection.size
+                                        + ", got " + data.size()).asRuntimeException();
+                    }
+                    collection.points.put(key(point.getId()),
+                            new StoredPoint(point.getId(), normalize(data), sparse, point.getPayloadMap()));
+                }
+                upserts.increment();
+                return updated(start);
+            });
+        }
+
+        @Override
+        public void delete(Points.DeletePoints request, StreamObserver<Points.PointsOperationResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                Collection collection = collection(request.getCollectionName());
+                Points.PointsSelector selector = request.getPoints();
+                if (selector.hasPoints()) {
+                    selector.getPoints().getIdsList().forEach(id -> collection.points.remove(key(id)));
+                } else if (selector.hasFilter()) {
+                    collection.points.values().removeIf(p -> Filters.matches(selector.getFilter(), p.payload));
+                }
+                return updated(start);
+            });
+        }
+
+        @Override
+        public void search(Points.SearchPoints request, StreamObserver<Points.SearchResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                var response = Points.SearchResponse.newBuilder().addAllResult(scan(request));
+                searches.increment();
+                return response.setTime(seconds(start)).build();
+            });
+        }
+
+        @Override
+        public void searchBatch(Points.SearchBatchPoints request, StreamObserver<Points.SearchBatchResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                var response = Points.SearchBatchResponse.newBuilder();
+                for (Points.SearchPoints search : request.getSearchPointsList()) {
+                    response.addResult(Points.BatchResult.newBuilder().addAllResult(scan(search)));
+                    searches.increment();
+                }
+                return response.setTime(seconds(start)).build();
+            });
+        }
+
+        @Override
+        public void scroll(Points.ScrollPoints request, StreamObserver<Points.ScrollResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                Collection collection = collection(request.getCollectionName());
+                int limit = request.hasLimit() ? (int) request.getLimit() : 10;
+                var response = Points.ScrollResponse.newBuilder();
+                collection.points.values().stream()
+                        .filter(point -> !request.hasFilter() || Filters.matches(request.getFilter(), point.payload))
+                        .limit(limit)
+                        .forEach(point -> {
+                            var retrieved = Points.RetrievedPoint.newBuilder().setId(point.id);
+                            retrieved.putAllPayload(payload(request.getWithPayload(), point.payload));
+                            response.addResult(retrieved);
+                        });
+                return response.setTime(seconds(start)).build();
+            });
+        }
+
+        @Override
+        public void createFieldIndex(Points.CreateFieldIndexCollection request,
+                                     StreamObserver<Points.PointsOperationResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                collection(request.getCollectionName());
+                return updated(start);
+            });
+        }
+
+        @Override
+        public void searchGroups(Points.SearchPointGroups request, StreamObserver<Points.SearchGroupsResponse> observer) {
+            long start = System.nanoTime();
+            respond(observer, () -> {
+                searches.increment();
+                var search = Points.SearchPoints.newBuilder()
+                        .setCollectionName(request.getCollectionName())
+                        .addAllVector(request.getVectorList())
+                        .setLimit(Integer.MAX_VALUE);
+                if (request.hasVectorName()) {
+                    search.setVectorName(request.getVectorName());
+                }
+                if (request.hasSparseIndices()) {
+                    search.setSparseIndices(request.getSparseIndices());
+                }
+                if (request.hasFilter()) {
+                    search.setFilter(request.getFilter());
+                }
+                if (request.hasScoreThreshold()) {
+                    search.setScoreThreshold(request.getScoreThreshold());
+                }
+                // Groups in order of their best hit; points without the group_by key belong to no group
+                Map<JsonWithInt.Value, Points.PointGroup.Builder> groups = new LinkedHashMap<>();
+                for (Scored scored : rank(search.build())) {
+                    JsonWithInt.Value key = scored.point().payload.get(request.getGroupBy());
+                    if (key == null || !(key.hasStringValue() || key.hasIntegerValue())) {
+                        continue;
+                    }
+                    Points.PointGroup.Builder group = groups.get(key);
+                    if (group == null) {
+                        if (groups.size() == request.getLimit()) {
+                            continue;
+                        }
+                        group = Points.PointGroup.newBuilder().setId(key.hasStringValue()
+                                ? Points.GroupId.newBuilder().setStringValue(key.getStringValue())
+                                : Points.GroupId.newBuilder().setIntegerValue(key.getIntegerValue()));
+                        groups.put(key, group);
+                    }
+                    if (group.getHitsCount() < request.getGroupSize()) {
+                        group.addHits(scoredPoint(scored, request.getWithPayload(), request.getWithVectors()));
+                    }
+                }
+                var result = Points.GroupsResult.newBuilder();
+                groups.values().forEach(result::addGroups);
+                return Points.SearchGroupsResponse.newBuilder().setResult(result).setTime(seconds(start)).build();
+            });
+        }
+
+        private List<Points.ScoredPoint> scan(Points.SearchPoints request) {
+            List<Scored> ranked = rank(request);
+            List<Points.ScoredPoint> results = new ArrayList<>(ranked.size());
+            for (Scored scored : ranked) {
+                results.add(scoredPoint(scored, request.getWithPayload(), request.getWithVectors()));
+            }
+            return results;
+        }
+
+        /**
+         * Points matching the search, best first, at most its limit.
+         */
+        private List<Scored> rank(Points.SearchPoints request) {
+            Collection collection = collection(request.getCollectionName());
+            String vectorName = request.getVectorName();
+            boolean sparse = !vectorName.isEmpty();
+            if (sparse && !collection.sparseNames.contains(vectorName)) {
+                throw Status.INVALID_ARGUMENT.withDescription(
+                        "Wrong input: Not existing vector name error: " + vectorName).asRuntimeException();
+            }
+            float[] query = sparse ? null : normalize(request.getVectorList());
+            Map<Integer, Float> sparseQuery = sparse
+                    ? sparseMap(request.getSparseIndices().getDataList(), request.getVectorList())
+                    : null;
+            int limit = (int) Math.max(1, request.getLimit());
+            float threshold = request.hasScoreThreshold() ? request.getScoreThreshold() : -Float.MAX_VALUE;
+            PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+            for (StoredPoint point : collection.points.values()) {
+                if (request.hasFilter() && !Filters.matches(request.getFilter(), point.payload)) {
+                    continue;
+                }
+                float score;
+                if (sparse) {
+                    Map<Integer, Float> stored = point.sparse.get(vectorName);
+                    if (stored == null) {
+                        continue;
+                    }
+                    score = dot(sparseQuery, stored);
+                    if (score <= 0) {
+                        // Qdrant only returns points sharing at least one index with the query
+                        continue;
+                    }
+                } else {
+                    score = dot(query, point.vector);
+                }
+                if (score < threshold) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(new Scored(point, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Scored(point, score));
+                }
+            }
+            List<Scored> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+            return ranked;
+        }
+
+        private Points.ScoredPoint scoredPoint(Scored scored, Points.WithPayloadSelector withPayload,
+                                               Points.WithVectorsSelector withVectors) {
+            var result = Points.ScoredPoint.newBuilder()
+                    .setId(scored.point().id)
+                    .setScore(scored.score())
+                    .putAllPayload(payload(withPayload, scored.point().payload));
+            if (withVectors.getEnable()) {
+                result.setVectors(vectors(scored.point()));
+            }
+            return result.build();
+        }
+    }
+
+    /**
+     * The payload a selector asks for: all of it, the included keys, or none.
+     */
+    private static Map<String, JsonWithInt.Value> payload(Points.WithPayloadSelector selector,
+                                                         Map<String, JsonWithInt.Value> payload) {
+        if (selector.hasInclude()) {
+            Map<String, JsonWithInt.Value> included = new HashMap<>();
+            for (String field : selector.getInclude().getFieldsList()) {
+                JsonWithInt.Value value = payload.get(field);
+                if (value != null) {
+                    included.put(field, value);
+                }
+            }
+            return included;
+        }
+        return selector.getEnable() ? payload : Map.of();
+    }
+
+    /**
+     * A point's vectors as Qdrant returns them: the dense vector alone, or named next to sparse vectors.
+     */
+    private static Points.Vectors vectors(StoredPoint point) {
+        Points.Vector.Builder dense = Points.Vector.newBuilder();
+        for (float v : point.vector) {
+            dense.addData(v);
+        }
+        if (point.sparse.isEmpty()) {
+            return Points.Vectors.newBuilder().setVector(dense).build();
+        }
+        Points.NamedVectors.Builder named = Points.NamedVectors.newBuilder().putVectors("", dense.build());
+        for (Map.Entry<String, Map<Integer, Float>> sparse : point.sparse.entrySet()) {
+            Points.Vector.Builder vector = Points.Vector.newBuilder();
+            Points.SparseIndices.Builder indices = Points.SparseIndices.newBuilder();
+            for (Map.Entry<Integer, Float> term : sparse.getValue().entrySet()) {
+                indices.addData(term.getKey());
+                vector.addData(term.getValue());
+            }
+            named.putVectors(sparse.getKey(), vector.setIndices(indices).build());
+        }
+        return Points.Vectors.newBuilder().setVectors(named).build();
+    }
+
+    private static String key(Points.PointId id) {
+        return id.hasUuid() ? id.getUuid() : Long.toString(id.getNum());
+    }
+
+    private static float[] normalize(List<Float> data) {
+        float[] vector = new float[data.size()];
+        double norm = 0;
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = data.get(i);
+            norm += vector[i] * vector[i];
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    private static Map<Integer, Float> sparseMap(List<Integer> indices, List<Float> values) {
+        if (indices.size() != values.size()) {
+            throw Status.INVALID_ARGUMENT.withDescription(
+                    "Wrong input: Sparse indices and values must have the same length").asRuntimeException();
+        }
+        Map<Integer, Float> vector = new HashMap<>(indices.size() * 2);
+        for (int i = 0; i < indices.size(); i++) {
+            vector.put(indices.get(i), values.get(i));
+        }
+        return vector;
+    }
+
+    private static float dot(Map<Integer, Float> query, Map<Integer, Float> stored) {
+        float sum = 0;
+        for (Map.Entry<Integer, Float> e : query.entrySet()) {
+            Float v = stored.get(e.getKey());
+            if (v != null) {
+                sum += e.getValue() * v;
+            }
+        }
+        return sum;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        int n = Math.min(a.length, b.length);
+        float sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static final class Collection {
+        private final int size;
+        private final Set<String> sparseNames;
+        private final Map<String, StoredPoint> points = new ConcurrentHashMap<>();
+
+        private Collection(int size, Set<String> sparseNames) {
+            this.size = size;
+            this.sparseNames = Set.copyOf(sparseNames);
+        }
+    }
+
+    private record StoredPoint(Points.PointId id, float[] vector, Map<String, Map<Integer, Float>> sparse,
+                               Map<String, JsonWithInt.Value> payload) {}
+
+    private record Scored(StoredPoint point, float score) {}
+}
@@ -0,0 +1,107 @@
+package com.nexa.ingestion.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints scenario results as a table and optionally writes them as JSON for comparing runs.
+ */
+final class Report {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private Report() {
+    }
+
+    static void print(PrintStream out, List<LoadDriver.Result> results, ResourceSampler.Summary resources) {
+        for (LoadDriver.Result r : results) {
+            out.printf(Locale.ROOT, "%n== %s: target %.1f/s for %ds ==%n", r.name, r.targetRate,
+                    r.duration.toSeconds());
+            out.printf(Locale.ROOT, "  throughput   %.1f/s (%d ok, %d errors, %d dropped, error rate %.2f%%)%n",
+                    r.throughput(), r.succeeded(), r.errors(), r.dropped.sum(), r.errorRate() * 100);
+            out.printf("  responses    %s%n", r.outcomeCounts());
+            out.printf("  %-12s %s%n", "latency ms", header());
+            out.printf("  %-12s %s%n", "ok", row(r.latency));
+            if (r.errors() > 0) {
+                out.printf("  %-12s %s%n", "errors", row(r.errorLatency));
+            }
+            r.stages.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(stage ->
+                    out.printf("  %-12s %s%n", stage.getKey(), row(stage.getValue())));
+        }
+        if (resources != null) {
+            out.printf(Locale.ROOT, "%n== service resources (%d samples) ==%n", resources.samples());
+            out.printf(Locale.ROOT, "  cpu          avg %.1f%%, max %.1f%%%n",
+                    resources.cpuAvgPercent(), resources.cpuMaxPercent());
+            out.printf(Locale.ROOT, "  heap         max %.0f MB%n", resources.heapMaxMb());
+            out.printf(Locale.ROOT, "  threads      max %d%n", resources.threadsMax());
+            out.printf(Locale.ROOT, "  gc           %d pauses, %.0f ms total%n",
+                    resources.gcPauses(), resources.gcPauseMs());
+        }
+    }
+
+    static void write(Path file, List<LoadDriver.Result> results, ResourceSampler.Summary resources)
+            throws IOException {
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        for (LoadDriver.Result r : results) {
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", r.name);
+            scenario.put("targetRate", r.targetRate);
+            scenario.put("durationSeconds", r.duration.toSeconds());
+            scenario.put("throughput", r.throughput());
+            scenario.put("succeeded", r.succeeded());
+            scenario.put("errors", r.errors());
+            scenario.put("dropped", r.dropped.sum());
+            scenario.put("errorRate", r.errorRate());
+            scenario.put("responses", r.outcomeCounts());
+            scenario.put("latencyMs", percentiles(r.latency));
+            Map<String, Object> stages = new LinkedHashMap<>();
+            r.stages.forEach((name, histogram) -> stages.put(name, percentiles(histogram)));
+            scenario.put("stagesMs", stages);
+            scenarios.add(scenario);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenarios", scenarios);
+        report.put("resources", resources);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private static String header() {
+        StringBuilder header = new StringBuilder();
+        for (double p : PERCENTILES) {
+            header.append(String.format(Locale.ROOT, "%9s", label(p)));
+        }
+        return header.append(String.format(Locale.ROOT, "%9s", "max")).toString();
+    }
+
+    private static String row(Histogram histogram) {
+        StringBuilder row = new StringBuilder();
+        for (double p : PERCENTILES) {
+            row.append(String.format(Locale.ROOT, "%9.1f", histogram.getValueAtPercentile(p) / 1000.0));
+        }
+        return row.append(String.format(Locale.ROOT, "%9.1f", histogram.getMaxValue() / 1000.0)).toString();
+    }
+
+    private static String label(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (double p : PERCENTILES) {
+            values.put(label(p), histogram.getValueAtPercentile(p) / 1000.0);
+        }
+        values.put("max", histogram.getMaxValue() / 1000.0);
+        values.put("mean", histogram.getMean() / 1000.0);
+        return values;
+    }
+}
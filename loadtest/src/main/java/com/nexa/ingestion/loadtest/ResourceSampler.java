@@ -0,0 +1,108 @@
+package com.nexa.ingestion.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Samples the service's resource use once a second from its actuator metrics endpoint while the load runs:
+ * process CPU, heap in use, live threads and GC pause time.
+ */
+final class ResourceSampler {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client;
+    private final List<Sample> samples = new ArrayList<>();
+    private Disposable polling;
+
+    ResourceSampler(HttpClient client) {
+        this.client = client;
+    }
+
+    void start() {
+        polling = Flux.interval(Duration.ZERO, Duration.ofSeconds(1))
+                .onBackpressureDrop()
+                .concatMap(tick -> sample().onErrorResume(e -> Mono.empty()))
+                .subscribe(sample -> {
+                    synchronized (samples) {
+                        samples.add(sample);
+                    }
+                });
+    }
+
+    Summary stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+        List<Sample> taken;
+        synchronized (samples) {
+            taken = new ArrayList<>(samples);
+        }
+        if (taken.isEmpty()) {
+            return null;
+        }
+        double cpuSum = 0;
+        double cpuMax = 0;
+        double heapMax = 0;
+        double threadsMax = 0;
+        for (Sample s : taken) {
+            cpuSum += s.cpu;
+            cpuMax = Math.max(cpuMax, s.cpu);
+            heapMax = Math.max(heapMax, s.heapBytes);
+            threadsMax = Math.max(threadsMax, s.threads);
+        }
+        Sample first = taken.get(0);
+        Sample last = taken.get(taken.size() - 1);
+        return new Summary(taken.size(), cpuSum / taken.size() * 100, cpuMax * 100,
+                heapMax / (1024 * 1024), (int) threadsMax,
+                (long) (last.gcPauses - first.gcPauses), (last.gcPauseSeconds - first.gcPauseSeconds) * 1000);
+    }
+
+    private Mono<Sample> sample() {
+        return Mono.zip(value("process.cpu.usage", null, "VALUE"),
+                        value("jvm.memory.used", "area:heap", "VALUE"),
+                        value("jvm.threads.live", null, "VALUE"),
+                        value("jvm.gc.pause", null, "COUNT").defaultIfEmpty(0.0),
+                        value("jvm.gc.pause", null, "TOTAL_TIME").defaultIfEmpty(0.0))
+                .map(t -> new Sample(t.getT1(), t.getT2(), t.getT3(), t.getT4(), t.getT5()));
+    }
+
+    private Mono<Double> value(String metric, String tag, String statistic) {
+        String uri = "/actuator/metrics/" + metric + (tag != null ? "?tag=" + tag : "");
+        return client.get().uri(uri).responseSingle((res, body) -> {
+            if (res.status().code() != 200) {
+                return Mono.empty();
+            }
+            return body.asByteArray().flatMap(bytes -> {
+                try {
+                    for (JsonNode m : mapper.readTree(bytes).path("measurements")) {
+                        if (statistic.equals(m.path("statistic").asText())) {
+                            return Mono.just(m.path("value").asDouble());
+                        }
+                    }
+                    return Mono.empty();
+                } catch (IOException e) {
+                    return Mono.error(e);
+                }
+            });
+        });
+    }
+
+    private record Sample(double cpu, double heapBytes, double threads, double gcPauses, double gcPauseSeconds) {}
+
+    /**
+     * @param cpuAvgPercent mean process CPU across samples, 100% meaning all cores busy
+     * @param gcPauses collections during the run
+     * @param gcPauseMs total GC pause time during the run
+     */
+    record Summary(int samples, double cpuAvgPercent, double cpuMaxPercent, double heapMaxMb, int threadsMax,
+                   long gcPauses, double gcPauseMs) {}
+}
@@ -0,0 +1,120 @@
+package com.nexa.ingestion.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufMono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Requests the driver sends: searches against {@code POST /api/search/json} and single-document uploads to
+ * {@code POST /api/ingest/file}.
+ */
+final class Scenarios {
+
+    private static final List<String> QUERIES = List.of(
+            "How do I request access to the production database?",
+            "What is the on-call escalation policy?",
+            "How are deployments rolled back?",
+            "Where are the monitoring dashboards for the ingestion service?",
+            "What is the retention period for audit logs?",
+            "How do I rotate API tokens?",
+            "Which team owns the search platform?",
+            "How is customer data encrypted at rest?",
+            "What are the steps to onboard a new service?",
+            "How do I configure single sign-on for an internal tool?");
+
+    private static final String[] WORDS = ("service deployment access request approval manager monitoring "
+            + "dashboard rotation incident runbook database replica backup restore token secret vault policy "
+            + "review release pipeline build artifact cluster node latency throughput capacity quota alert "
+            + "escalation owner team platform search index query document embedding vector payload").split(" ");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client;
+    private final int docBytes;
+
+    Scenarios(String target, int maxConnections, int docKb) {
+        this.client = HttpClient.create(ConnectionProvider.builder("loadtest")
+                        .maxConnections(maxConnections)
+                        .pendingAcquireMaxCount(-1)
+                        .pendingAcquireTimeout(Duration.ofMinutes(5))
+                        .build())
+                .baseUrl(target);
+        this.docBytes = docKb * 1024;
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    LoadDriver.Call search(int limit) {
+        return sequence -> {
+            byte[] body;
+            try {
+                body = mapper.writeValueAsBytes(Map.of(
+                        "query", QUERIES.get((int) (sequence % QUERIES.size())),
+                        "limit", limit));
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+            return client.headers(h -> h.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON))
+                    .post()
+                    .uri("/api/search/json")
+                    .send(ByteBufMono.fromString(Mono.just(new String(body, StandardCharsets.UTF_8))))
+                    .responseSingle((res, content) -> content.then(Mono.fromSupplier(() -> response(res))));
+        };
+    }
+
+    /**
+     * Uploads a new markdown document per request, so every upload is chunked, embedded and upserted rather
+     * than skipped as unchanged.
+     */
+    LoadDriver.Call upload() {
+        return sequence -> {
+            String name = "loadtest-" + sequence + "-" + System.nanoTime() + ".md";
+            byte[] document = document(name, sequence);
+            return client.post()
+                    .uri("/api/ingest/file")
+                    .sendForm((req, form) -> form.multipart(true)
+                            .file("file", name, new ByteArrayInputStream(document), "text/markdown"))
+                    .responseSingle((res, content) -> content.then(Mono.fromSupplier(() -> response(res))));
+        };
+    }
+
+    private static LoadDriver.Response response(HttpClientResponse res) {
+        return new LoadDriver.Response(res.status().code(), res.responseHeaders().get("Server-Timing"));
+    }
+
+    private byte[] document(String name, long sequence) {
+        Random random = new Random(sequence);
+        StringBuilder text = new StringBuilder(docBytes + 256).append("# ").append(name).append("\n\n");
+        int section = 0;
+        while (text.length() < docBytes) {
+            if (section++ % 4 == 0) {
+                text.append("## Section ").append(section).append("\n\n");
+            }
+            int sentences = 3 + random.nextInt(4);
+            for (int s = 0; s < sentences; s++) {
+                int words = 8 + random.nextInt(12);
+                for (int w = 0; w < words; w++) {
+                    String word = WORDS[random.nextInt(WORDS.length)];
+                    text.append(w == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+                    text.append(w == words - 1 ? ". " : " ");
+                }
+            }
+            text.append("\n\n");
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package com.nexa.ingestion.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Deterministic stand-in embeddings: words are hashed into the vector's dimensions (the hashing trick) and the
+ * result is normalized. Texts sharing words get similar vectors, so searches against the Qdrant stand-in return
+ * plausible neighbours and the pipeline moves realistically sized vectors.
+ */
+final class StubEmbeddings {
+
+    private StubEmbeddings() {
+    }
+
+    static float[] embed(String text, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            int hash = word.hashCode();
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            vector[Math.floorMod(hash, dimensions)] += (hash & 0x40000000) != 0 ? 1f : -1f;
+        }
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            vector[0] = 1f;
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,220 @@
+package com.nexa.ingestion.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP stand-in for the Hugging Face router: the feature-extraction endpoint
+ * ({@code POST /hf-inference/models/{model}}, single or batch {@code inputs}) and OpenAI-compatible
+ * {@code POST /v1/chat/completions}, plain or streamed as server-sent events. Every response is delayed by a
+ * {@link LatencyModel} sample and a configured fraction fail (503 for embeddings, 429 for chat, as the real
+ * router does under load).
+ */
+final class StubServer {
+
+    private static final Logger log = LoggerFactory.getLogger(StubServer.class);
+    private static final String EMBED_PATH = "/hf-inference/models/";
+    private static final String ANSWER_TEXT = "Based on the provided context, the process is described in the "
+            + "onboarding runbook. First, request access through the service portal and wait for approval from "
+            + "your manager. Then follow the deployment checklist, confirm the monitoring dashboards and register "
+            + "the service with the on-call rotation. Contact the platform team if any step fails.";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int dimensions;
+    private final LatencyModel embedLatency;
+    private final LatencyModel llmLatency;
+    private final Duration tokenInterval;
+    private final int answerTokens;
+    private final LongAdder embedRequests = new LongAdder();
+    private final LongAdder embedTexts = new LongAdder();
+    private final LongAdder chatRequests = new LongAdder();
+    private DisposableServer server;
+
+    /**
+     * @param llmLatency time to the full answer, or to the first token when streaming
+     * @param tokenInterval delay between streamed tokens
+     */
+    StubServer(int dimensions, LatencyModel embedLatency, LatencyModel llmLatency, Duration tokenInterval,
+               int answerTokens) {
+        this.dimensions = dimensions;
+        this.embedLatency = embedLatency;
+        this.llmLatency = llmLatency;
+        this.tokenInterval = tokenInterval;
+        this.answerTokens = answerTokens;
+    }
+
+    void start(int port) {
+        server = HttpServer.create()
+                .port(port)
+                .route(routes -> routes
+                        .route(req -> req.method() == HttpMethod.POST && req.uri().startsWith(EMBED_PATH), this::embed)
+                        .post("/v1/chat/completions", this::chat)
+                        .get("/health", (req, res) -> res.sendString(Mono.just("ok"))))
+                .bindNow();
+        log.info("Stub Hugging Face / LLM server on port {} (embeddings: {}; chat: {})",
+                server.port(), embedLatency, llmLatency);
+    }
+
+    void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+        log.info("Stub server handled {} embedding requests ({} texts), {} chat completions",
+                embedRequests.sum(), embedTexts.sum(), chatRequests.sum());
+    }
+
+    private Publisher<Void> embed(HttpServerRequest req, HttpServerResponse res) {
+        return req.receive().aggregate().asByteArray().defaultIfEmpty(new byte[0]).flatMap(body -> {
+            embedRequests.increment();
+            Duration delay = embedLatency.sample();
+            if (embedLatency.fail()) {
+                return Mono.delay(delay).then(error(res, HttpResponseStatus.SERVICE_UNAVAILABLE,
+                        "Model is overloaded (injected by stub)"));
+            }
+            JsonNode inputs;
+            try {
+                inputs = mapper.readTree(body).path("inputs");
+            } catch (IOException e) {
+                return error(res, HttpResponseStatus.BAD_REQUEST, "Invalid JSON: " + e.getMessage());
+            }
+            Object embeddings;
+            if (inputs.isArray()) {
+                List<float[]> vectors = new ArrayList<>(inputs.size());
+                for (JsonNode input : inputs) {
+                    vectors.add(StubEmbeddings.embed(input.asText(), dimensions));
+                }
+                embedTexts.add(vectors.size());
+                embeddings = vectors;
+            } else if (inputs.isTextual()) {
+                embedTexts.increment();
+                embeddings = StubEmbeddings.embed(inputs.asText(), dimensions);
+            } else {
+                return error(res, HttpResponseStatus.BAD_REQUEST, "inputs must be a string or an array of strings");
+            }
+            return Mono.delay(delay).then(json(res, embeddings));
+        });
+    }
+
+    private Publisher<Void> chat(HttpServerRequest req, HttpServerResponse res) {
+        return req.receive().aggregate().asByteArray().defaultIfEmpty(new byte[0]).flatMap(body -> {
+            chatRequests.increment();
+            JsonNode request;
+            try {
+                request = mapper.readTree(body);
+            } catch (IOException e) {
+                return error(res, HttpResponseStatus.BAD_REQUEST, "Invalid JSON: " + e.getMessage());
+            }
+            Duration delay = llmLatency.sample();
+            if (llmLatency.fail()) {
+                return Mono.delay(delay).then(error(res, HttpResponseStatus.TOO_MANY_REQUESTS,
+                        "Rate limit reached (injected by stub)"));
+            }
+            int maxTokens = request.path("max_tokens").asInt(answerTokens);
+            List<String> tokens = answerTokens(Math.min(answerTokens, maxTokens));
+            String model = request.path("model").asText("stub");
+            int promptChars = 0;
+            for (JsonNode message : request.path("messages")) {
+                promptChars += message.path("content").asText().length();
+            }
+            if (request.path("stream").asBoolean(false)) {
+                return Mono.delay(delay).then(stream(res, model, tokens));
+            }
+            return Mono.delay(delay).then(json(res, completion(model, String.join("", tokens).trim(),
+                    promptChars / 4, tokens.size())));
+        });
+    }
+
+    private Mono<Void> stream(HttpServerResponse res, String model, List<String> tokens) {
+        String id = "chatcmpl-" + UUID.randomUUID();
+        Flux<String> events = Flux.fromIterable(tokens)
+                .delayElements(tokenInterval)
+                .map(token -> sse(chunk(id, model, Map.of("content", token), null)))
+                .startWith(sse(chunk(id, model, Map.of("role", "assistant"), null)))
+                .concatWith(Mono.fromCallable(() -> sse(chunk(id, model, Map.of(), "stop"))))
+                .concatWith(Mono.just("data: [DONE]\n\n"));
+        return res.header(HttpHeaderNames.CONTENT_TYPE, "text/event-stream")
+                .sendString(events)
+                .then();
+    }
+
+    private List<String> answerTokens(int count) {
+        String[] words = ANSWER_TEXT.split(" ");
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(words[i % words.length] + " ");
+        }
+        return tokens;
+    }
+
+    private static Map<String, Object> completion(String model, String content, int promptTokens, int completionTokens) {
+        Map<String, Object> message = Map.of("role", "assistant", "content", content);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", "chatcmpl-" + UUID.randomUUID());
+        response.put("object", "chat.completion");
+        response.put("created", System.currentTimeMillis() / 1000);
+        response.put("model", model);
+        response.put("choices", List.of(Map.of("index", 0, "message", message, "finish_reason", "stop")));
+        response.put("usage", Map.of("prompt_tokens", promptTokens, "completion_tokens", completionTokens,
+                "total_tokens", promptTokens + completionTokens));
+        return response;
+    }
+
+    private static Map<String, Object> chunk(String id, String model, Map<String, Object> delta, String finishReason) {
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("id", id);
+        chunk.put("object", "chat.completion.chunk");
+        chunk.put("created", System.currentTimeMillis() / 1000);
+        chunk.put("model", model);
+        chunk.put("choices", List.of(choice));
+        return chunk;
+    }
+
+    private String sse(Object data) {
+        try {
+            return "data: " + mapper.writeValueAsString(data) + "\n\n";
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Mono<Void> json(HttpServerResponse res, Object body) {
+        byte[] bytes;
+        try {
+            bytes = mapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            return Mono.error(e);
+        }
+        return res.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendByteArray(Mono.just(bytes))
+                .then();
+    }
+
+    private Mono<Void> error(HttpServerResponse res, HttpResponseStatus status, String message) {
+        return json(res.status(status), Map.of("error", message));
+    }
+}
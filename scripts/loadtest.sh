@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# Run the service against local stand-ins for Hugging Face, the LLM and Qdrant, then drive load at it.
+# - Builds the service jar and loadtest/target/loadtest.jar
+# - Starts the stand-ins (STUB_ARGS) and the service with its data under a temporary directory
+# - Runs the driver with this script's arguments, e.g.:
+#     scripts/loadtest.sh --search-rate=50 --upload-rate=1 --duration=2m --out=report.json
+# Set SKIP_BUILD=1 to reuse existing jars, APP_JAVA_OPTS for service JVM flags.
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+ROOT_DIR="$(cd "$SCRIPT_DIR/.." && pwd)"
+APP_PORT="${APP_PORT:-5000}"
+STUB_PORT="${STUB_PORT:-9090}"
+QDRANT_PORT="${LOADTEST_QDRANT_PORT:-6334}"
+
+cd "$ROOT_DIR"
+
+if [[ -z "$SKIP_BUILD" ]]; then
+  echo "Building service and load-test harness..."
+  mvn -q package -DskipTests
+  mvn -q -f loadtest/pom.xml package -DskipTests
+fi
+
+APP_JAR="target/data-embed-ingestion-service-1.0.0-SNAPSHOT.jar"
+HARNESS_JAR="loadtest/target/loadtest.jar"
+WORK_DIR="$(mktemp -d -t loadtest.XXXXXX)"
+echo "Working directory: $WORK_DIR"
+
+cleanup() {
+  kill $APP_PID $STUB_PID 2>/dev/null || true
+  wait 2>/dev/null || true
+}
+trap cleanup EXIT
+
+java -jar "$HARNESS_JAR" stubs --port="$STUB_PORT" --qdrant-port="$QDRANT_PORT" $STUB_ARGS \
+  > "$WORK_DIR/stubs.log" 2>&1 &
+STUB_PID=$!
+
+java $APP_JAVA_OPTS -jar "$APP_JAR" \
+  --server.port="$APP_PORT" \
+  --huggingface.api-url="http://localhost:$STUB_PORT" \
+  --huggingface.api-token=loadtest \
+  --llm.api-url="http://localhost:$STUB_PORT/v1" \
+  --llm.api-token=loadtest \
+  --qdrant.host=localhost \
+  --qdrant.port="$QDRANT_PORT" \
+  --qdrant.use-tls=false \
+  --qdrant.api-key= \
+  --qdrant.collection-name=loadtest \
+  --filesystem.manifest-path="$WORK_DIR/filesystem-manifest.json" \
+  --ingestion.checkpoint.path="$WORK_DIR/ingestion-checkpoints.log" \
+  --ingestion.spool.directory="$WORK_DIR/spool" \
+  --ingestion.dead-letter.directory="$WORK_DIR/dead-letters" \
+  --diagnostics.jfr.directory="$WORK_DIR/jfr" \
+  --logging.file.name="$WORK_DIR/application.log" \
+  > "$WORK_DIR/app.out" 2>&1 &
+APP_PID=$!
+
+echo "Waiting for the service on port $APP_PORT..."
+for _ in $(seq 1 120); do
+  if curl -sf "http://localhost:$APP_PORT/actuator/health" > /dev/null; then
+    break
+  fi
+  if ! kill -0 "$APP_PID" 2>/dev/null; then
+    echo "Error: service exited during startup, see $WORK_DIR/app.out"
+    exit 1
+  fi
+  sleep 1
+done
+
+if ! kill -0 "$STUB_PID" 2>/dev/null; then
+  echo "Error: stand-ins exited during startup, see $WORK_DIR/stubs.log"
+  exit 1
+fi
+
+status=0
+java -jar "$HARNESS_JAR" drive --target="http://localhost:$APP_PORT" "$@" || status=$?
+echo "Logs: $WORK_DIR"
+exit $status
@@ -0,0 +1,107 @@
+package com.nexa.ingestion.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexa.ingestion.util.HtmlToPlainText;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixture documents for the benchmarks, one per kind of content the pipeline ingests, scaled to a target size
+ * by repeating the fixture.
+ */
+public final class Corpus {
+
+    public enum Kind {
+        /** Confluence storage-format page (macros, tables, task lists), converted to text. */
+        CONFLUENCE("confluence-storage.html"),
+        /** Jira issue description in Atlassian Document Format, flattened to text. */
+        JIRA("jira-adf.json"),
+        /** Markdown from a GitHub repository, as ingested (unrendered). */
+        MARKDOWN("markdown.md"),
+        /** Text extracted from a PDF: hard-wrapped lines, hyphenation, page headers and tables. */
+        PDF("pdf-text.txt");
+
+        private final String fixture;
+
+        Kind(String fixture) {
+            this.fixture = fixture;
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Corpus() {
+    }
+
+    /**
+     * Plain text of the given kind, as it reaches the chunkers, of about {@code chars} characters.
+     */
+    public static String text(Kind kind, int chars) {
+        String text = switch (kind) {
+            case CONFLUENCE -> HtmlToPlainText.convert(fixture(kind));
+            case JIRA -> adfToText(fixture(kind));
+            case MARKDOWN, PDF -> fixture(kind);
+        };
+        return scale(text, "\n\n", chars);
+    }
+
+    /**
+     * Confluence storage-format HTML of about {@code chars} characters.
+     */
+    public static String confluenceHtml(int chars) {
+        return scale(fixture(Kind.CONFLUENCE), "\n", chars);
+    }
+
+    private static String scale(String text, String separator, int chars) {
+        StringBuilder scaled = new StringBuilder(chars + text.length());
+        while (scaled.length() < chars) {
+            if (scaled.length() > 0) {
+                scaled.append(separator);
+            }
+            scaled.append(text);
+        }
+        int end = Math.min(chars, scaled.length());
+        while (end < scaled.length() && !Character.isWhitespace(scaled.charAt(end))) {
+            end++;
+        }
+        return scaled.substring(0, end);
+    }
+
+    private static String adfToText(String json) {
+        try {
+            StringBuilder text = new StringBuilder();
+            appendText(MAPPER.readTree(json), text);
+            return text.toString().trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendText(JsonNode node, StringBuilder text) {
+        if (node.hasNonNull("text")) {
+            text.append(node.get("text").asText());
+        }
+        for (JsonNode child : node.path("content")) {
+            appendText(child, text);
+        }
+        String type = node.path("type").asText();
+        if (type.equals("paragraph") || type.equals("heading") || type.equals("codeBlock")) {
+            text.append("\n\n");
+        }
+    }
+
+    private static String fixture(Kind kind) {
+        try (InputStream in = Corpus.class.getResourceAsStream("/fixtures/" + kind.fixture)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + kind.fixture);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.benchmark.Corpus;
+import com.nexa.ingestion.config.IngestionProperties;
+import com.nexa.ingestion.dto.DocumentChunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Both chunkers over each kind of document at several sizes, with the default chunk settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkingBenchmark {
+
+    @Param({"CONFLUENCE", "JIRA", "MARKDOWN", "PDF"})
+    public Corpus.Kind kind;
+
+    @Param({"2", "16", "128"})
+    public int sizeKb;
+
+    private String text;
+    private IngestionProperties.Chunk chunk;
+    private SemanticChunkingService semanticChunkingService;
+    private ChunkingService chunkingService;
+
+    @Setup
+    public void setup() {
+        IngestionProperties properties = new IngestionProperties();
+        chunk = properties.getChunk();
+        semanticChunkingService = new SemanticChunkingService(properties);
+        chunkingService = new ChunkingService(properties);
+        text = Corpus.text(kind, sizeKb * 1024);
+    }
+
+    @Benchmark
+    public List<String> semanticChunkWithOverlap() {
+        return semanticChunkingService.chunkWithOverlap(text,
+                chunk.getTargetTokensMin(), chunk.getTargetTokensMax(), chunk.getOverlapTokens());
+    }
+
+    @Benchmark
+    public List<DocumentChunk> chunk() {
+        return chunkingService.chunk("page-1", "Benchmark page", text);
+    }
+}
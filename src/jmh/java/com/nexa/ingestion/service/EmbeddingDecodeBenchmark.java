@@ -0,0 +1,62 @@
+package com.nexa.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of Hugging Face feature-extraction responses as {@link EmbeddingService} does it:
+ * JSON to nested lists (what {@code bodyToMono(List.class)} produces), then to float arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmbeddingDecodeBenchmark {
+
+    /** Texts per request; 8 is the default embed batch size. */
+    @Param({"1", "8", "32"})
+    public int batchSize;
+
+    @Param({"1024"})
+    public int dimensions;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] response;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            float[] vector = new float[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                vector[d] = (float) random.nextGaussian() * 0.05f;
+            }
+            vectors.add(vector);
+        }
+        response = mapper.writeValueAsBytes(vectors);
+    }
+
+    @Benchmark
+    public List<float[]> decodeBatch() throws IOException {
+        return EmbeddingService.decodeBatch(mapper.readValue(response, List.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.nexa.ingestion.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MMR selection over search candidates as {@link SearchService} runs it with {@code search.mmr} on. Candidates
+ * come in groups of near-duplicates, like overlapping chunks of one document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MmrSelectorBenchmark {
+
+    /** Candidates fetched; 20 is the default {@code search.mmr.candidates}. */
+    @Param({"20", "100"})
+    public int candidates;
+
+    @Param({"5"})
+    public int limit;
+
+    @Param({"1024"})
+    public int dimensions;
+
+    private float[][] vectors;
+    private double[] scores;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        vectors = new float[candidates][];
+        scores = new double[candidates];
+        float[] base = null;
+        for (int i = 0; i < candidates; i++) {
+            if (i % 4 == 0) {
+                base = gaussian(random, 0.05f);
+            }
+            float[] vector = new float[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                vector[d] = base[d] + (float) random.nextGaussian() * 0.01f;
+            }
+            vectors[i] = vector;
+            scores[i] = 0.9 - i * 0.005;
+        }
+    }
+
+    private float[] gaussian(Random random, float scale) {
+        float[] vector = new float[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            vector[d] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+
+    @Benchmark
+    public int[] select() {
+        return MmrSelector.select(vectors, scores, limit, 0.7);
+    }
+}
@@ -0,0 +1,106 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.benchmark.Corpus;
+import com.nexa.ingestion.config.QdrantProperties;
+import com.nexa.ingestion.config.SearchProperties;
+import com.nexa.ingestion.dto.DocumentMetadata;
+import com.nexa.ingestion.dto.qdrant.QdrantPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building Qdrant points from chunk metadata and converting them to gRPC structs, per chunk.
+ * No requests are sent; the client's channel is never used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QdrantPointBenchmark {
+
+    /** Chunk text length; ~2 KB is a default-size chunk. */
+    @Param({"2", "8"})
+    public int chunkKb;
+
+    private QdrantService qdrantService;
+    private DocumentMetadata metadata;
+    private float[] vector;
+    private QdrantPoint point;
+    private List<String> tags;
+
+    @Setup
+    public void setup() {
+        QdrantProperties properties = new QdrantProperties();
+        qdrantService = new QdrantService(properties, new PipelineMetrics(new SimpleMeterRegistry()),
+                new CollectionWriteGeneration(), new Bm25Encoder(new SearchProperties()));
+
+        Random random = new Random(42);
+        vector = new float[properties.getVectorSize()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian() * 0.05f;
+        }
+        tags = List.of("onboarding", "platform", "runbook", "deployment");
+
+        metadata = new DocumentMetadata("3f1c2a9e-6d2b-4a51-9b0e-1f3a7c2d8e41",
+                Corpus.text(Corpus.Kind.CONFLUENCE, chunkKb * 1024), "Service Onboarding Runbook", "confluence");
+        metadata.setDocumentId("confluence:123456");
+        metadata.setUrl("https://wiki.example.com/spaces/PLAT/pages/123456");
+        metadata.setAuthor("Platform Engineering");
+        metadata.setDepartment("Engineering");
+        metadata.setTags(tags);
+        metadata.setCreatedAt(Instant.parse("2024-01-15T09:30:00Z"));
+        metadata.setUpdatedAt(Instant.parse("2024-06-02T14:05:00Z"));
+        metadata.setChunkIndex(3);
+        metadata.setEmbeddingModel("BAAI/bge-large-en-v1.5");
+        metadata.setSecurityLevel("internal");
+        metadata.setLanguage("en");
+        metadata.setCustomFields(Map.of("spaceKey", "PLAT", "version", 7));
+        point = QdrantService.toPoint(metadata, vector);
+    }
+
+    @TearDown
+    public void tearDown() {
+        qdrantService.close();
+    }
+
+    @Benchmark
+    public QdrantPoint toPoint() {
+        return QdrantService.toPoint(metadata, vector);
+    }
+
+    @Benchmark
+    public Points.PointStruct toPointStruct() {
+        return qdrantService.toPointStruct(point);
+    }
+
+    @Benchmark
+    public JsonWithInt.Value toValueString() {
+        return qdrantService.toValue(metadata.getText());
+    }
+
+    @Benchmark
+    public JsonWithInt.Value toValueList() {
+        return qdrantService.toValue(tags);
+    }
+}
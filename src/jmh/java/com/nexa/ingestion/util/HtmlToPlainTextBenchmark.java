@@ -0,0 +1,43 @@
+package com.nexa.ingestion.util;
+
+import com.nexa.ingestion.benchmark.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTML-to-text conversion of Confluence storage-format pages at several sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlToPlainTextBenchmark {
+
+    @Param({"2", "16", "128"})
+    public int sizeKb;
+
+    private String html;
+
+    @Setup
+    public void setup() {
+        html = Corpus.confluenceHtml(sizeKb * 1024);
+    }
+
+    @Benchmark
+    public String convert() {
+        return HtmlToPlainText.convert(html);
+    }
+}
@@ -1,6 +1,7 @@
 package com.nexa.ingestion;
 
 import com.nexa.ingestion.config.ConfluenceProperties;
+import com.nexa.ingestion.config.DiagnosticsProperties;
 import com.nexa.ingestion.config.FileSystemProperties;
 import com.nexa.ingestion.config.GitHubProperties;
 import com.nexa.ingestion.config.HuggingFaceProperties;
@@ -8,6 +9,7 @@ import com.nexa.ingestion.config.IngestionProperties;
 import com.nexa.ingestion.config.JiraProperties;
 import com.nexa.ingestion.config.LLMProperties;
 import com.nexa.ingestion.config.QdrantProperties;
+import com.nexa.ingestion.config.SearchProperties;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -24,7 +26,9 @@ import org.springframework.web.reactive.function.client.WebClient;
         HuggingFaceProperties.class,
         QdrantProperties.class,
         IngestionProperties.class,
-        LLMProperties.class
+        LLMProperties.class,
+        DiagnosticsProperties.class,
+        SearchProperties.class
 })
 public class IngestionApplication {
 
@@ -6,6 +6,7 @@ import org.springframework.validation.annotation.Validated;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @ConfigurationProperties(prefix = "confluence")
 @Validated
@@ -26,6 +27,11 @@ public class ConfluenceProperties {
     @PositiveOrZero
     private int maxPagesPerSpace = 0;
 
+    /**
+     * Space keys ingested by {@code ingestAll}, comma-separated: "TEAM,ENG".
+     */
+    private String spaces = "";
+
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -69,4 +75,19 @@ public class ConfluenceProperties {
     public String getContentUrl() {
         return baseUrl + apiPath;
     }
+
+    public List<String> getSpaces() {
+        if (spaces == null || spaces.isBlank()) {
+            return List.of();
+        }
+        return List.of(spaces.split(","))
+                .stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    public void setSpaces(String spaces) {
+        this.spaces = spaces;
+    }
 }
@@ -0,0 +1,139 @@
+package com.nexa.ingestion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Positive;
+
+@ConfigurationProperties(prefix = "diagnostics")
+@Validated
+public class DiagnosticsProperties {
+
+    private Jfr jfr = new Jfr();
+    private EventLoop eventLoop = new EventLoop();
+
+    public Jfr getJfr() {
+        return jfr;
+    }
+
+    public void setJfr(Jfr jfr) {
+        this.jfr = jfr;
+    }
+
+    public EventLoop getEventLoop() {
+        return eventLoop;
+    }
+
+    public void setEventLoop(EventLoop eventLoop) {
+        this.eventLoop = eventLoop;
+    }
+
+    public static class Jfr {
+        /**
+         * Start an in-process continuous recording with the JDK's default settings, under which the pipeline's
+         * events keep their thresholds (only slow stages are recorded). Not needed if the JVM is started with
+         * -XX:StartFlightRecording; dumps include every running recording.
+         */
+        private boolean continuous = false;
+
+        @Positive
+        private int maxAgeMinutes = 30;
+
+        @Positive
+        private int maxSizeMb = 100;
+
+        /**
+         * Where on-demand dumps are written.
+         */
+        private String directory = "data/jfr";
+
+        public boolean isContinuous() {
+            return continuous;
+        }
+
+        public void setContinuous(boolean continuous) {
+            this.continuous = continuous;
+        }
+
+        public int getMaxAgeMinutes() {
+            return maxAgeMinutes;
+        }
+
+        public void setMaxAgeMinutes(int maxAgeMinutes) {
+            this.maxAgeMinutes = maxAgeMinutes;
+        }
+
+        public int getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(int maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static class EventLoop {
+        /**
+         * Probe the Reactor Netty event loops for scheduling lag and report loops blocked past the threshold.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How often each loop is sent a probe task.
+         */
+        @Positive
+        private int probeIntervalMs = 100;
+
+        /**
+         * A loop whose probe has waited this long is considered blocked; its thread's stack is captured.
+         */
+        @Positive
+        private int stallThresholdMs = 200;
+
+        /**
+         * Most recent stalls kept for GET /api/diagnostics/event-loops.
+         */
+        @Positive
+        private int recentStalls = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getProbeIntervalMs() {
+            return probeIntervalMs;
+        }
+
+        public void setProbeIntervalMs(int probeIntervalMs) {
+            this.probeIntervalMs = probeIntervalMs;
+        }
+
+        public int getStallThresholdMs() {
+            return stallThresholdMs;
+        }
+
+        public void setStallThresholdMs(int stallThresholdMs) {
+            this.stallThresholdMs = stallThresholdMs;
+        }
+
+        public int getRecentStalls() {
+            return recentStalls;
+        }
+
+        public void setRecentStalls(int recentStalls) {
+            this.recentStalls = recentStalls;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.nexa.ingestion.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.util.List;
 
 @ConfigurationProperties(prefix = "filesystem")
@@ -17,6 +19,19 @@ public class FileSystemProperties {
 
     private boolean recursive = true;  // Recursively scan subdirectories
 
+    private String manifestPath = "data/filesystem-manifest.json";  // Persisted (path, size, mtime, hash) of ingested files
+
+    @Positive
+    private int walkParallelism = 4;  // Threads used to walk directories
+
+    @Positive
+    private int readConcurrency = 4;  // Threads used to read and hash changed files
+
+    @PositiveOrZero
+    private int mmapThresholdKb = 256;  // Files at least this large are memory-mapped instead of read into heap
+
+    private Watch watch = new Watch();
+
     public List<String> getBasePaths() {
         if (basePaths == null || basePaths.isBlank()) {
             return List.of();
@@ -55,4 +70,78 @@ public class FileSystemProperties {
     public void setRecursive(boolean recursive) {
         this.recursive = recursive;
     }
+
+    public String getManifestPath() {
+        return manifestPath;
+    }
+
+    public void setManifestPath(String manifestPath) {
+        this.manifestPath = manifestPath;
+    }
+
+    public int getWalkParallelism() {
+        return walkParallelism;
+    }
+
+    public void setWalkParallelism(int walkParallelism) {
+        this.walkParallelism = walkParallelism;
+    }
+
+    public int getReadConcurrency() {
+        return readConcurrency;
+    }
+
+    public void setReadConcurrency(int readConcurrency) {
+        this.readConcurrency = readConcurrency;
+    }
+
+    public int getMmapThresholdKb() {
+        return mmapThresholdKb;
+    }
+
+    public void setMmapThresholdKb(int mmapThresholdKb) {
+        this.mmapThresholdKb = mmapThresholdKb;
+    }
+
+    public Watch getWatch() {
+        return watch;
+    }
+
+    public void setWatch(Watch watch) {
+        this.watch = watch;
+    }
+
+    public static class Watch {
+        private boolean enabled = false;  // Continuously ingest changes under base paths via WatchService
+
+        @Positive
+        private long debounceMs = 1000;  // Quiet period after the last event on a file before it is ingested
+
+        @Positive
+        private long maxDelayMs = 10000;  // Upper bound on how long a continuously-modified file is held back
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDebounceMs() {
+            return debounceMs;
+        }
+
+        public void setDebounceMs(long debounceMs) {
+            this.debounceMs = debounceMs;
+        }
+
+        public long getMaxDelayMs() {
+            return maxDelayMs;
+        }
+
+        public void setMaxDelayMs(long maxDelayMs) {
+            this.maxDelayMs = maxDelayMs;
+        }
+    }
 }
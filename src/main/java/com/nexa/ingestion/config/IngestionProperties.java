@@ -4,6 +4,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.util.HashMap;
+import java.util.Map;
 
 @ConfigurationProperties(prefix = "ingestion")
 @Validated
@@ -55,6 +58,389 @@ public class IngestionProperties {
         this.embedBatchSize = embedBatchSize;
     }
 
+    private Checkpoint checkpoint = new Checkpoint();
+
+    public Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    private Scheduling scheduling = new Scheduling();
+
+    public Scheduling getScheduling() {
+        return scheduling;
+    }
+
+    public void setScheduling(Scheduling scheduling) {
+        this.scheduling = scheduling;
+    }
+
+    public static class Scheduling {
+        /**
+         * Embedding requests in flight at once, shared by all sources.
+         */
+        @Positive
+        private int embedConcurrency = 4;
+
+        /**
+         * Upsert requests in flight at once, shared by all sources.
+         */
+        @Positive
+        private int upsertConcurrency = 4;
+
+        /**
+         * Spaces/projects/repositories of one source crawled at once.
+         */
+        @Positive
+        private int sourceConcurrency = 2;
+
+        /**
+         * Queued work is promoted one priority lane for every this many milliseconds it waits.
+         */
+        @Positive
+        private long agingMs = 2000;
+
+        /**
+         * Share of the embed/upsert stages per source (confluence, jira, github, filesystem, upload); default 1.
+         */
+        private Map<String, Double> weights = new HashMap<>();
+
+        public int getEmbedConcurrency() {
+            return embedConcurrency;
+        }
+
+        public void setEmbedConcurrency(int embedConcurrency) {
+            this.embedConcurrency = embedConcurrency;
+        }
+
+        public int getUpsertConcurrency() {
+            return upsertConcurrency;
+        }
+
+        public void setUpsertConcurrency(int upsertConcurrency) {
+            this.upsertConcurrency = upsertConcurrency;
+        }
+
+        public int getSourceConcurrency() {
+            return sourceConcurrency;
+        }
+
+        public void setSourceConcurrency(int sourceConcurrency) {
+            this.sourceConcurrency = sourceConcurrency;
+        }
+
+        public long getAgingMs() {
+            return agingMs;
+        }
+
+        public void setAgingMs(long agingMs) {
+            this.agingMs = agingMs;
+        }
+
+        public Map<String, Double> getWeights() {
+            return weights;
+        }
+
+        public void setWeights(Map<String, Double> weights) {
+            this.weights = weights;
+        }
+    }
+
+    private Memory memory = new Memory();
+
+    public Memory getMemory() {
+        return memory;
+    }
+
+    public void setMemory(Memory memory) {
+        this.memory = memory;
+    }
+
+    public static class Memory {
+        /**
+         * Bytes of document text, chunks and vectors held in memory at once across all ingestion runs;
+         * 0 = unlimited. Fetching pauses while the budget is used up.
+         */
+        @PositiveOrZero
+        private long budgetMb = 256;
+
+        /**
+         * Files downloaded at once per GitHub repository.
+         */
+        @Positive
+        private int fetchConcurrency = 8;
+
+        public long getBudgetMb() {
+            return budgetMb;
+        }
+
+        public void setBudgetMb(long budgetMb) {
+            this.budgetMb = budgetMb;
+        }
+
+        public int getFetchConcurrency() {
+            return fetchConcurrency;
+        }
+
+        public void setFetchConcurrency(int fetchConcurrency) {
+            this.fetchConcurrency = fetchConcurrency;
+        }
+    }
+
+    private DeadLetter deadLetter = new DeadLetter();
+
+    public DeadLetter getDeadLetter() {
+        return deadLetter;
+    }
+
+    public void setDeadLetter(DeadLetter deadLetter) {
+        this.deadLetter = deadLetter;
+    }
+
+    public static class DeadLetter {
+        private boolean enabled = true;
+
+        /**
+         * Directory holding one JSON file per failed document.
+         */
+        private String directory = "data/dead-letters";
+
+        /**
+         * Delay before the first retry; doubled after each further failure up to maxBackoffSec.
+         */
+        @Positive
+        private long initialBackoffSec = 60;
+
+        @Positive
+        private long maxBackoffSec = 21600;
+
+        /**
+         * Automatic retries stop after this many failed attempts; entries can still be replayed by hand.
+         */
+        @Positive
+        private int maxAttempts = 8;
+
+        @Positive
+        private long pollIntervalSec = 30;
+
+        /**
+         * Maximum entries replayed per retry round.
+         */
+        @Positive
+        private int retryBatchSize = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getInitialBackoffSec() {
+            return initialBackoffSec;
+        }
+
+        public void setInitialBackoffSec(long initialBackoffSec) {
+            this.initialBackoffSec = initialBackoffSec;
+        }
+
+        public long getMaxBackoffSec() {
+            return maxBackoffSec;
+        }
+
+        public void setMaxBackoffSec(long maxBackoffSec) {
+            this.maxBackoffSec = maxBackoffSec;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getPollIntervalSec() {
+            return pollIntervalSec;
+        }
+
+        public void setPollIntervalSec(long pollIntervalSec) {
+            this.pollIntervalSec = pollIntervalSec;
+        }
+
+        public int getRetryBatchSize() {
+            return retryBatchSize;
+        }
+
+        public void setRetryBatchSize(int retryBatchSize) {
+            this.retryBatchSize = retryBatchSize;
+        }
+    }
+
+    private Spool spool = new Spool();
+
+    public Spool getSpool() {
+        return spool;
+    }
+
+    public void setSpool(Spool spool) {
+        this.spool = spool;
+    }
+
+    public static class Spool {
+        private boolean enabled = true;
+
+        /**
+         * Directory holding memory-mapped spool segments of embedded points awaiting upsert.
+         */
+        private String directory = "data/spool";
+
+        @Positive
+        private int segmentSizeMb = 64;
+
+        /**
+         * Upserts are refused (and the document fails) once the spool holds this much.
+         */
+        @Positive
+        private int maxSizeMb = 2048;
+
+        /**
+         * Upserts slower than this are treated as failed and the points are spooled instead.
+         */
+        @Positive
+        private long slowUpsertMs = 10000;
+
+        /**
+         * Points replayed per upsert request when draining.
+         */
+        @Positive
+        private int drainBatchSize = 1024;
+
+        @Positive
+        private long drainIntervalMs = 2000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentSizeMb() {
+            return segmentSizeMb;
+        }
+
+        public void setSegmentSizeMb(int segmentSizeMb) {
+            this.segmentSizeMb = segmentSizeMb;
+        }
+
+        public int getMaxSizeMb() {
+            return maxSizeMb;
+        }
+
+        public void setMaxSizeMb(int maxSizeMb) {
+            this.maxSizeMb = maxSizeMb;
+        }
+
+        public long getSlowUpsertMs() {
+            return slowUpsertMs;
+        }
+
+        public void setSlowUpsertMs(long slowUpsertMs) {
+            this.slowUpsertMs = slowUpsertMs;
+        }
+
+        public int getDrainBatchSize() {
+            return drainBatchSize;
+        }
+
+        public void setDrainBatchSize(int drainBatchSize) {
+            this.drainBatchSize = drainBatchSize;
+        }
+
+        public long getDrainIntervalMs() {
+            return drainIntervalMs;
+        }
+
+        public void setDrainIntervalMs(long drainIntervalMs) {
+            this.drainIntervalMs = drainIntervalMs;
+        }
+    }
+
+    public static class Checkpoint {
+        private boolean enabled = true;
+
+        /**
+         * Append-only checkpoint log used to resume interrupted Confluence/Jira/GitHub runs.
+         */
+        private String path = "data/ingestion-checkpoints.log";
+
+        /**
+         * Write (and fsync) a source cursor checkpoint every this many documents.
+         */
+        @Positive
+        private int cursorInterval = 25;
+
+        /**
+         * Compact the log once it grows beyond this size.
+         */
+        @Positive
+        private int compactThresholdKb = 4096;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getCursorInterval() {
+            return cursorInterval;
+        }
+
+        public void setCursorInterval(int cursorInterval) {
+            this.cursorInterval = cursorInterval;
+        }
+
+        public int getCompactThresholdKb() {
+            return compactThresholdKb;
+        }
+
+        public void setCompactThresholdKb(int compactThresholdKb) {
+            this.compactThresholdKb = compactThresholdKb;
+        }
+    }
+
     public static class Chunk {
         @Positive
         private int targetTokensMin = 300;
@@ -5,6 +5,7 @@ import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @ConfigurationProperties(prefix = "jira")
 @Validated
@@ -19,6 +20,11 @@ public class JiraProperties {
     @PositiveOrZero
     private int maxIssuesPerProject = 0;  // 0 = no limit
 
+    /**
+     * Project keys ingested by {@code ingestAll}, comma-separated: "PROJ,OPS".
+     */
+    private String projects = "";
+
     public String getBaseUrl() {
         return baseUrl;
     }
@@ -50,4 +56,19 @@ public class JiraProperties {
     public void setMaxIssuesPerProject(int maxIssuesPerProject) {
         this.maxIssuesPerProject = maxIssuesPerProject;
     }
+
+    public List<String> getProjects() {
+        if (projects == null || projects.isBlank()) {
+            return List.of();
+        }
+        return List.of(projects.split(","))
+                .stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    public void setProjects(String projects) {
+        this.projects = projects;
+    }
 }
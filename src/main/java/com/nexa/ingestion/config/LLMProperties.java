@@ -35,6 +35,13 @@ public class LLMProperties {
     @Positive
     private int maxTokens = 512;
 
+    /**
+     * Context window of the model in tokens (prompt plus generated response). Bounds the retrieved context
+     * sent with a question, together with {@code search.context.max-tokens}.
+     */
+    @Positive
+    private int contextWindow = 8192;
+
     /**
      * Temperature for generation (0.0 to 1.0). Higher = more creative.
      */
@@ -79,4 +86,12 @@ public class LLMProperties {
     public void setTemperature(double temperature) {
         this.temperature = temperature;
     }
+
+    public int getContextWindow() {
+        return contextWindow;
+    }
+
+    public void setContextWindow(int contextWindow) {
+        this.contextWindow = contextWindow;
+    }
 }
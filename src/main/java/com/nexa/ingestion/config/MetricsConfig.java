@@ -0,0 +1,64 @@
+package com.nexa.ingestion.config;
+
+import com.nexa.ingestion.service.DeadLetterStore;
+import com.nexa.ingestion.service.IngestionScheduler;
+import com.nexa.ingestion.service.MemoryBudget;
+import com.nexa.ingestion.service.PointSpool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges over ingestion state that is already tracked elsewhere: memory budget, point spool,
+ * priority lane queues and dead letters. Rates and latencies are recorded by {@code PipelineMetrics}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder ingestionGauges(MemoryBudget memoryBudget,
+                                       PointSpool pointSpool,
+                                       IngestionScheduler ingestionScheduler,
+                                       DeadLetterStore deadLetters) {
+        return registry -> {
+            Gauge.builder("ingestion.memory.used", memoryBudget, b -> b.stats().usedBytes())
+                    .description("Bytes held by in-flight fetches and documents")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("ingestion.memory.utilization", memoryBudget, b -> b.stats().utilization())
+                    .description("Share of the in-flight bytes budget in use")
+                    .register(registry);
+            Gauge.builder("ingestion.memory.waiting", memoryBudget, b -> b.stats().waiting())
+                    .description("Fetches and documents waiting for budget")
+                    .register(registry);
+
+            Gauge.builder("ingestion.spool.points", pointSpool, s -> s.stats().points())
+                    .description("Points spooled to disk awaiting upsert")
+                    .register(registry);
+            Gauge.builder("ingestion.spool.oldest.age", pointSpool, s -> s.stats().oldestEntryAgeMs())
+                    .description("Age of the oldest spooled upsert")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("ingestion.spool.degraded", pointSpool, s -> s.stats().degraded() ? 1 : 0)
+                    .description("1 while upserts are spooled instead of sent to Qdrant")
+                    .register(registry);
+
+            for (IngestionScheduler.Lane lane : IngestionScheduler.Lane.values()) {
+                String tag = lane.name().toLowerCase();
+                Gauge.builder("ingestion.lane.queued", ingestionScheduler, s -> s.embedQueued(lane))
+                        .description("Requests waiting in a priority lane")
+                        .tags("lane", tag, "stage", "embed")
+                        .register(registry);
+                Gauge.builder("ingestion.lane.queued", ingestionScheduler, s -> s.upsertQueued(lane))
+                        .description("Requests waiting in a priority lane")
+                        .tags("lane", tag, "stage", "upsert")
+                        .register(registry);
+            }
+
+            Gauge.builder("ingestion.dead.letters", deadLetters, DeadLetterStore::size)
+                    .description("Documents in the dead-letter store")
+                    .register(registry);
+        };
+    }
+}
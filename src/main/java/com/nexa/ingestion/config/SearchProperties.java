@@ -0,0 +1,575 @@
+package com.nexa.ingestion.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+@ConfigurationProperties(prefix = "search")
+@Validated
+public class SearchProperties {
+
+    private QueryCache queryCache = new QueryCache();
+    private ResultCache resultCache = new ResultCache();
+    private AnswerCache answerCache = new AnswerCache();
+    private Hybrid hybrid = new Hybrid();
+    private Mmr mmr = new Mmr();
+    private Groups groups = new Groups();
+    private IdentifierLookup identifierLookup = new IdentifierLookup();
+    private Context context = new Context();
+
+    /**
+     * Let concurrent identical searches (same normalized query and parameters) share one embed, Qdrant and LLM
+     * pipeline.
+     */
+    private boolean coalesce = true;
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    public AnswerCache getAnswerCache() {
+        return answerCache;
+    }
+
+    public void setAnswerCache(AnswerCache answerCache) {
+        this.answerCache = answerCache;
+    }
+
+    public Hybrid getHybrid() {
+        return hybrid;
+    }
+
+    public void setHybrid(Hybrid hybrid) {
+        this.hybrid = hybrid;
+    }
+
+    public Mmr getMmr() {
+        return mmr;
+    }
+
+    public void setMmr(Mmr mmr) {
+        this.mmr = mmr;
+    }
+
+    public Groups getGroups() {
+        return groups;
+    }
+
+    public void setGroups(Groups groups) {
+        this.groups = groups;
+    }
+
+    public IdentifierLookup getIdentifierLookup() {
+        return identifierLookup;
+    }
+
+    public void setIdentifierLookup(IdentifierLookup identifierLookup) {
+        this.identifierLookup = identifierLookup;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public void setContext(Context context) {
+        this.context = context;
+    }
+
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    public void setCoalesce(boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    public static class QueryCache {
+        /**
+         * Cache query embeddings by normalized query text so repeated questions skip the embedding call.
+         */
+        private boolean enabled = true;
+
+        @Positive
+        private int maxEntries = 10_000;
+
+        /**
+         * Entries older than this are embedded again. Vectors only change with the model, which also
+         * invalidates the snapshot, so this mainly bounds how long rarely asked queries are kept.
+         */
+        @Positive
+        private int ttlMinutes = 1440;
+
+        /**
+         * Most frequently hit entries written to the snapshot and preloaded at startup; 0 disables the snapshot.
+         */
+        @PositiveOrZero
+        private int snapshotEntries = 2_000;
+
+        @Positive
+        private int snapshotIntervalSec = 300;
+
+        private String snapshotPath = "data/query-embeddings.bin";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getTtlMinutes() {
+            return ttlMinutes;
+        }
+
+        public void setTtlMinutes(int ttlMinutes) {
+            this.ttlMinutes = ttlMinutes;
+        }
+
+        public int getSnapshotEntries() {
+            return snapshotEntries;
+        }
+
+        public void setSnapshotEntries(int snapshotEntries) {
+            this.snapshotEntries = snapshotEntries;
+        }
+
+        public int getSnapshotIntervalSec() {
+            return snapshotIntervalSec;
+        }
+
+        public void setSnapshotIntervalSec(int snapshotIntervalSec) {
+            this.snapshotIntervalSec = snapshotIntervalSec;
+        }
+
+        public String getSnapshotPath() {
+            return snapshotPath;
+        }
+
+        public void setSnapshotPath(String snapshotPath) {
+            this.snapshotPath = snapshotPath;
+        }
+    }
+
+    public static class ResultCache {
+        /**
+         * Cache Qdrant search results by search parameters until this instance writes to the collection.
+         */
+        private boolean enabled = true;
+
+        @Positive
+        private int maxEntries = 1_000;
+
+        /**
+         * Upper bound on an entry's age even without local writes; covers writes made by other instances.
+         */
+        @Positive
+        private int ttlSeconds = 300;
+
+        /**
+         * Entries younger than this are served even if the collection was written since; 0 drops them on the
+         * first write.
+         */
+        @PositiveOrZero
+        private int maxStaleSeconds = 0;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(int ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public int getMaxStaleSeconds() {
+            return maxStaleSeconds;
+        }
+
+        public void setMaxStaleSeconds(int maxStaleSeconds) {
+            this.maxStaleSeconds = maxStaleSeconds;
+        }
+    }
+
+    public static class AnswerCache {
+        /**
+         * Reuse the LLM answer of an earlier, near-identical question that retrieved the same chunks.
+         */
+        private boolean enabled = true;
+
+        @Positive
+        private int maxEntries = 500;
+
+        /**
+         * Minimum cosine similarity between the query embeddings. Paraphrases of one question typically score
+         * above 0.95 with bge-large; lower values risk answering a different question.
+         */
+        @DecimalMin("0.5")
+        @DecimalMax("1.0")
+        private double minSimilarity = 0.95;
+
+        @Positive
+        private int ttlMinutes = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public double getMinSimilarity() {
+            return minSimilarity;
+        }
+
+        public void setMinSimilarity(double minSimilarity) {
+            this.minSimilarity = minSimilarity;
+        }
+
+        public int getTtlMinutes() {
+            return ttlMinutes;
+        }
+
+        public void setTtlMinutes(int ttlMinutes) {
+            this.ttlMinutes = ttlMinutes;
+        }
+    }
+
+    public static class Hybrid {
+        /**
+         * Store a BM25 sparse vector with every chunk and search it next to the dense vector, fusing both
+         * rankings. Needs a collection created with the sparse vector; older collections stay dense-only.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Name of the sparse vector in the Qdrant collection.
+         */
+        @NotBlank
+        private String vectorName = "bm25";
+
+        /**
+         * Candidates each sub-search returns for fusion (at least the request's limit).
+         */
+        @Positive
+        private int candidates = 20;
+
+        /**
+         * Reciprocal rank fusion constant: a result's fused score is the sum of 1 / (rrf-k + rank) over the
+         * sub-searches that returned it. Larger values flatten the difference between top and lower ranks.
+         */
+        @Positive
+        private int rrfK = 60;
+
+        /**
+         * BM25 term frequency saturation.
+         */
+        @DecimalMin("0.0")
+        private double k1 = 1.2;
+
+        /**
+         * BM25 length normalization (0 = none, 1 = full).
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double b = 0.75;
+
+        /**
+         * Size of the hashed document frequency table used for IDF, rounded up to a power of two. Terms sharing
+         * a bucket share a count, which only lowers their IDF slightly.
+         */
+        @Positive
+        private int termBuckets = 1 << 20;
+
+        private String statsPath = "data/bm25-stats.bin";
+
+        @Positive
+        private int statsIntervalSec = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getVectorName() {
+            return vectorName;
+        }
+
+        public void setVectorName(String vectorName) {
+            this.vectorName = vectorName;
+        }
+
+        public int getCandidates() {
+            return candidates;
+        }
+
+        public void setCandidates(int candidates) {
+            this.candidates = candidates;
+        }
+
+        public int getRrfK() {
+            return rrfK;
+        }
+
+        public void setRrfK(int rrfK) {
+            this.rrfK = rrfK;
+        }
+
+        public double getK1() {
+            return k1;
+        }
+
+        public void setK1(double k1) {
+            this.k1 = k1;
+        }
+
+        public double getB() {
+            return b;
+        }
+
+        public void setB(double b) {
+            this.b = b;
+        }
+
+        public int getTermBuckets() {
+            return termBuckets;
+        }
+
+        public void setTermBuckets(int termBuckets) {
+            this.termBuckets = termBuckets;
+        }
+
+        public String getStatsPath() {
+            return statsPath;
+        }
+
+        public void setStatsPath(String statsPath) {
+            this.statsPath = statsPath;
+        }
+
+        public int getStatsIntervalSec() {
+            return statsIntervalSec;
+        }
+
+        public void setStatsIntervalSec(int statsIntervalSec) {
+            this.statsIntervalSec = statsIntervalSec;
+        }
+    }
+
+    public static class IdentifierLookup {
+        /**
+         * Answer queries that are a Jira key, a path or a page title with the matching chunks, found by exact
+         * payload match, without embedding the query or calling the LLM.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Most chunks returned for a match.
+         */
+        @Positive
+        private int maxChunks = 20;
+
+        /**
+         * Longest query (in words) tried as a page title; 0 only looks up Jira keys and paths.
+         */
+        @PositiveOrZero
+        private int titleMaxWords = 8;
+
+        /**
+         * Token limit of the optional summary ({@code "summarize": true}).
+         */
+        @Positive
+        private int summaryMaxTokens = 150;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxChunks() {
+            return maxChunks;
+        }
+
+        public void setMaxChunks(int maxChunks) {
+            this.maxChunks = maxChunks;
+        }
+
+        public int getTitleMaxWords() {
+            return titleMaxWords;
+        }
+
+        public void setTitleMaxWords(int titleMaxWords) {
+            this.titleMaxWords = titleMaxWords;
+        }
+
+        public int getSummaryMaxTokens() {
+            return summaryMaxTokens;
+        }
+
+        public void setSummaryMaxTokens(int summaryMaxTokens) {
+            this.summaryMaxTokens = summaryMaxTokens;
+        }
+    }
+
+    public static class Context {
+        /**
+         * Token budget for the retrieved context sent to the LLM. The effective budget is also capped by what
+         * {@code llm.context-window} leaves after {@code llm.max-tokens} and the prompt.
+         */
+        @Positive
+        private int maxTokens = 3000;
+
+        /**
+         * Merge hits that are adjacent chunks of one document into a single passage, dropping the text their
+         * chunking overlap repeats.
+         */
+        private boolean mergeAdjacent = true;
+
+        public int getMaxTokens() {
+            return maxTokens;
+        }
+
+        public void setMaxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+        }
+
+        public boolean isMergeAdjacent() {
+            return mergeAdjacent;
+        }
+
+        public void setMergeAdjacent(boolean mergeAdjacent) {
+            this.mergeAdjacent = mergeAdjacent;
+        }
+    }
+
+    public static class Mmr {
+        /**
+         * Re-rank search candidates by maximal marginal relevance, so near-duplicate chunks do not fill the
+         * results. Qdrant then also returns the candidates' vectors.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Candidates fetched to choose the request's {@code limit} results from (at least the limit).
+         */
+        @Positive
+        private int candidates = 20;
+
+        /**
+         * Trade-off between relevance and diversity: 1 keeps the plain ranking, 0 picks the results least similar
+         * to those already picked.
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double lambda = 0.7;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCandidates() {
+            return candidates;
+        }
+
+        public void setCandidates(int candidates) {
+            this.candidates = candidates;
+        }
+
+        public double getLambda() {
+            return lambda;
+        }
+
+        public void setLambda(double lambda) {
+            this.lambda = lambda;
+        }
+    }
+
+    public static class Groups {
+        /**
+         * Payload key grouped searches group chunks by; keyword-indexed on the collection.
+         */
+        @NotBlank
+        private String field = "document_id";
+
+        /**
+         * Largest {@code groupSize} a request may ask for.
+         */
+        @Positive
+        private int maxGroupSize = 10;
+
+        public String getField() {
+            return field;
+        }
+
+        public void setField(String field) {
+            this.field = field;
+        }
+
+        public int getMaxGroupSize() {
+            return maxGroupSize;
+        }
+
+        public void setMaxGroupSize(int maxGroupSize) {
+            this.maxGroupSize = maxGroupSize;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.Map;
 public class DocumentMetadata {
 
     private String id;  // Unique identifier for the chunk
+    private String documentId;  // Identifier of the source document the chunk belongs to
     private String text;  // Original chunk text
     private String source;  // Document/ticket name
     private String sourceType;  // Confluence, Jira, GitHub, InternalWiki, HR, Finance, etc.
@@ -40,6 +41,8 @@ public class DocumentMetadata {
     // Getters and setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
+    public String getDocumentId() { return documentId; }
+    public void setDocumentId(String documentId) { this.documentId = documentId; }
     public String getText() { return text; }
     public void setText(String text) { this.text = text; }
     public String getSource() { return source; }
@@ -0,0 +1,29 @@
+package com.nexa.ingestion.dto;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of an asynchronous ingestion job, returned by the job status endpoint and streamed as SSE.
+ * Rates are averages since the job started.
+ */
+public record IngestionJobStatus(
+        String id,
+        String type,
+        String target,
+        String status,  // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        long documents,
+        long chunks,
+        long chunksEmbedded,
+        long pointsUpserted,
+        long errors,
+        double embedRatePerSecond,
+        double upsertRatePerSecond,
+        String error
+) {
+    public boolean isTerminal() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status) || "CANCELLED".equals(status);
+    }
+}
@@ -0,0 +1,56 @@
+package com.nexa.ingestion.dto;
+
+import java.util.List;
+
+/**
+ * One document of a grouped search with its best-matching chunks.
+ */
+public class SearchGroup {
+
+    private String documentId;
+    private String title;  // Document title (payload "source")
+    private double score;  // Score of the best chunk
+    private List<SearchResult> results;  // Best chunks first
+
+    public SearchGroup() {
+    }
+
+    public SearchGroup(String documentId, String title, List<SearchResult> results) {
+        this.documentId = documentId;
+        this.title = title;
+        this.results = results;
+        this.score = results.isEmpty() ? 0 : results.get(0).getScore();
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(String documentId) {
+        this.documentId = documentId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public List<SearchResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<SearchResult> results) {
+        this.results = results;
+    }
+}
@@ -13,10 +13,17 @@ public class SearchRequest {
     private String query;
 
     @PositiveOrZero
-    private int limit = 5;  // Number of similar documents to retrieve
+    private int limit = 5;  // Number of similar documents to retrieve (documents when grouped)
 
     @PositiveOrZero
-    private double scoreThreshold = 0.0;  // Minimum similarity score (0.0 to 1.0)
+    private int groupSize = 0;  // > 0: group results by document, with up to this many chunks per document
+
+    @PositiveOrZero
+    private double scoreThreshold = 0.0;  // Minimum similarity score (0.0 to 1.0); hybrid searches then drop BM25-only hits
+
+    private boolean debug = false;  // Also return Qdrant-side timing and points scored
+
+    private boolean summarize = false;  // Short LLM summary when the query is answered by identifier lookup
 
     public String getQuery() {
         return query;
@@ -34,6 +41,18 @@ public class SearchRequest {
         this.limit = limit;
     }
 
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    public void setGroupSize(int groupSize) {
+        this.groupSize = groupSize;
+    }
+
+    public boolean isGrouped() {
+        return groupSize > 0;
+    }
+
     public double getScoreThreshold() {
         return scoreThreshold;
     }
@@ -41,4 +60,20 @@ public class SearchRequest {
     public void setScoreThreshold(double scoreThreshold) {
         this.scoreThreshold = scoreThreshold;
     }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    public void setDebug(boolean debug) {
+        this.debug = debug;
+    }
+
+    public boolean isSummarize() {
+        return summarize;
+    }
+
+    public void setSummarize(boolean summarize) {
+        this.summarize = summarize;
+    }
 }
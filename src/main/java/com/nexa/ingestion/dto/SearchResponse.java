@@ -1,5 +1,7 @@
 package com.nexa.ingestion.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
@@ -8,9 +10,13 @@ import java.util.List;
 public class SearchResponse {
 
     private String query;
-    private List<SearchResult> results;  // Retrieved similar documents
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<SearchResult> results;  // Retrieved similar documents (absent when grouped)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<SearchGroup> groups;  // Grouped searches: best documents with their best chunks
     private String answer;  // LLM-generated answer
     private String model;  // LLM model used
+    private SearchTimings timings;  // Per-stage latency of this request
 
     public SearchResponse() {
     }
@@ -38,6 +44,14 @@ public class SearchResponse {
         this.results = results;
     }
 
+    public List<SearchGroup> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<SearchGroup> groups) {
+        this.groups = groups;
+    }
+
     public String getAnswer() {
         return answer;
     }
@@ -53,4 +67,12 @@ public class SearchResponse {
     public void setModel(String model) {
         this.model = model;
     }
+
+    public SearchTimings getTimings() {
+        return timings;
+    }
+
+    public void setTimings(SearchTimings timings) {
+        this.timings = timings;
+    }
 }
@@ -1,5 +1,8 @@
 package com.nexa.ingestion.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * A single search result from vector database.
  */
@@ -10,7 +13,22 @@ public class SearchResult {
     private String pageTitle;
     private int chunkIndex;
     private String text;
-    private double score;  // Similarity score (0.0 to 1.0)
+    private double score;  // Similarity score (0.0 to 1.0); 0 for hybrid hits only the BM25 search returned
+    private String pointId;  // Qdrant point id (UUID or number)
+    private String documentId;  // Source document the chunk belongs to (empty for older points)
+
+    // Hybrid searches: reciprocal rank fusion score (results are ordered by it), and rank (1-based) and score
+    // in each sub-search; null where it did not return the point
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double fusedScore;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer denseRank;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double denseScore;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer sparseRank;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double sparseScore;  // BM25
 
     public SearchResult() {
     }
@@ -71,4 +89,68 @@ public class SearchResult {
     public void setScore(double score) {
         this.score = score;
     }
+
+    public String getPointId() {
+        return pointId;
+    }
+
+    public void setPointId(String pointId) {
+        this.pointId = pointId;
+    }
+
+    public Double getFusedScore() {
+        return fusedScore;
+    }
+
+    public void setFusedScore(Double fusedScore) {
+        this.fusedScore = fusedScore;
+    }
+
+    /**
+     * Score the results of a search are ordered by: the fused score of hybrid searches, else the similarity.
+     */
+    @JsonIgnore
+    public double getRankingScore() {
+        return fusedScore != null ? fusedScore : score;
+    }
+
+    public Integer getDenseRank() {
+        return denseRank;
+    }
+
+    public void setDenseRank(Integer denseRank) {
+        this.denseRank = denseRank;
+    }
+
+    public Double getDenseScore() {
+        return denseScore;
+    }
+
+    public void setDenseScore(Double denseScore) {
+        this.denseScore = denseScore;
+    }
+
+    public Integer getSparseRank() {
+        return sparseRank;
+    }
+
+    public void setSparseRank(Integer sparseRank) {
+        this.sparseRank = sparseRank;
+    }
+
+    public Double getSparseScore() {
+        return sparseScore;
+    }
+
+    public void setSparseScore(Double sparseScore) {
+        this.sparseScore = sparseScore;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(String documentId) {
+        this.documentId = documentId;
+    }
 }
@@ -0,0 +1,166 @@
+package com.nexa.ingestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Locale;
+
+/**
+ * Per-request latency breakdown of a search, in milliseconds.
+ * Returned in {@link SearchResponse}, as the {@code Server-Timing} header and as the streaming endpoint's
+ * final {@code timings} event. The Qdrant-side fields are only filled for debug requests.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchTimings {
+
+    private double embedMs;  // Query embedding
+    private double qdrantMs;  // Vector search, as seen by this service
+    private double llmMs;  // Answer generation
+    private double totalMs;  // Request received until the answer was ready
+    private Double qdrantServerMs;  // Time Qdrant reports spending on the search (debug)
+    private Integer pointsScored;  // Scored points Qdrant returned (debug)
+    private Boolean resultCached;  // Qdrant results came from the result cache (only set when true)
+    private Boolean answerCached;  // Answer came from the semantic answer cache, no LLM call (only set when true)
+    private Boolean coalesced;  // Shared an identical in-flight search; stages are that search's (only set when true)
+    private Integer contextTokens;  // Estimated tokens of the context sent to the LLM (debug)
+    private Integer contextChunks;  // Retrieved chunks that fit into that context (debug)
+    private String identifierMatch;  // Answered by exact lookup: "issue-key", "path" or "title" (qdrantMs is the lookup)
+
+    /**
+     * Records the duration of a stage ("embed", "qdrant" or "llm").
+     */
+    public void record(String stage, long nanos) {
+        double ms = nanos / 1_000_000.0;
+        switch (stage) {
+            case "embed" -> embedMs = ms;
+            case "qdrant" -> qdrantMs = ms;
+            case "llm" -> llmMs = ms;
+            default -> { }
+        }
+    }
+
+    /**
+     * Takes over the stages of the identical in-flight search this request joined, and marks it coalesced.
+     */
+    public void joined(SearchTimings leader) {
+        embedMs = leader.embedMs;
+        qdrantMs = leader.qdrantMs;
+        llmMs = leader.llmMs;
+        qdrantServerMs = leader.qdrantServerMs;
+        pointsScored = leader.pointsScored;
+        resultCached = leader.resultCached;
+        answerCached = leader.answerCached;
+        contextTokens = leader.contextTokens;
+        contextChunks = leader.contextChunks;
+        coalesced = true;
+    }
+
+    /**
+     * Value for the {@code Server-Timing} response header.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder()
+                .append(String.format(Locale.ROOT, "embed;dur=%.1f, qdrant;dur=%.1f, llm;dur=%.1f",
+                        embedMs, qdrantMs, llmMs));
+        if (qdrantServerMs != null) {
+            header.append(String.format(Locale.ROOT, ", qdrant-server;dur=%.1f", qdrantServerMs));
+        }
+        header.append(String.format(Locale.ROOT, ", total;dur=%.1f", totalMs));
+        return header.toString();
+    }
+
+    public double getEmbedMs() {
+        return embedMs;
+    }
+
+    public void setEmbedMs(double embedMs) {
+        this.embedMs = embedMs;
+    }
+
+    public double getQdrantMs() {
+        return qdrantMs;
+    }
+
+    public void setQdrantMs(double qdrantMs) {
+        this.qdrantMs = qdrantMs;
+    }
+
+    public double getLlmMs() {
+        return llmMs;
+    }
+
+    public void setLlmMs(double llmMs) {
+        this.llmMs = llmMs;
+    }
+
+    public double getTotalMs() {
+        return totalMs;
+    }
+
+    public void setTotalMs(double totalMs) {
+        this.totalMs = totalMs;
+    }
+
+    public Double getQdrantServerMs() {
+        return qdrantServerMs;
+    }
+
+    public void setQdrantServerMs(Double qdrantServerMs) {
+        this.qdrantServerMs = qdrantServerMs;
+    }
+
+    public Integer getPointsScored() {
+        return pointsScored;
+    }
+
+    public void setPointsScored(Integer pointsScored) {
+        this.pointsScored = pointsScored;
+    }
+
+    public Boolean getResultCached() {
+        return resultCached;
+    }
+
+    public void setResultCached(Boolean resultCached) {
+        this.resultCached = resultCached;
+    }
+
+    public Boolean getAnswerCached() {
+        return answerCached;
+    }
+
+    public void setAnswerCached(Boolean answerCached) {
+        this.answerCached = answerCached;
+    }
+
+    public Boolean getCoalesced() {
+        return coalesced;
+    }
+
+    public void setCoalesced(Boolean coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    public Integer getContextTokens() {
+        return contextTokens;
+    }
+
+    public void setContextTokens(Integer contextTokens) {
+        this.contextTokens = contextTokens;
+    }
+
+    public Integer getContextChunks() {
+        return contextChunks;
+    }
+
+    public void setContextChunks(Integer contextChunks) {
+        this.contextChunks = contextChunks;
+    }
+
+    public String getIdentifierMatch() {
+        return identifierMatch;
+    }
+
+    public void setIdentifierMatch(String identifierMatch) {
+        this.identifierMatch = identifierMatch;
+    }
+}
@@ -10,6 +10,8 @@ public class QdrantPoint {
     private String id;
     private float[] vector;
     private Map<String, Object> payload;
+    private int[] sparseIndices;  // BM25 sparse vector for hybrid search, if computed
+    private float[] sparseValues;
 
     public QdrantPoint() {
     }
@@ -30,6 +32,10 @@ public class QdrantPoint {
     public void setVector(float[] vector) { this.vector = vector; }
     public Map<String, Object> getPayload() { return payload; }
     public void setPayload(Map<String, Object> payload) { this.payload = payload; }
+    public int[] getSparseIndices() { return sparseIndices; }
+    public void setSparseIndices(int[] sparseIndices) { this.sparseIndices = sparseIndices; }
+    public float[] getSparseValues() { return sparseValues; }
+    public void setSparseValues(float[] sparseValues) { this.sparseValues = sparseValues; }
 
     public static final class QdrantPointBuilder {
         private String id;
@@ -0,0 +1,23 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.nexa.ingestion.Chunking")
+@Label("Chunking")
+@Threshold("50 ms")
+public class ChunkingEvent extends StageEvent {
+
+    @Label("Document Id")
+    public String documentId;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Input Characters")
+    public long inputChars;
+
+    @Label("Chunks")
+    public int chunks;
+}
@@ -0,0 +1,31 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.nexa.ingestion.DocumentFetch")
+@Label("Document Fetch")
+@Description("Fetch of an API result page, file download or file read")
+@Threshold("500 ms")
+public class DocumentFetchEvent extends StageEvent {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Target")
+    @Description("Page, repository path or file path fetched")
+    public String target;
+
+    @Label("Expected Size")
+    @DataAmount
+    public long bytes;
+
+    public DocumentFetchEvent(String source, String target, long bytes) {
+        this.source = source;
+        this.target = target;
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,30 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.nexa.ingestion.EmbedBatch")
+@Label("Embed Batch")
+@Threshold("1 s")
+public class EmbedBatchEvent extends StageEvent {
+
+    @Label("Flow")
+    public String flow;
+
+    @Label("Lane")
+    public String lane;
+
+    @Label("Texts")
+    public int texts;
+
+    @Label("Characters")
+    public long chars;
+
+    public EmbedBatchEvent(String flow, String lane, int texts, long chars) {
+        this.flow = flow;
+        this.lane = lane;
+        this.texts = texts;
+        this.chars = chars;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.nexa.ingestion.Extraction")
+@Label("Text Extraction")
+@Threshold("100 ms")
+public class ExtractionEvent extends StageEvent {
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Document Type")
+    public String documentType;
+
+    @Label("Input Size")
+    @DataAmount
+    public long inputBytes;
+
+    @Label("Extracted Characters")
+    public long outputChars;
+}
@@ -0,0 +1,49 @@
+package com.nexa.ingestion.jfr;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Records a {@link StageEvent} around asynchronous work: the event begins on subscription and is committed,
+ * if it passes its threshold, when the result or error is emitted.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    /**
+     * @param factory creates the event with the fields known up front
+     * @param work the stage
+     * @param onResult fills fields from the result (not called on error or empty completion); may be null
+     */
+    public static <T, E extends StageEvent> Mono<T> recorded(Supplier<E> factory, Mono<T> work,
+                                                            BiConsumer<E, T> onResult) {
+        return Mono.defer(() -> {
+            E event = factory.get();
+            if (!event.isEnabled()) {
+                return work;
+            }
+            event.begin();
+            return work
+                    .doOnSuccess(value -> {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            if (value != null && onResult != null) {
+                                onResult.accept(event, value);
+                            }
+                            event.commit();
+                        }
+                    })
+                    .doOnError(e -> {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.failed = true;
+                            event.commit();
+                        }
+                    });
+        });
+    }
+}
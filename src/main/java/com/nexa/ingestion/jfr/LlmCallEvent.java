@@ -0,0 +1,29 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.nexa.ingestion.LlmCall")
+@Label("LLM Call")
+@Threshold("2 s")
+public class LlmCallEvent extends StageEvent {
+
+    @Label("Request Id")
+    public String requestId;
+
+    @Label("Context Chunks")
+    public int contextChunks;
+
+    @Label("Context Characters")
+    public long contextChars;
+
+    @Label("Answer Characters")
+    public int answerChars;
+
+    public LlmCallEvent(String requestId, int contextChunks, long contextChars) {
+        this.requestId = requestId;
+        this.contextChunks = contextChunks;
+        this.contextChars = contextChars;
+    }
+}
@@ -0,0 +1,22 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.nexa.ingestion.QdrantUpsert")
+@Label("Qdrant Upsert")
+@Threshold("500 ms")
+public class QdrantUpsertEvent extends StageEvent {
+
+    @Label("Collection")
+    public String collection;
+
+    @Label("Points")
+    public int points;
+
+    public QdrantUpsertEvent(String collection, int points) {
+        this.collection = collection;
+        this.points = points;
+    }
+}
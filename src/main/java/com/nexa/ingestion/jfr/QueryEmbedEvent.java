@@ -0,0 +1,22 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.nexa.ingestion.QueryEmbed")
+@Label("Query Embed")
+@Threshold("200 ms")
+public class QueryEmbedEvent extends StageEvent {
+
+    @Label("Request Id")
+    public String requestId;
+
+    @Label("Query Characters")
+    public int queryChars;
+
+    public QueryEmbedEvent(String requestId, int queryChars) {
+        this.requestId = requestId;
+        this.queryChars = queryChars;
+    }
+}
@@ -0,0 +1,19 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the pipeline's JFR events: one event per fetch, extraction, chunking, embed batch, upsert or
+ * search stage, with its duration. Subclasses set a {@link jdk.jfr.Threshold} so continuous recordings
+ * with default settings keep only slow stages.
+ */
+@Category({"Nexa", "Pipeline"})
+@StackTrace(false)
+public abstract class StageEvent extends Event {
+
+    @Label("Failed")
+    public boolean failed;
+}
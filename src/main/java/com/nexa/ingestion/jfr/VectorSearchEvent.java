@@ -0,0 +1,33 @@
+package com.nexa.ingestion.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+@Name("com.nexa.ingestion.VectorSearch")
+@Label("Vector Search")
+@Threshold("100 ms")
+public class VectorSearchEvent extends StageEvent {
+
+    @Label("Request Id")
+    public String requestId;
+
+    @Label("Limit")
+    public int limit;
+
+    @Label("Results")
+    public int results;
+
+    @Label("Cached")
+    public boolean cached;
+
+    @Label("Qdrant Time")
+    @Timespan(Timespan.MILLISECONDS)
+    public long qdrantTimeMs;
+
+    public VectorSearchEvent(String requestId, int limit) {
+        this.requestId = requestId;
+        this.limit = limit;
+    }
+}
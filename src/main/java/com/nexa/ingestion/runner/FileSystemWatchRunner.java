@@ -0,0 +1,39 @@
+package com.nexa.ingestion.runner;
+
+import com.nexa.ingestion.config.FileSystemProperties;
+import com.nexa.ingestion.service.FileSystemWatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts filesystem watch mode on startup when filesystem.watch.enabled is true.
+ * Changed files under the configured base paths are then ingested continuously.
+ */
+@Component
+public class FileSystemWatchRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemWatchRunner.class);
+
+    private final FileSystemProperties properties;
+    private final FileSystemWatcher fileSystemWatcher;
+
+    public FileSystemWatchRunner(FileSystemProperties properties, FileSystemWatcher fileSystemWatcher) {
+        this.properties = properties;
+        this.fileSystemWatcher = fileSystemWatcher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.getWatch().isEnabled() || properties.getBasePaths().isEmpty()) {
+            return;
+        }
+        try {
+            fileSystemWatcher.start();
+        } catch (Exception e) {
+            log.error("Failed to start filesystem watch: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.SearchProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encodes text as BM25 sparse vectors for hybrid search. Terms come from {@link TermTokenizer}; a term's
+ * sparse index is a 32-bit hash of it, so no vocabulary has to be shared between instances.
+ *
+ * <p>Qdrant scores a sparse search by the dot product of query and chunk vectors, so BM25 is split between
+ * the two sides: a chunk stores its term frequency saturation {@code tf * (k1 + 1) / (tf + k1 * (1 - b + b *
+ * len / avgLen))} and a query carries each term's IDF. Both need corpus statistics, which Qdrant does not keep:
+ * this instance counts chunks, tokens and per-term document frequencies (in a hashed table of
+ * {@code term-buckets} counters) once a document's chunks are written (see {@link #count}), and snapshots them
+ * to disk. Encoding does not count, so converting or replaying a chunk again leaves the statistics alone.
+ * Re-ingesting a changed document counts it again and deletes are not subtracted; both shift counts roughly
+ * proportionally, which IDF (a ratio) tolerates.
+ *
+ * <p>Changing the hash or the tokenizer requires re-ingesting, as stored chunks would no longer match queries.
+ */
+@Component
+public class Bm25Encoder {
+
+    private static final Logger log = LoggerFactory.getLogger(Bm25Encoder.class);
+    private static final int SNAPSHOT_MAGIC = 0x424D3231; // "BM21"
+
+    private final SearchProperties.Hybrid properties;
+    private final Path statsPath;
+    private final AtomicIntegerArray documentFrequencies;
+    private final int bucketMask;
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean collectionSupported = true;
+    private volatile boolean changed;
+
+    public Bm25Encoder(SearchProperties searchProperties) {
+        this.properties = searchProperties.getHybrid();
+        this.statsPath = Paths.get(properties.getStatsPath());
+        int buckets = Integer.highestOneBit(Math.max(1, properties.getTermBuckets() - 1)) << 1;
+        this.documentFrequencies = new AtomicIntegerArray(buckets);
+        this.bucketMask = buckets - 1;
+
+        if (properties.isEnabled()) {
+            load();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "bm25-stats-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::snapshot,
+                    properties.getStatsIntervalSec(), properties.getStatsIntervalSec(), TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            snapshot();
+        }
+    }
+
+    /**
+     * Whether chunks get sparse vectors and searches are hybrid: enabled in config and the collection has
+     * the sparse vector.
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled() && collectionSupported;
+    }
+
+    /**
+     * Set when the collection is checked at startup; without the sparse vector, hybrid search stays off.
+     */
+    public void setCollectionSupported(boolean collectionSupported) {
+        this.collectionSupported = collectionSupported;
+    }
+
+    public String getVectorName() {
+        return properties.getVectorName();
+    }
+
+    /**
+     * Sparse vector of a chunk. The average chunk length is taken from the statistics as if this chunk were
+     * already counted; call {@link #count} once the chunk is written.
+     */
+    public SparseVector encodeDocument(String text) {
+        List<String> terms = TermTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return SparseVector.EMPTY;
+        }
+        Map<Integer, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(index(term), 1, Integer::sum);
+        }
+        double averageLength = (double) (tokens.get() + terms.size()) / (documents.get() + 1);
+
+        double k1 = properties.getK1();
+        double lengthNorm = 1 - properties.getB() + properties.getB() * terms.size() / averageLength;
+        int[] indices = new int[frequencies.size()];
+        float[] values = new float[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> e : frequencies.entrySet()) {
+            int tf = e.getValue();
+            indices[i] = e.getKey();
+            values[i] = (float) (tf * (k1 + 1) / (tf + k1 * lengthNorm));
+            i++;
+        }
+        return new SparseVector(indices, values, terms.size());
+    }
+
+    /**
+     * Counts encoded chunks into the corpus statistics. Called once per chunk, when its points are upserted or
+     * durably spooled.
+     */
+    public void count(List<SparseVector> chunks) {
+        long chunkTokens = 0;
+        int counted = 0;
+        for (SparseVector chunk : chunks) {
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            for (int index : chunk.indices()) {
+                documentFrequencies.incrementAndGet(index & bucketMask);
+            }
+            chunkTokens += chunk.length();
+            counted++;
+        }
+        if (counted > 0) {
+            tokens.addAndGet(chunkTokens);
+            documents.addAndGet(counted);
+            changed = true;
+        }
+    }
+
+    /**
+     * Sparse vector of a query: each distinct term weighted by its IDF.
+     */
+    public SparseVector encodeQuery(String text) {
+        List<String> terms = TermTokenizer.tokenize(text);
+        Map<Integer, Float> weights = new HashMap<>();
+        long docs = documents.get();
+        for (String term : terms) {
+            int index = index(term);
+            weights.computeIfAbsent(index, k -> (float) idf(docs, documentFrequencies.get(k & bucketMask)));
+        }
+        int[] indices = new int[weights.size()];
+        float[] values = new float[weights.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Float> e : weights.entrySet()) {
+            indices[i] = e.getKey();
+            values[i] = e.getValue();
+            i++;
+        }
+        return new SparseVector(indices, values, terms.size());
+    }
+
+    /**
+     * BM25 IDF, always positive; 1 for every term until any chunk has been counted.
+     */
+    private static double idf(long documents, int documentFrequency) {
+        if (documents == 0) {
+            return 1;
+        }
+        long df = Math.min(documentFrequency, documents);
+        return Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+    }
+
+    /**
+     * Murmur3 finalizer over the term's hash code, so similar terms spread over the buckets.
+     */
+    static int index(String term) {
+        int h = term.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Writes the statistics via a temp file and atomic rename, like the query embedding snapshot.
+     */
+    synchronized void snapshot() {
+        if (!changed) {
+            return;
+        }
+        changed = false;
+        try {
+            Path parent = statsPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = statsPath.resolveSibling(statsPath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(documentFrequencies.length());
+                out.writeLong(documents.get());
+                out.writeLong(tokens.get());
+                for (int i = 0; i < documentFrequencies.length(); i++) {
+                    out.writeInt(documentFrequencies.get(i));
+                }
+            }
+            Files.move(tmp, statsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved BM25 statistics of {} chunks to {}", documents.get(), statsPath);
+        } catch (IOException e) {
+            changed = true;
+            log.error("Failed to save BM25 statistics {}: {}", statsPath, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(statsPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(statsPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring BM25 statistics {}: unknown format", statsPath);
+                return;
+            }
+            int buckets = in.readInt();
+            if (buckets != documentFrequencies.length()) {
+                log.warn("Ignoring BM25 statistics {}: {} term buckets, configured {}",
+                        statsPath, buckets, documentFrequencies.length());
+                return;
+            }
+            long savedDocuments = in.readLong();
+            long savedTokens = in.readLong();
+            int[] frequencies = new int[buckets];
+            for (int i = 0; i < buckets; i++) {
+                frequencies[i] = in.readInt();
+            }
+            for (int i = 0; i < buckets; i++) {
+                documentFrequencies.set(i, frequencies[i]);
+            }
+            documents.set(savedDocuments);
+            tokens.set(savedTokens);
+        } catch (IOException e) {
+            log.warn("Could not read BM25 statistics {}, starting empty: {}", statsPath, e.getMessage());
+            return;
+        }
+        log.info("Loaded BM25 statistics of {} chunks from {}", documents.get(), statsPath);
+    }
+
+    /**
+     * Parallel arrays of distinct term indices and weights.
+     *
+     * @param length tokens of the encoded text
+     */
+    public record SparseVector(int[] indices, float[] values, int length) {
+        static final SparseVector EMPTY = new SparseVector(new int[0], new float[0], 0);
+
+        public boolean isEmpty() {
+            return indices.length == 0;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.nexa.ingestion.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexa.ingestion.config.IngestionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local append-only write-ahead log of ingestion checkpoints, so an interrupted run resumes instead of
+ * starting from zero.
+ *
+ * <p>Each run is keyed by source (e.g. {@code confluence:TEAM}). Records are JSON lines:
+ * <ul>
+ *   <li>{@code START} – run began</li>
+ *   <li>{@code INFLIGHT} – document at source position {@code pos} is being chunked/embedded/upserted</li>
+ *   <li>{@code DONE} – document fully upserted (or failed and handed off)</li>
+ *   <li>{@code CURSOR} – every position below {@code pos} is done; the source can be re-read from here</li>
+ *   <li>{@code END} – run completed; its records can be dropped</li>
+ * </ul>
+ * Cursor and boundary records are fsynced; DONE records written after the last cursor may be lost in a
+ * crash, in which case those documents are simply re-upserted under the same point ids.
+ * The log is compacted by rewriting only unfinished runs once it exceeds the configured size.
+ */
+@Component
+public class CheckpointLog {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointLog.class);
+
+    private final IngestionProperties.Checkpoint properties;
+    private final Path logPath;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    /** Unfinished runs recovered from the log or currently running. */
+    private final Map<String, RunState> runs = new HashMap<>();
+    private final Set<String> active = new HashSet<>();
+    private FileChannel channel;
+
+    public CheckpointLog(IngestionProperties ingestionProperties) {
+        this.properties = ingestionProperties.getCheckpoint();
+        this.logPath = Paths.get(properties.getPath());
+        if (properties.isEnabled()) {
+            recover();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Starts or resumes a run. If an unfinished run with the same key is in the log, the returned
+     * checkpoint starts at its last cursor and knows which later documents are already done.
+     *
+     * @param runKey source key, e.g. "confluence:TEAM"
+     * @return checkpoint handle for the run; a no-op handle if checkpointing is disabled or the key is already running
+     */
+    public RunCheckpoint begin(String runKey) {
+        return begin(runKey, true);
+    }
+
+    /**
+     * Starts or resumes a run over a source whose order is not stable between runs (e.g. parallel fetches).
+     * No cursor is kept; every completed document id is remembered until the run completes.
+     *
+     * @param runKey source key, e.g. "github:owner/repo"
+     * @return checkpoint handle for the run
+     */
+    public RunCheckpoint beginUnordered(String runKey) {
+        return begin(runKey, false);
+    }
+
+    private synchronized RunCheckpoint begin(String runKey, boolean ordered) {
+        if (!properties.isEnabled()) {
+            return RunCheckpoint.untracked();
+        }
+        if (!active.add(runKey)) {
+            log.warn("Run {} is already in progress; this run will not be checkpointed", runKey);
+            return RunCheckpoint.untracked();
+        }
+        RunState state = runs.get(runKey);
+        if (state != null) {
+            log.info("Resuming {} from position {} ({} later documents already done)",
+                    runKey, state.cursor, state.done.size());
+        } else {
+            state = new RunState();
+            runs.put(runKey, state);
+            append(new CheckpointRecord("START", runKey, null, null), true);
+        }
+        return new RunCheckpoint(this, runKey, ordered, state.cursor, Set.copyOf(state.done.keySet()));
+    }
+
+    private synchronized void inFlight(String runKey, long pos, String docId) {
+        append(new CheckpointRecord("INFLIGHT", runKey, pos, docId), false);
+    }
+
+    private synchronized void done(String runKey, long pos, String docId) {
+        RunState state = runs.get(runKey);
+        if (state != null) {
+            state.done.put(docId, pos);
+        }
+        append(new CheckpointRecord("DONE", runKey, pos, docId), false);
+    }
+
+    private synchronized void cursor(String runKey, long pos) {
+        RunState state = runs.get(runKey);
+        if (state != null) {
+            state.cursor = pos;
+            state.done.values().removeIf(p -> p < pos);
+        }
+        append(new CheckpointRecord("CURSOR", runKey, pos, null), true);
+        maybeCompact();
+    }
+
+    private synchronized void end(String runKey) {
+        runs.remove(runKey);
+        active.remove(runKey);
+        append(new CheckpointRecord("END", runKey, null, null), true);
+        maybeCompact();
+    }
+
+    private synchronized void release(String runKey) {
+        active.remove(runKey);
+        force();
+    }
+
+    private void append(CheckpointRecord record, boolean sync) {
+        try {
+            FileChannel ch = channel();
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                ch.write(buffer);
+            }
+            if (sync) {
+                ch.force(false);
+            }
+        } catch (IOException e) {
+            log.error("Failed to append ingestion checkpoint {}: {}", record.type(), e.getMessage());
+        }
+    }
+
+    private void force() {
+        if (channel != null) {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                log.warn("Failed to sync checkpoint log: {}", e.getMessage());
+            }
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path parent = logPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    /**
+     * Replays the log into {@link #runs}. A torn last line from a crash mid-write is ignored.
+     */
+    private void recover() {
+        if (!Files.exists(logPath)) {
+            return;
+        }
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                CheckpointRecord record;
+                try {
+                    record = objectMapper.readValue(line, CheckpointRecord.class);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable checkpoint record at line {}", lines + 1);
+                    continue;
+                }
+                lines++;
+                apply(record);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read checkpoint log {}: {}", logPath, e.getMessage());
+            return;
+        }
+        if (!runs.isEmpty()) {
+            log.info("Recovered {} interrupted ingestion run(s) from {}: {}", runs.size(), logPath, runs.keySet());
+        }
+        compact();
+    }
+
+    private void apply(CheckpointRecord record) {
+        switch (record.type()) {
+            case "START" -> runs.putIfAbsent(record.run(), new RunState());
+            case "DONE" -> {
+                RunState state = runs.get(record.run());
+                if (state != null && record.pos() != null && record.pos() >= state.cursor) {
+                    state.done.put(record.doc(), record.pos());
+                }
+            }
+            case "CURSOR" -> {
+                RunState state = runs.get(record.run());
+                if (state != null && record.pos() != null) {
+                    state.cursor = Math.max(state.cursor, record.pos());
+                    long cursor = state.cursor;
+                    state.done.values().removeIf(p -> p < cursor);
+                }
+            }
+            case "END" -> runs.remove(record.run());
+            default -> { }  // INFLIGHT: anything in flight without a DONE is simply redone
+        }
+    }
+
+    private void maybeCompact() {
+        try {
+            if (channel != null && channel.size() > properties.getCompactThresholdKb() * 1024L) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to check checkpoint log size: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the log with only the state needed to resume unfinished runs: START, latest CURSOR,
+     * and DONE records at or after the cursor. Written to a temp file and atomically renamed.
+     */
+    private void compact() {
+        Path tmp = logPath.resolveSibling(logPath.getFileName() + ".compact");
+        try {
+            close();
+            StringBuilder out = new StringBuilder();
+            for (Map.Entry<String, RunState> entry : runs.entrySet()) {
+                String run = entry.getKey();
+                RunState state = entry.getValue();
+                out.append(objectMapper.writeValueAsString(new CheckpointRecord("START", run, null, null))).append('\n');
+                if (state.cursor > 0) {
+                    out.append(objectMapper.writeValueAsString(new CheckpointRecord("CURSOR", run, state.cursor, null))).append('\n');
+                }
+                for (Map.Entry<String, Long> done : state.done.entrySet()) {
+                    out.append(objectMapper.writeValueAsString(new CheckpointRecord("DONE", run, done.getValue(), done.getKey()))).append('\n');
+                }
+            }
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    ch.write(buffer);
+                }
+                ch.force(true);
+            }
+            Files.move(tmp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Compacted checkpoint log to {} unfinished run(s)", runs.size());
+        } catch (IOException e) {
+            log.error("Failed to compact checkpoint log {}: {}", logPath, e.getMessage());
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record CheckpointRecord(String type, String run, Long pos, String doc) {}
+
+    private static class RunState {
+        long cursor;
+        final Map<String, Long> done = new HashMap<>();  // doc id → source position, only for positions >= cursor
+    }
+
+    /**
+     * Checkpoint handle for one run. Every source position handed out must eventually be reported
+     * via {@link #documentDone} or {@link #skipped}; the cursor advances over the contiguous completed prefix.
+     */
+    public static class RunCheckpoint {
+
+        private final CheckpointLog checkpointLog;
+        private final String runKey;
+        private final boolean ordered;
+        private final long startCursor;
+        private final Set<String> alreadyDone;
+        private final BitSet completed = new BitSet();  // bit i = position startCursor + i
+        private long watermark;
+        private long lastCheckpointed;
+
+        private RunCheckpoint(CheckpointLog checkpointLog, String runKey, boolean ordered,
+                              long startCursor, Set<String> alreadyDone) {
+            this.checkpointLog = checkpointLog;
+            this.runKey = runKey;
+            this.ordered = ordered;
+            this.startCursor = startCursor;
+            this.alreadyDone = alreadyDone;
+            this.watermark = startCursor;
+            this.lastCheckpointed = startCursor;
+        }
+
+        static RunCheckpoint untracked() {
+            return new RunCheckpoint(null, null, false, 0, Set.of());
+        }
+
+        /**
+         * Source position to resume reading from; always 0 for unordered runs.
+         */
+        public long startCursor() {
+            return startCursor;
+        }
+
+        /**
+         * True if this document was fully upserted by the interrupted run.
+         */
+        public boolean isDone(String docId) {
+            return docId != null && alreadyDone.contains(docId);
+        }
+
+        public void inFlight(long pos, String docId) {
+            if (checkpointLog != null) {
+                checkpointLog.inFlight(runKey, pos, docId);
+            }
+        }
+
+        public void documentDone(long pos, String docId) {
+            if (checkpointLog != null) {
+                checkpointLog.done(runKey, pos, docId);
+                if (ordered) {
+                    advance(pos);
+                }
+            }
+        }
+
+        public void skipped(long pos) {
+            if (checkpointLog != null && ordered) {
+                advance(pos);
+            }
+        }
+
+        /**
+         * Marks the run as finished; a later run with the same key starts from zero.
+         */
+        public void complete() {
+            if (checkpointLog != null) {
+                checkpointLog.end(runKey);
+            }
+        }
+
+        /**
+         * Ends this attempt without completing it (error or cancel), keeping the checkpoint for a later resume.
+         */
+        public void release() {
+            if (checkpointLog != null) {
+                long cursor;
+                synchronized (this) {
+                    cursor = watermark > lastCheckpointed ? watermark : -1;
+                    lastCheckpointed = Math.max(lastCheckpointed, watermark);
+                }
+                if (cursor >= 0) {
+                    checkpointLog.cursor(runKey, cursor);
+                }
+                checkpointLog.release(runKey);
+            }
+        }
+
+        private void advance(long pos) {
+            long cursor = -1;
+            synchronized (this) {
+                completed.set((int) (pos - startCursor));
+                while (completed.get((int) (watermark - startCursor))) {
+                    watermark++;
+                }
+                if (watermark - lastCheckpointed >= checkpointLog.properties.getCursorInterval()) {
+                    lastCheckpointed = watermark;
+                    cursor = watermark;
+                }
+            }
+            if (cursor >= 0) {
+                checkpointLog.cursor(runKey, cursor);
+            }
+        }
+    }
+}
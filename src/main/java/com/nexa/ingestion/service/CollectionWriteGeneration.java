@@ -0,0 +1,47 @@
+package com.nexa.ingestion.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Counter advanced after every write this instance makes to the Qdrant collection (upsert, delete, collection
+ * create/delete). Caches of search results remember the generation they were computed at and treat an entry
+ * as stale once it moved on. Writes made by other instances are not seen here; caches bound those with a TTL.
+ * Caches that track individual points can also subscribe to the ids each upsert wrote.
+ */
+@Component
+public class CollectionWriteGeneration {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final List<Consumer<Collection<String>>> upsertListeners = new CopyOnWriteArrayList<>();
+
+    public long current() {
+        return generation.get();
+    }
+
+    /**
+     * Called when a write has finished, whether it succeeded or not (a failed batch may be partly applied).
+     */
+    public void advance() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Like {@link #advance()}, for an upsert of the given point ids (see {@link QdrantService#pointId}).
+     */
+    public void pointsUpserted(Collection<String> pointIds) {
+        advance();
+        for (Consumer<Collection<String>> listener : upsertListeners) {
+            listener.accept(pointIds);
+        }
+    }
+
+    public void onPointsUpserted(Consumer<Collection<String>> listener) {
+        upsertListeners.add(listener);
+    }
+}
@@ -3,6 +3,8 @@ package com.nexa.ingestion.service;
 import com.nexa.ingestion.config.ConfluenceProperties;
 import com.nexa.ingestion.dto.confluence.ConfluencePage;
 import com.nexa.ingestion.dto.confluence.ConfluencePageResult;
+import com.nexa.ingestion.jfr.DocumentFetchEvent;
+import com.nexa.ingestion.jfr.JfrEvents;
 import com.nexa.ingestion.util.HtmlToPlainText;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -26,12 +28,15 @@ public class ConfluenceService {
     private final WebClient webClient;
     private final ConfluenceProperties properties;
     private final HtmlToPlainText htmlToPlainText;
+    private final PipelineMetrics metrics;
 
     public ConfluenceService(WebClient.Builder webClientBuilder,
                              ConfluenceProperties properties,
-                             HtmlToPlainText htmlToPlainText) {
+                             HtmlToPlainText htmlToPlainText,
+                             PipelineMetrics metrics) {
         this.properties = properties;
         this.htmlToPlainText = htmlToPlainText;
+        this.metrics = metrics;
         this.webClient = webClientBuilder
                 .baseUrl(properties.getContentUrl())
                 .defaultHeader(HttpHeaders.AUTHORIZATION, basicAuthHeader())
@@ -44,6 +49,13 @@ public class ConfluenceService {
         return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Configured space keys ingested by a full run.
+     */
+    public List<String> getSpaces() {
+        return properties.getSpaces();
+    }
+
     /**
      * Fetches all pages in a Confluence space using CQL.
      * Supports pagination and optional limit via configuration.
@@ -52,8 +64,23 @@ public class ConfluenceService {
      * @return flux of ConfluencePage with body.storage expanded
      */
     public Flux<ConfluencePage> getPagesInSpace(String spaceKey) {
+        return getPagesInSpace(spaceKey, 0);
+    }
+
+    /**
+     * Fetches pages in a Confluence space starting at the given result offset.
+     * Pages are ordered by creation date so offsets stay valid as new pages are added (used to resume a run).
+     *
+     * @param spaceKey Confluence space key
+     * @param startOffset index of the first page to fetch
+     * @return flux of ConfluencePage with body.storage expanded
+     */
+    public Flux<ConfluencePage> getPagesInSpace(String spaceKey, int startOffset) {
         int maxPages = properties.getMaxPagesPerSpace();
-        return getPageResults(spaceKey, 0, null)
+        if (maxPages > 0 && startOffset >= maxPages) {
+            return Flux.empty();
+        }
+        return getPageResults(spaceKey, startOffset, null)
                 .expand(result -> {
                     if (result.getResults() == null || result.getResults().isEmpty()) {
                         return Mono.empty();
@@ -71,38 +98,44 @@ public class ConfluenceService {
                     return getNextPage(next);
                 })
                 .concatMap(result -> Flux.fromIterable(result.getResults() != null ? result.getResults() : List.of()))
-                .take(maxPages > 0 ? maxPages : Long.MAX_VALUE);
+                .take(maxPages > 0 ? maxPages - startOffset : Long.MAX_VALUE);
     }
 
     /**
      * Fetches one page of results for the given space.
-     * CQL: type=page AND space=key, expand=body.storage
+     * CQL: type=page AND space=key ORDER BY created, expand=body.storage
      */
     public Mono<ConfluencePageResult> getPageResults(String spaceKey, int start, Integer limit) {
         int pageSize = limit != null ? limit : 25;
         String uri = UriComponentsBuilder.fromPath("")
-                .queryParam("cql", "type=page AND space=" + spaceKey)
+                .queryParam("cql", "type=page AND space=" + spaceKey + " ORDER BY created ASC")
                 .queryParam("expand", "body.storage")
                 .queryParam("start", start)
                 .queryParam("limit", pageSize)
                 .build()
                 .toUriString();
 
-        return webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(ConfluencePageResult.class);
+        return metrics.timeFetch("confluence", JfrEvents.recorded(
+                () -> new DocumentFetchEvent("confluence", spaceKey + "@" + start, 0),
+                webClient.get()
+                        .uri(uri)
+                        .retrieve()
+                        .bodyToMono(ConfluencePageResult.class),
+                null));
     }
 
     private Mono<ConfluencePageResult> getNextPage(String nextUrl) {
         String fullUrl = nextUrl.startsWith("http") ? nextUrl : properties.getBaseUrl() + nextUrl;
-        return WebClient.create()
-                .get()
-                .uri(fullUrl)
-                .header(HttpHeaders.AUTHORIZATION, basicAuthHeader())
-                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .retrieve()
-                .bodyToMono(ConfluencePageResult.class);
+        return metrics.timeFetch("confluence", JfrEvents.recorded(
+                () -> new DocumentFetchEvent("confluence", nextUrl, 0),
+                WebClient.create()
+                        .get()
+                        .uri(fullUrl)
+                        .header(HttpHeaders.AUTHORIZATION, basicAuthHeader())
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                        .retrieve()
+                        .bodyToMono(ConfluencePageResult.class),
+                null));
     }
 
     /**
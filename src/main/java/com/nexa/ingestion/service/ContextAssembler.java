@@ -0,0 +1,181 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.IngestionProperties;
+import com.nexa.ingestion.config.LLMProperties;
+import com.nexa.ingestion.config.SearchProperties;
+import com.nexa.ingestion.dto.SearchResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns retrieved chunks into the context passages sent to the LLM.
+ *
+ * <p>Chunks are grouped by document. With {@code merge-adjacent}, chunks with consecutive indexes become one
+ * passage, and the sentences a chunk repeats from its predecessor (the chunking overlap) are sent once. Passages
+ * are then taken by score (the best score of their chunks) until the token budget is used up; a passage that no
+ * longer fits is skipped for a smaller one. Only the best passage is ever truncated, when it alone exceeds the
+ * budget.
+ *
+ * <p>The budget is {@code search.context.max-tokens}, capped by what the model's context window leaves after the
+ * answer ({@code llm.max-tokens}) and the prompt around the context. Tokens are estimated as characters /
+ * {@code ingestion.chars-per-token}, like chunk sizes.
+ */
+@Component
+public class ContextAssembler {
+
+    /**
+     * Tokens kept free for the system prompt, question and passage numbering.
+     */
+    static final int PROMPT_RESERVE_TOKENS = 512;
+
+    /**
+     * Leading characters of a chunk searched for in its predecessor to find where their overlap starts.
+     */
+    private static final int OVERLAP_PROBE_CHARS = 32;
+
+    private final SearchProperties.Context properties;
+    private final int charsPerToken;
+    private final int budgetTokens;
+
+    public ContextAssembler(SearchProperties searchProperties,
+                            LLMProperties llmProperties,
+                            IngestionProperties ingestionProperties) {
+        this.properties = searchProperties.getContext();
+        this.charsPerToken = Math.max(1, ingestionProperties.getCharsPerToken());
+        int available = llmProperties.getContextWindow() - llmProperties.getMaxTokens() - PROMPT_RESERVE_TOKENS;
+        this.budgetTokens = Math.max(1, Math.min(properties.getMaxTokens(), available));
+    }
+
+    public int getBudgetTokens() {
+        return budgetTokens;
+    }
+
+    /**
+     * Context passages for {@code results}, best first.
+     */
+    public Context assemble(List<SearchResult> results) {
+        List<Passage> passages = properties.isMergeAdjacent() ? merge(results) : single(results);
+        passages.sort(Comparator.comparingDouble(Passage::score).reversed());
+
+        int budgetChars = budgetTokens * charsPerToken;
+        int usedChars = 0;
+        int chunks = 0;
+        List<String> texts = new ArrayList<>();
+        for (Passage passage : passages) {
+            String text = passage.text();
+            if (usedChars + text.length() > budgetChars) {
+                if (!texts.isEmpty()) {
+                    continue;
+                }
+                text = text.substring(0, budgetChars);
+            }
+            texts.add(text);
+            usedChars += text.length();
+            chunks += passage.chunks();
+        }
+        return new Context(texts, usedChars / charsPerToken, chunks);
+    }
+
+    private static List<Passage> single(List<SearchResult> results) {
+        List<Passage> passages = new ArrayList<>();
+        for (SearchResult result : results) {
+            if (result.getText() != null && !result.getText().isBlank()) {
+                passages.add(new Passage(result.getText(), result.getRankingScore(), 1));
+            }
+        }
+        return passages;
+    }
+
+    /**
+     * One passage per run of consecutive chunks of a document.
+     */
+    private static List<Passage> merge(List<SearchResult> results) {
+        Map<String, List<SearchResult>> byDocument = new LinkedHashMap<>();
+        for (SearchResult result : results) {
+            if (result.getText() != null && !result.getText().isBlank()) {
+                byDocument.computeIfAbsent(documentKey(result), k -> new ArrayList<>()).add(result);
+            }
+        }
+        List<Passage> passages = new ArrayList<>();
+        for (List<SearchResult> chunks : byDocument.values()) {
+            chunks.sort(Comparator.comparingInt(SearchResult::getChunkIndex));
+            StringBuilder text = null;
+            double score = 0;
+            int count = 0;
+            int lastIndex = 0;
+            for (SearchResult chunk : chunks) {
+                if (text != null && chunk.getChunkIndex() == lastIndex) {
+                    continue; // same chunk stored twice
+                }
+                if (text != null && chunk.getChunkIndex() == lastIndex + 1) {
+                    appendWithoutOverlap(text, chunk.getText());
+                    score = Math.max(score, chunk.getRankingScore());
+                    count++;
+                } else {
+                    if (text != null) {
+                        passages.add(new Passage(text.toString(), score, count));
+                    }
+                    text = new StringBuilder(chunk.getText());
+                    score = chunk.getRankingScore();
+                    count = 1;
+                }
+                lastIndex = chunk.getChunkIndex();
+            }
+            if (text != null) {
+                passages.add(new Passage(text.toString(), score, count));
+            }
+        }
+        return passages;
+    }
+
+    /**
+     * Chunks of the same document share their document id; older points without one are grouped by page.
+     */
+    private static String documentKey(SearchResult result) {
+        if (result.getDocumentId() != null && !result.getDocumentId().isEmpty()) {
+            return result.getDocumentId();
+        }
+        if (result.getPageId() != null && !result.getPageId().isEmpty()) {
+            return "page:" + result.getPageId();
+        }
+        return "point:" + result.getPointId();
+    }
+
+    /**
+     * Appends {@code next} to {@code text}, leaving out the longest prefix of {@code next} that {@code text}
+     * already ends with.
+     */
+    static void appendWithoutOverlap(StringBuilder text, String next) {
+        int overlap = overlap(text, next);
+        String rest = next.substring(overlap).strip();
+        if (!rest.isEmpty()) {
+            text.append(' ').append(rest);
+        }
+    }
+
+    static int overlap(CharSequence previous, String next) {
+        String probe = next.substring(0, Math.min(OVERLAP_PROBE_CHARS, next.length()));
+        String tail = previous.toString();
+        for (int start = tail.indexOf(probe); start >= 0; start = tail.indexOf(probe, start + 1)) {
+            int length = tail.length() - start;
+            if (length <= next.length() && next.regionMatches(0, tail, start, length)) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param passages context texts, best first
+     * @param tokens estimated tokens of all passages
+     * @param chunks retrieved chunks the passages contain
+     */
+    public record Context(List<String> passages, int tokens, int chunks) {}
+
+    private record Passage(String text, double score, int chunks) {}
+}
@@ -0,0 +1,73 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.IngestionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically retries dead-lettered documents whose backoff has elapsed.
+ * Due entries are replayed together as one batch through {@link UnifiedIngestionService#replayDeadLetters};
+ * a new round starts only after the previous one finished.
+ */
+@Service
+public class DeadLetterRetrier {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterRetrier.class);
+
+    private final IngestionProperties.DeadLetter properties;
+    private final DeadLetterStore store;
+    private final UnifiedIngestionService ingestionService;
+    private final AtomicBoolean retrying = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    public DeadLetterRetrier(IngestionProperties ingestionProperties,
+                             DeadLetterStore store,
+                             UnifiedIngestionService ingestionService) {
+        this.properties = ingestionProperties.getDeadLetter();
+        this.store = store;
+        this.ingestionService = ingestionService;
+        if (properties.isEnabled()) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "dead-letter-retry");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::retryDue,
+                    properties.getPollIntervalSec(), properties.getPollIntervalSec(), TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void retryDue() {
+        if (store.size() == 0 || !retrying.compareAndSet(false, true)) {
+            return;
+        }
+        List<DeadLetterStore.DeadLetter> due = store.due(properties.getRetryBatchSize());
+        if (due.isEmpty()) {
+            retrying.set(false);
+            return;
+        }
+        ingestionService.replayDeadLetters(due)
+                .doFinally(signal -> retrying.set(false))
+                .subscribe(
+                        result -> log.info("Dead-letter retry: {} of {} documents re-ingested, {} failed again",
+                                result.documentsSucceeded(), due.size(), result.documentsFailed),
+                        e -> log.error("Dead-letter retry failed: {}", e.getMessage()));
+    }
+}
@@ -0,0 +1,293 @@
+package com.nexa.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nexa.ingestion.config.IngestionProperties;
+import com.nexa.ingestion.dto.SourceDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Persistent store of documents that failed somewhere in the ingestion pipeline, so nothing silently
+ * goes missing from the index. Each entry records the document id, source, failing stage, error class and
+ * attempt count, and is kept as one JSON file so recording a failure never rewrites the whole store.
+ *
+ * <p>Entries that failed after fetching carry the document itself and are replayed as-is; fetch and
+ * extraction failures carry a locator (e.g. repository and path) so the document can be fetched again.
+ * A failed entry becomes due again after an exponential backoff; a document that later ingests
+ * successfully is removed.
+ */
+@Component
+public class DeadLetterStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterStore.class);
+
+    private final IngestionProperties.DeadLetter properties;
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Map<String, DeadLetter> entries = new ConcurrentHashMap<>();
+
+    public DeadLetterStore(IngestionProperties ingestionProperties) {
+        this.properties = ingestionProperties.getDeadLetter();
+        this.directory = Paths.get(properties.getDirectory());
+        if (properties.isEnabled()) {
+            load();
+        }
+    }
+
+    /**
+     * Records a failure of a fetched document; the document is stored so it can be replayed without refetching.
+     */
+    public void record(SourceDocument doc, Stage stage, Throwable error) {
+        record(doc.getSourceType(), doc.getId(), stage, error, Map.of(), doc);
+    }
+
+    /**
+     * Records a failure that happened before a document could be built (fetch or extraction).
+     *
+     * @param locator source-specific fields needed to fetch the document again (e.g. repository and path)
+     */
+    public void record(String source, String documentId, Stage stage, Throwable error, Map<String, String> locator) {
+        record(source, documentId, stage, error, locator, null);
+    }
+
+    private void record(String source, String documentId, Stage stage, Throwable error,
+                        Map<String, String> locator, SourceDocument doc) {
+        if (!properties.isEnabled() || documentId == null) {
+            return;
+        }
+        String id = idFor(source, documentId);
+        Instant now = Instant.now();
+        Throwable cause = rootCause(error);
+        DeadLetter letter = entries.compute(id, (k, previous) -> {
+            int attempts = previous != null ? previous.attempts() + 1 : 1;
+            Instant firstFailedAt = previous != null ? previous.firstFailedAt() : now;
+            return new DeadLetter(id, documentId, source, stage, cause.getClass().getName(),
+                    cause.getMessage(), attempts, firstFailedAt, now, now.plus(backoff(attempts)),
+                    locator, doc != null || (previous != null && previous.hasDocument()));
+        });
+        write(letter, doc);
+        log.debug("Dead-lettered {} {} at {} (attempt {}): {}", source, documentId, stage, letter.attempts(), letter.errorMessage());
+    }
+
+    /**
+     * Removes the entry for a document that has now been ingested successfully, if there is one.
+     */
+    public void resolve(String source, String documentId) {
+        if (entries.isEmpty() || documentId == null) {
+            return;
+        }
+        String id = idFor(source, documentId);
+        if (entries.remove(id) != null) {
+            deleteFile(id);
+            log.debug("Resolved dead letter for {} {}", source, documentId);
+        }
+    }
+
+    /**
+     * True if the document currently has an entry.
+     */
+    public boolean contains(String source, String documentId) {
+        return !entries.isEmpty() && documentId != null && entries.containsKey(idFor(source, documentId));
+    }
+
+    public DeadLetter get(String id) {
+        return entries.get(id);
+    }
+
+    /**
+     * All entries, oldest failure first, optionally filtered by source and stage.
+     */
+    public List<DeadLetter> list(String source, Stage stage) {
+        return entries.values().stream()
+                .filter(l -> source == null || source.equalsIgnoreCase(l.source()))
+                .filter(l -> stage == null || stage == l.stage())
+                .sorted(Comparator.comparing(DeadLetter::firstFailedAt))
+                .toList();
+    }
+
+    /**
+     * Entries whose backoff has elapsed and that have attempts left, most overdue first.
+     */
+    public List<DeadLetter> due(int limit) {
+        Instant now = Instant.now();
+        return entries.values().stream()
+                .filter(l -> l.attempts() < properties.getMaxAttempts() && !l.nextAttemptAt().isAfter(now))
+                .sorted(Comparator.comparing(DeadLetter::nextAttemptAt))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * The stored document of an entry, or null if the entry only has a locator.
+     */
+    public SourceDocument document(DeadLetter letter) {
+        if (!letter.hasDocument()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(fileFor(letter.id()).toFile(), StoredLetter.class).document();
+        } catch (IOException e) {
+            log.warn("Could not read dead-lettered document {}: {}", letter.documentId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deletes an entry without retrying it.
+     *
+     * @return true if the entry existed
+     */
+    public boolean purge(String id) {
+        if (entries.remove(id) == null) {
+            return false;
+        }
+        deleteFile(id);
+        return true;
+    }
+
+    /**
+     * Deletes all entries, optionally only those of one source.
+     *
+     * @return number of entries deleted
+     */
+    public int purgeAll(String source) {
+        int purged = 0;
+        for (DeadLetter letter : list(source, null)) {
+            if (purge(letter.id())) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoffSec();
+        long max = properties.getMaxBackoffSec();
+        long seconds = attempts >= 32 ? max : Math.min(max, initial << Math.min(attempts - 1, 30));
+        // ±10% jitter so documents that failed together are not all retried in the same instant
+        long jitter = seconds / 10;
+        if (jitter > 0) {
+            seconds += ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+        }
+        return Duration.ofSeconds(seconds);
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) {
+                try {
+                    DeadLetter letter = objectMapper.readValue(file.toFile(), StoredLetter.class).letter();
+                    entries.put(letter.id(), letter);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable dead letter {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read dead-letter directory {}: {}", directory, e.getMessage());
+        }
+        if (!entries.isEmpty()) {
+            log.info("Loaded {} dead-lettered documents from {}", entries.size(), directory);
+        }
+    }
+
+    /**
+     * Writes an entry via a temp file and atomic rename. A stored document is kept when only the entry changed.
+     */
+    private void write(DeadLetter letter, SourceDocument doc) {
+        Path file = fileFor(letter.id());
+        try {
+            Files.createDirectories(directory);
+            if (doc == null && letter.hasDocument() && Files.exists(file)) {
+                doc = objectMapper.readValue(file.toFile(), StoredLetter.class).document();
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new StoredLetter(letter, doc));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to persist dead letter for {}: {}", letter.documentId(), e.getMessage());
+        }
+    }
+
+    private void deleteFile(String id) {
+        try {
+            Files.deleteIfExists(fileFor(id));
+        } catch (IOException e) {
+            log.warn("Failed to delete dead letter {}: {}", id, e.getMessage());
+        }
+    }
+
+    private Path fileFor(String id) {
+        return directory.resolve(id + ".json");
+    }
+
+    private static String idFor(String source, String documentId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((source + ":" + documentId).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Pipeline stage a document failed in.
+     */
+    public enum Stage {
+        FETCH, EXTRACT, CHUNK, EMBED, UPSERT
+    }
+
+    /**
+     * A failed document.
+     *
+     * @param id stable entry id derived from source and document id
+     * @param errorClass class of the root cause
+     * @param attempts failed attempts so far, including the original one
+     * @param nextAttemptAt earliest time the background retry picks this entry up again
+     * @param locator fields needed to refetch the document when it is not stored
+     * @param hasDocument true if the fetched document is stored with the entry
+     */
+    public record DeadLetter(String id, String documentId, String source, Stage stage, String errorClass,
+                             String errorMessage, int attempts, Instant firstFailedAt, Instant lastFailedAt,
+                             Instant nextAttemptAt, Map<String, String> locator, boolean hasDocument) {}
+
+    private record StoredLetter(DeadLetter letter, SourceDocument document) {}
+}
@@ -8,6 +8,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -55,14 +56,7 @@ public class EmbeddingService {
                 .bodyValue(Map.of("inputs", text))
                 .retrieve()
                 .bodyToMono(List.class)
-                .map(list -> {
-                    // Response format: [[float...]] - array of arrays, take first
-                    if (list != null && !list.isEmpty() && list.get(0) instanceof List) {
-                        return toFloatArray((List<?>) list.get(0));
-                    }
-                    // Fallback: direct array
-                    return toFloatArray(list);
-                })
+                .map(EmbeddingService::decodeSingle)
                 .onErrorMap(e -> {
                     String errorMsg = String.format("Hugging Face embedding failed at %s: %s", 
                             modelPath, e.getMessage());
@@ -89,19 +83,7 @@ public class EmbeddingService {
                 .bodyValue(Map.of("inputs", texts))
                 .retrieve()
                 .bodyToMono(List.class)
-                .flatMapMany(list -> {
-                    // Response format: [[embedding1], [embedding2], ...]
-                    if (list == null) {
-                        return Flux.empty();
-                    }
-                    return Flux.fromIterable(list)
-                            .map(item -> {
-                                if (item instanceof List) {
-                                    return toFloatArray((List<?>) item);
-                                }
-                                return new float[0];
-                            });
-                })
+                .flatMapMany(list -> Flux.fromIterable(decodeBatch(list)))
                 .onErrorResume(e -> {
                     // Fallback to sequential single-text calls if batch fails
                     return Flux.fromIterable(texts)
@@ -109,6 +91,30 @@ public class EmbeddingService {
                 });
     }
 
+    /**
+     * Decodes a single-text response: [[float...]] (array of arrays, take first) or a direct array.
+     */
+    static float[] decodeSingle(List<?> list) {
+        if (list != null && !list.isEmpty() && list.get(0) instanceof List) {
+            return toFloatArray((List<?>) list.get(0));
+        }
+        return toFloatArray(list);
+    }
+
+    /**
+     * Decodes a batch response: [[embedding1], [embedding2], ...]; entries that are not arrays become empty vectors.
+     */
+    static List<float[]> decodeBatch(List<?> list) {
+        if (list == null) {
+            return List.of();
+        }
+        List<float[]> vectors = new ArrayList<>(list.size());
+        for (Object item : list) {
+            vectors.add(item instanceof List ? toFloatArray((List<?>) item) : new float[0]);
+        }
+        return vectors;
+    }
+
     private static float[] toFloatArray(List<?> list) {
         if (list == null) return new float[0];
         float[] arr = new float[list.size()];
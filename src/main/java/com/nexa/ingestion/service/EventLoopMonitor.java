@@ -0,0 +1,225 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.DiagnosticsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the Reactor Netty event loops (shared by the WebFlux server and WebClient) for blocking work.
+ *
+ * <p>Every probe interval each loop is handed a no-op task; the time until it runs is the loop's scheduling
+ * lag, published as the {@code netty.eventloop.lag} timer per loop thread. If a probe is still waiting after
+ * the stall threshold, the loop is blocked: the stack of its thread is captured at that moment (it shows the
+ * offending call), logged, counted in {@code netty.eventloop.stalls} and kept for
+ * {@code GET /api/diagnostics/event-loops}.
+ */
+@Component
+public class EventLoopMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLoopMonitor.class);
+
+    private final ReactorResourceFactory resourceFactory;
+    private final MeterRegistry registry;
+    private final DiagnosticsProperties.EventLoop properties;
+    private final long thresholdNanos;
+    private final ScheduledExecutorService watchdog;
+    private final ArrayDeque<Stall> recentStalls = new ArrayDeque<>();
+    private volatile List<Loop> loops;
+
+    public EventLoopMonitor(ReactorResourceFactory resourceFactory,
+                            MeterRegistry registry,
+                            DiagnosticsProperties diagnosticsProperties) {
+        this.resourceFactory = resourceFactory;
+        this.registry = registry;
+        this.properties = diagnosticsProperties.getEventLoop();
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getStallThresholdMs());
+        if (properties.isEnabled()) {
+            this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "event-loop-watchdog");
+                t.setDaemon(true);
+                return t;
+            });
+            watchdog.scheduleWithFixedDelay(this::tick,
+                    properties.getProbeIntervalMs(), properties.getProbeIntervalMs(), TimeUnit.MILLISECONDS);
+        } else {
+            this.watchdog = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+
+    /**
+     * Per-loop lag and the most recent stalls, newest first.
+     */
+    public Report report() {
+        List<LoopStats> stats = new ArrayList<>();
+        List<Loop> current = loops;
+        if (current != null) {
+            for (Loop loop : current) {
+                stats.add(loop.stats());
+            }
+        }
+        synchronized (recentStalls) {
+            return new Report(properties.isEnabled(), properties.getStallThresholdMs(), stats,
+                    new ArrayList<>(recentStalls));
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Loop> current = loops;
+            if (current == null) {
+                current = loops = resolveLoops();
+            }
+            long now = System.nanoTime();
+            for (Loop loop : current) {
+                loop.check(now);
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the fixed-delay schedule
+            log.warn("Event loop probe failed: {}", e.getMessage());
+        }
+    }
+
+    private List<Loop> resolveLoops() {
+        List<Loop> resolved = new ArrayList<>();
+        for (EventExecutor executor : resourceFactory.getLoopResources().onServer(LoopResources.DEFAULT_NATIVE)) {
+            resolved.add(new Loop(executor));
+        }
+        log.info("Monitoring {} event loops (stall threshold {} ms)", resolved.size(), properties.getStallThresholdMs());
+        return resolved;
+    }
+
+    private void stalled(Thread thread, long blockedNanos) {
+        List<String> stack = Arrays.stream(thread.getStackTrace()).map(StackTraceElement::toString).toList();
+        Stall stall = new Stall(thread.getName(), Instant.now(), TimeUnit.NANOSECONDS.toMillis(blockedNanos), stack);
+        synchronized (recentStalls) {
+            recentStalls.addFirst(stall);
+            while (recentStalls.size() > properties.getRecentStalls()) {
+                recentStalls.removeLast();
+            }
+        }
+        Counter.builder("netty.eventloop.stalls")
+                .description("Times an event loop was blocked past the stall threshold")
+                .tag("thread", thread.getName())
+                .register(registry)
+                .increment();
+        log.warn("Event loop {} blocked for {} ms, at:\n\t{}", thread.getName(), stall.blockedMs(),
+                String.join("\n\t", stack));
+    }
+
+    /**
+     * Probe state of one event loop. The watchdog thread sends probes and checks them; the loop thread
+     * completes them.
+     */
+    private final class Loop {
+        private final EventExecutor executor;
+        private volatile Thread thread;
+        private volatile Timer lag;
+        /** {@link System#nanoTime()} when the pending probe was sent, 0 if none is pending. */
+        private volatile long pendingSince;
+        private volatile boolean reported;
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+        private volatile long stalls;
+
+        private Loop(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Called by the watchdog: reports a probe that has waited too long, otherwise sends the next one.
+         */
+        private void check(long now) {
+            long sent = pendingSince;
+            if (sent != 0) {
+                Thread loopThread = thread;
+                if (!reported && now - sent >= thresholdNanos && loopThread != null) {
+                    reported = true;
+                    stalls++;
+                    stalled(loopThread, now - sent);
+                }
+                return;
+            }
+            if (executor.isShuttingDown()) {
+                return;
+            }
+            pendingSince = now;
+            try {
+                executor.execute(() -> complete(now));
+            } catch (RejectedExecutionException e) {
+                pendingSince = 0;
+            }
+        }
+
+        /**
+         * Runs on the loop thread.
+         */
+        private void complete(long sent) {
+            long nanos = System.nanoTime() - sent;
+            if (thread == null) {
+                thread = Thread.currentThread();
+                lag = Timer.builder("netty.eventloop.lag")
+                        .description("Time a task waits before its event loop runs it")
+                        .tag("thread", thread.getName())
+                        .register(registry);
+            }
+            lag.record(nanos, TimeUnit.NANOSECONDS);
+            lastLagNanos = nanos;
+            maxLagNanos = Math.max(maxLagNanos, nanos);
+            if (reported) {
+                log.warn("Event loop {} resumed after {} ms", thread.getName(), TimeUnit.NANOSECONDS.toMillis(nanos));
+                reported = false;
+            }
+            pendingSince = 0;
+        }
+
+        private LoopStats stats() {
+            Thread loopThread = thread;
+            long sent = pendingSince;
+            long blockedMs = sent != 0 ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent) : 0;
+            return new LoopStats(loopThread != null ? loopThread.getName() : "not started",
+                    lastLagNanos / 1_000_000.0, maxLagNanos / 1_000_000.0, blockedMs, stalls);
+        }
+    }
+
+    /**
+     * @param thread event loop thread
+     * @param lastLagMs lag of the most recent probe
+     * @param maxLagMs highest lag since startup
+     * @param blockedMs how long the pending probe has waited, 0 if none is pending
+     * @param stalls times the loop was blocked past the threshold
+     */
+    public record LoopStats(String thread, double lastLagMs, double maxLagMs, long blockedMs, long stalls) {}
+
+    /**
+     * @param blockedMs how long the loop had been blocked when its stack was captured
+     * @param stackTrace the loop thread's stack at that moment
+     */
+    public record Stall(String thread, Instant detectedAt, long blockedMs, List<String> stackTrace) {}
+
+    public record Report(boolean enabled, int stallThresholdMs, List<LoopStats> loops, List<Stall> recentStalls) {}
+}
@@ -0,0 +1,212 @@
+package com.nexa.ingestion.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs asynchronous tasks from many flows under a fixed concurrency limit, by priority lane and then by weight.
+ *
+ * <p>Tasks are queued in one of several priority lanes (0 = highest). The lane whose oldest task has the best
+ * effective priority runs next, where a task's effective priority improves by one level for every
+ * {@code agingNanos} it has waited; so a high lane goes first, yet a low lane still progresses under sustained
+ * high-priority load.
+ *
+ * <p>Within a lane, start-time fair queuing shares capacity between flows: each task gets a start tag of
+ * {@code max(virtualTime, flow's last finish tag)} and a finish tag of {@code start + cost / weight}; the queued
+ * task with the smallest start tag runs next, and the lane's virtual time advances to it. A flow with weight 2
+ * thus gets twice the cost-throughput of a flow with weight 1 while both are backlogged, an idle flow does not
+ * bank credit, and no flow can starve another.
+ */
+public class FairShareScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FairShareScheduler.class);
+
+    private final String name;
+    private final int maxConcurrency;
+    private final long agingNanos;
+    private final Lane[] lanes;
+    private long seq;
+    private int running;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /**
+     * @param name name for logging
+     * @param maxConcurrency maximum tasks running at once
+     * @param laneCount number of priority lanes
+     * @param agingNanos wait after which a queued task is treated as one lane higher; 0 disables aging
+     */
+    public FairShareScheduler(String name, int maxConcurrency, int laneCount, long agingNanos) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.agingNanos = agingNanos;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Queues a task; it is subscribed once it is its lane's and flow's turn and a slot is free.
+     * Cancelling the returned Mono removes a queued task or cancels a running one.
+     *
+     * @param lane priority lane, 0 = highest
+     * @param flow flow the task is accounted to (e.g. "confluence:TEAM")
+     * @param weight share of the flow relative to others; must be positive
+     * @param cost work units of the task (e.g. characters to embed)
+     * @param task supplies the work when it is dispatched
+     */
+    public <T> Mono<T> submit(int lane, String flow, double weight, long cost, Supplier<Mono<T>> task) {
+        Lane target = lanes[Math.min(Math.max(lane, 0), lanes.length - 1)];
+        return Mono.create(sink -> {
+            Task<T> queued = new Task<>(task, sink);
+            synchronized (this) {
+                double start = Math.max(target.virtualTime, target.lastFinishTags.getOrDefault(flow, 0.0));
+                queued.startTag = start;
+                queued.seq = seq++;
+                queued.enqueuedNanos = System.nanoTime();
+                target.lastFinishTags.put(flow, start + Math.max(1, cost) / Math.max(weight, 1e-6));
+                target.queue.add(queued);
+            }
+            sink.onCancel(() -> cancel(target, queued));
+            dispatch();
+        });
+    }
+
+    /**
+     * Tasks waiting for a slot in a lane.
+     */
+    public synchronized int queued(int lane) {
+        return lanes[lane].queue.size();
+    }
+
+    /**
+     * Tasks currently running.
+     */
+    public synchronized int running() {
+        return running;
+    }
+
+    private void cancel(Lane lane, Task<?> task) {
+        boolean removed;
+        synchronized (this) {
+            removed = lane.queue.remove(task);
+            task.cancelled = true;
+        }
+        if (!removed && task.subscription != null) {
+            task.subscription.dispose();
+        }
+    }
+
+    private void dispatch() {
+        // Trampoline: tasks that complete synchronously re-enter here; only one thread drains at a time
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (true) {
+                Task<?> next;
+                synchronized (this) {
+                    if (running >= maxConcurrency) {
+                        break;
+                    }
+                    Lane lane = nextLane();
+                    if (lane == null) {
+                        break;
+                    }
+                    next = lane.queue.poll();
+                    lane.virtualTime = next.startTag;
+                    if (lane.queue.isEmpty()) {
+                        // Lane idle: forget old tags so they cannot grow without bound
+                        lane.lastFinishTags.clear();
+                        lane.virtualTime = 0;
+                    }
+                    running++;
+                }
+                next.start(this::finished);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    /**
+     * Lane with the best effective priority at its head; ties go to the higher lane.
+     */
+    private Lane nextLane() {
+        long now = System.nanoTime();
+        Lane best = null;
+        long bestPriority = Long.MAX_VALUE;
+        for (int i = 0; i < lanes.length; i++) {
+            Task<?> head = lanes[i].queue.peek();
+            if (head == null) {
+                continue;
+            }
+            long effective = i;
+            if (agingNanos > 0) {
+                effective -= (now - head.enqueuedNanos) / agingNanos;
+            }
+            if (effective < bestPriority) {
+                bestPriority = effective;
+                best = lanes[i];
+            }
+        }
+        return best;
+    }
+
+    private void finished() {
+        synchronized (this) {
+            running--;
+        }
+        dispatch();
+    }
+
+    private static final class Lane {
+        final PriorityQueue<Task<?>> queue = new PriorityQueue<>((a, b) -> {
+            int cmp = Double.compare(a.startTag, b.startTag);
+            return cmp != 0 ? cmp : Long.compare(a.seq, b.seq);
+        });
+        final Map<String, Double> lastFinishTags = new HashMap<>();
+        double virtualTime;
+    }
+
+    private final class Task<T> {
+        final Supplier<Mono<T>> work;
+        final MonoSink<T> sink;
+        double startTag;
+        long seq;
+        long enqueuedNanos;
+        volatile boolean cancelled;
+        volatile Disposable subscription;
+
+        Task(Supplier<Mono<T>> work, MonoSink<T> sink) {
+            this.work = work;
+            this.sink = sink;
+        }
+
+        void start(Runnable onDone) {
+            if (cancelled) {
+                onDone.run();
+                return;
+            }
+            Mono<T> mono;
+            try {
+                mono = work.get();
+            } catch (RuntimeException e) {
+                log.debug("{} task failed to start: {}", name, e.getMessage());
+                sink.error(e);
+                onDone.run();
+                return;
+            }
+            subscription = mono
+                    .doFinally(signal -> onDone.run())
+                    .subscribe(sink::success, sink::error, () -> sink.success());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nexa.ingestion.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexa.ingestion.config.FileSystemProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent record of ingested files: (path → size, mtime, content hash).
+ * Lets the filesystem crawler skip unchanged files without reading them and detect deleted files.
+ * Entries are only recorded after a file's points have been upserted, so failed files are retried next run.
+ */
+@Component
+public class FileManifest {
+
+    private static final Logger log = LoggerFactory.getLogger(FileManifest.class);
+
+    private final Path manifestPath;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    public FileManifest(FileSystemProperties properties) {
+        this.manifestPath = Paths.get(properties.getManifestPath());
+        load();
+    }
+
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+
+    public Set<String> paths() {
+        return entries.keySet();
+    }
+
+    public void record(String path, Entry entry) {
+        entries.put(path, entry);
+        dirty = true;
+    }
+
+    public void remove(String path) {
+        if (entries.remove(path) != null) {
+            dirty = true;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void load() {
+        if (!Files.exists(manifestPath)) {
+            return;
+        }
+        try {
+            Map<String, Entry> loaded = objectMapper.readValue(manifestPath.toFile(), new TypeReference<Map<String, Entry>>() {});
+            entries.putAll(loaded);
+            log.info("Loaded filesystem manifest with {} entries from {}", entries.size(), manifestPath);
+        } catch (IOException e) {
+            log.warn("Could not read filesystem manifest {}, starting empty: {}", manifestPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the manifest if it changed, via a temp file and atomic rename so a crash never leaves it truncated.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Path parent = manifestPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), entries);
+            Files.move(tmp, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved filesystem manifest with {} entries", entries.size());
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Failed to save filesystem manifest {}: {}", manifestPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Manifest entry for one file.
+     *
+     * @param size file size in bytes
+     * @param modifiedMillis last-modified time in epoch millis
+     * @param hash SHA-256 of the file bytes (hex)
+     */
+    public record Entry(long size, long modifiedMillis, String hash) {
+
+        public boolean sameStat(long size, long modifiedMillis) {
+            return this.size == size && this.modifiedMillis == modifiedMillis;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.FileSystemProperties;
+import com.nexa.ingestion.dto.SourceDocument;
+import com.nexa.ingestion.jfr.DocumentFetchEvent;
+import com.nexa.ingestion.jfr.JfrEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Crawls configured filesystem base paths in parallel and diffs them against the {@link FileManifest}.
+ * Directories are walked on a fork/join pool with one attribute read per entry; files whose size and
+ * mtime match the manifest are skipped without being opened. Changed files are read and hashed on a
+ * bounded I/O scheduler, memory-mapping large files so unchanged content never lands on the heap.
+ */
+@Service
+public class FileSystemCrawler {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemCrawler.class);
+
+    private final FileSystemProperties properties;
+    private final FileSystemService fileSystemService;
+    private final FileManifest manifest;
+    private final MemoryBudget memoryBudget;
+    private final PipelineMetrics metrics;
+    private final ForkJoinPool walkPool;
+    private final Scheduler readScheduler;
+
+    public FileSystemCrawler(FileSystemProperties properties,
+                             FileSystemService fileSystemService,
+                             FileManifest manifest,
+                             MemoryBudget memoryBudget,
+                             PipelineMetrics metrics) {
+        this.properties = properties;
+        this.fileSystemService = fileSystemService;
+        this.manifest = manifest;
+        this.memoryBudget = memoryBudget;
+        this.metrics = metrics;
+        this.walkPool = new ForkJoinPool(properties.getWalkParallelism());
+        this.readScheduler = Schedulers.newBoundedElastic(
+                properties.getReadConcurrency(), Integer.MAX_VALUE, "fs-read");
+    }
+
+    @PreDestroy
+    public void close() {
+        walkPool.shutdownNow();
+        readScheduler.dispose();
+    }
+
+    /**
+     * Walks all base paths and compares the result with the manifest.
+     * Runs on the read scheduler so the walk never blocks the caller's thread.
+     *
+     * @return files that need reading, manifest paths that no longer exist, and the unchanged count
+     */
+    public Mono<ScanResult> scan() {
+        return Mono.fromCallable(this::scanBlocking)
+                .subscribeOn(readScheduler);
+    }
+
+    private ScanResult scanBlocking() {
+        List<FileCandidate> changed = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<String> walkedRoots = new ArrayList<>();
+        int unchanged = 0;
+
+        for (String basePath : properties.getBasePaths()) {
+            Path root = Paths.get(basePath).toAbsolutePath().normalize();
+            if (!Files.isDirectory(root)) {
+                // An unmounted share must not look like every file was deleted
+                log.warn("Filesystem base path {} is not a readable directory, skipping", root);
+                continue;
+            }
+            walkedRoots.add(root.toString());
+            List<FileStat> stats = walkPool.invoke(new DirectoryWalk(root));
+            for (FileStat stat : stats) {
+                String id = FileSystemService.documentId(stat.path());
+                seen.add(id);
+                FileManifest.Entry entry = manifest.get(id);
+                if (entry != null && entry.sameStat(stat.size(), stat.modifiedMillis())) {
+                    unchanged++;
+                } else {
+                    changed.add(new FileCandidate(stat.path(), stat.size(), stat.modifiedMillis(), entry));
+                }
+            }
+        }
+
+        List<String> deleted = new ArrayList<>();
+        for (String path : manifest.paths()) {
+            if (!seen.contains(path) && isUnderAny(path, walkedRoots)) {
+                deleted.add(path);
+            }
+        }
+        return new ScanResult(changed, deleted, unchanged);
+    }
+
+    private static boolean isUnderAny(String path, List<String> roots) {
+        for (String root : roots) {
+            if (path.startsWith(root.endsWith(File.separator) ? root : root + File.separator)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads and hashes a changed file on the bounded I/O scheduler, once the file's bytes and extracted
+     * text fit in the {@link MemoryBudget}.
+     * If the content hash matches the manifest (e.g. only mtime changed), the manifest entry is
+     * refreshed and the file is skipped.
+     *
+     * @param candidate file reported as changed by {@link #scan()}
+     * @return snapshot with the extracted document, or empty if the content is unchanged or unreadable
+     */
+    public Mono<FileSnapshot> read(FileCandidate candidate) {
+        return memoryBudget.using(candidate.size() * 3, () -> metrics.timeFetch("filesystem", JfrEvents.recorded(
+                        () -> new DocumentFetchEvent("filesystem", candidate.path().toString(), candidate.size()),
+                        Mono.fromCallable(() -> readBlocking(candidate)).subscribeOn(readScheduler),
+                        null)))
+                .onErrorResume(e -> {
+                    log.warn("Error reading file {}: {}", candidate.path(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private FileSnapshot readBlocking(FileCandidate candidate) throws IOException {
+        Path path = candidate.path();
+        String id = FileSystemService.documentId(path);
+        long mmapThreshold = properties.getMmapThresholdKb() * 1024L;
+
+        byte[] bytes;
+        String hash;
+        if (mmapThreshold > 0 && candidate.size() >= mmapThreshold) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                hash = sha256(mapped.duplicate());
+                if (candidate.previous() != null && hash.equals(candidate.previous().hash())) {
+                    manifest.record(id, new FileManifest.Entry(candidate.size(), candidate.modifiedMillis(), hash));
+                    return null;
+                }
+                bytes = new byte[mapped.remaining()];
+                mapped.get(bytes);
+            }
+        } else {
+            bytes = Files.readAllBytes(path);
+            hash = sha256(ByteBuffer.wrap(bytes));
+            if (candidate.previous() != null && hash.equals(candidate.previous().hash())) {
+                manifest.record(id, new FileManifest.Entry(candidate.size(), candidate.modifiedMillis(), hash));
+                return null;
+            }
+        }
+
+        SourceDocument doc = fileSystemService.toSourceDocument(
+                path, bytes, Instant.ofEpochMilli(candidate.modifiedMillis()));
+        return new FileSnapshot(doc, new FileManifest.Entry(candidate.size(), candidate.modifiedMillis(), hash),
+                candidate.previous() != null);
+    }
+
+    /**
+     * Stats a single file, for callers that already know which path changed (e.g. watch events).
+     *
+     * @return candidate to pass to {@link #read(FileCandidate)}, or empty if the file is missing or filtered out
+     */
+    public Mono<FileCandidate> stat(Path path) {
+        return Mono.fromCallable(() -> {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (!attrs.isRegularFile() || !fileSystemService.shouldProcessFile(path)
+                            || !fileSystemService.isWithinSizeLimit(attrs.size())) {
+                        return null;
+                    }
+                    String id = FileSystemService.documentId(path);
+                    return new FileCandidate(path, attrs.size(), attrs.lastModifiedTime().toMillis(), manifest.get(id));
+                })
+                .subscribeOn(readScheduler)
+                .onErrorResume(IOException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Manifest paths equal to or under the given path; used when a file or whole directory disappears.
+     */
+    public List<String> ingestedPathsUnder(Path path) {
+        String id = FileSystemService.documentId(path);
+        List<String> result = new ArrayList<>();
+        for (String known : manifest.paths()) {
+            if (known.equals(id) || isUnderAny(known, List.of(id))) {
+                result.add(known);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records a file as ingested. Call only after its points are upserted.
+     */
+    public void markIngested(FileSnapshot snapshot) {
+        manifest.record(snapshot.document().getId(), snapshot.entry());
+    }
+
+    /**
+     * Forgets a file, e.g. after its points were deleted.
+     */
+    public void markDeleted(String documentId) {
+        manifest.remove(documentId);
+    }
+
+    /**
+     * Persists the manifest if it changed.
+     */
+    public void saveManifest() {
+        manifest.save();
+    }
+
+    private static String sha256(ByteBuffer buffer) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Fork/join task listing one directory; subdirectories are forked as new tasks.
+     */
+    private class DirectoryWalk extends RecursiveTask<List<FileStat>> {
+
+        private final Path dir;
+
+        DirectoryWalk(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected List<FileStat> compute() {
+            List<FileStat> files = new ArrayList<>();
+            List<DirectoryWalk> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (attrs.isDirectory()) {
+                        if (properties.isRecursive()) {
+                            DirectoryWalk task = new DirectoryWalk(entry);
+                            task.fork();
+                            subtasks.add(task);
+                        }
+                    } else if (attrs.isRegularFile()
+                            && fileSystemService.shouldProcessFile(entry)
+                            && fileSystemService.isWithinSizeLimit(attrs.size())) {
+                        files.add(new FileStat(entry, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Error listing directory {}: {}", dir, e.getMessage());
+            }
+            for (DirectoryWalk task : subtasks) {
+                files.addAll(task.join());
+            }
+            return files;
+        }
+    }
+
+    private record FileStat(Path path, long size, long modifiedMillis) {}
+
+    /**
+     * A file whose size or mtime differs from the manifest (or that is new).
+     *
+     * @param previous manifest entry from the last successful ingest, null if the file is new
+     */
+    public record FileCandidate(Path path, long size, long modifiedMillis, FileManifest.Entry previous) {}
+
+    /**
+     * A changed file that has been read and extracted, together with the manifest entry to record
+     * once its points are upserted.
+     */
+    public record FileSnapshot(SourceDocument document, FileManifest.Entry entry, boolean previouslyIngested) {}
+
+    /**
+     * Result of diffing the filesystem against the manifest.
+     */
+    public record ScanResult(List<FileCandidate> changed, List<String> deleted, int unchanged) {}
+}
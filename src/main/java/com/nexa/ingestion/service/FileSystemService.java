@@ -2,102 +2,109 @@ package com.nexa.ingestion.service;
 
 import com.nexa.ingestion.config.FileSystemProperties;
 import com.nexa.ingestion.dto.SourceDocument;
+import com.nexa.ingestion.service.extract.TextExtractorRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
 
 /**
- * Reads files from the local filesystem.
+ * Builds SourceDocuments from local files: extension/size filtering, text extraction
+ * and metadata inferred from the directory layout. Walking is done by {@link FileSystemCrawler}.
  */
 @Service
 public class FileSystemService {
 
+    private static final Logger log = LoggerFactory.getLogger(FileSystemService.class);
+
     private final FileSystemProperties properties;
+    private final TextExtractorRegistry extractorRegistry;
+    private final DeadLetterStore deadLetters;
+    private final PipelineMetrics metrics;
 
-    public FileSystemService(FileSystemProperties properties) {
+    public FileSystemService(FileSystemProperties properties, TextExtractorRegistry extractorRegistry,
+                             DeadLetterStore deadLetters, PipelineMetrics metrics) {
         this.properties = properties;
+        this.extractorRegistry = extractorRegistry;
+        this.deadLetters = deadLetters;
+        this.metrics = metrics;
     }
 
     /**
-     * Scans configured base paths and returns all matching files as SourceDocument.
+     * Returns true if the file has one of the configured extensions.
      */
-    public Stream<SourceDocument> scanFiles() {
-        return properties.getBasePaths().stream()
-                .flatMap(this::scanDirectory)
-                .filter(doc -> doc != null && doc.getContent() != null && !doc.getContent().isBlank());
-    }
-
-    private Stream<SourceDocument> scanDirectory(String basePath) {
-        try {
-            Path path = Paths.get(basePath);
-            if (!Files.exists(path) || !Files.isDirectory(path)) {
-                return Stream.empty();
-            }
-            
-            Stream<Path> fileStream = properties.isRecursive() 
-                    ? Files.walk(path)
-                    : Files.list(path);
-            
-            return fileStream
-                    .filter(Files::isRegularFile)
-                    .filter(this::shouldProcessFile)
-                    .map(this::readFile)
-                    .filter(doc -> doc != null);
-        } catch (IOException e) {
-            return Stream.empty();
-        }
-    }
-
-    private boolean shouldProcessFile(Path path) {
+    public boolean shouldProcessFile(Path path) {
         String fileName = path.getFileName().toString().toLowerCase();
         return properties.getFileExtensions().stream()
                 .anyMatch(ext -> fileName.endsWith(ext.toLowerCase()));
     }
 
-    private SourceDocument readFile(Path path) {
+    /**
+     * Returns true if a file of this size is within the configured limit.
+     */
+    public boolean isWithinSizeLimit(long sizeBytes) {
+        return sizeBytes <= properties.getMaxFileSizeKb() * 1024L;
+    }
+
+    /**
+     * Extracts text from file bytes and builds a SourceDocument with metadata inferred from the path.
+     *
+     * @param path file path
+     * @param bytes file bytes
+     * @param lastModified file last-modified time
+     * @return document; content may be blank if extraction yielded nothing or failed (failures are dead-lettered)
+     */
+    public SourceDocument toSourceDocument(Path path, byte[] bytes, Instant lastModified) {
+        String fileName = path.getFileName().toString();
+        String parentDir = path.getParent() != null && path.getParent().getFileName() != null
+                ? path.getParent().getFileName().toString() : "";
+
+        // Infer source type from directory
+        String sourceType = inferSourceType(parentDir);
+        String department = inferDepartment(parentDir);
+
+        String content;
         try {
-            long sizeBytes = Files.size(path);
-            if (sizeBytes > properties.getMaxFileSizeKb() * 1024L) {
-                return null;
-            }
-            
-            String content = Files.readString(path);
-            String fileName = path.getFileName().toString();
-            String parentDir = path.getParent() != null ? path.getParent().getFileName().toString() : "";
-            
-            // Infer source type from directory
-            String sourceType = inferSourceType(parentDir);
-            String department = inferDepartment(parentDir);
-            
-            SourceDocument doc = new SourceDocument();
-            doc.setId(path.toAbsolutePath().toString());
-            doc.setTitle(fileName);
-            doc.setContent(content);
-            doc.setSourceType(sourceType);
-            doc.setUrl("file://" + path.toAbsolutePath());
-            doc.setDepartment(department);
-            doc.setSecurityLevel("internal");
-            doc.setLanguage("en");
-            doc.setCreatedAt(Instant.ofEpochMilli(Files.getLastModifiedTime(path).toMillis()));
-            doc.setUpdatedAt(Instant.ofEpochMilli(Files.getLastModifiedTime(path).toMillis()));
-            
-            Map<String, Object> customFields = new HashMap<>();
-            customFields.put("filePath", path.toAbsolutePath().toString());
-            customFields.put("fileSize", sizeBytes);
-            doc.setCustomFields(customFields);
-            
-            return doc;
+            content = extractorRegistry.extractOrThrow(fileName, bytes);
+            deadLetters.resolve(sourceType, documentId(path));
         } catch (IOException e) {
-            return null;
+            log.warn(e.getMessage());
+            metrics.failure(DeadLetterStore.Stage.EXTRACT, sourceType);
+            deadLetters.record(sourceType, documentId(path), DeadLetterStore.Stage.EXTRACT, e,
+                    Map.of("path", documentId(path)));
+            content = "";
         }
+
+        SourceDocument doc = new SourceDocument();
+        doc.setId(documentId(path));
+        doc.setTitle(fileName);
+        doc.setContent(content);
+        doc.setSourceType(sourceType);
+        doc.setUrl("file://" + path.toAbsolutePath());
+        doc.setDepartment(department);
+        doc.setSecurityLevel("internal");
+        doc.setLanguage("en");
+        doc.setCreatedAt(lastModified);
+        doc.setUpdatedAt(lastModified);
+
+        Map<String, Object> customFields = new HashMap<>();
+        customFields.put("filePath", path.toAbsolutePath().toString());
+        customFields.put("fileSize", (long) bytes.length);
+        doc.setCustomFields(customFields);
+
+        return doc;
+    }
+
+    /**
+     * Document id for a file: its absolute path. Also the manifest key.
+     */
+    public static String documentId(Path path) {
+        return path.toAbsolutePath().normalize().toString();
     }
 
     private String inferSourceType(String parentDir) {
@@ -0,0 +1,233 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.FileSystemProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Watches the configured filesystem base paths and ingests changed files within seconds, without a full rescan.
+ * Events are coalesced per path and debounced: a path is flushed once it has been quiet for
+ * {@code filesystem.watch.debounce-ms}, or after {@code max-delay-ms} if it keeps changing.
+ * On watch-queue overflow a full {@link UnifiedIngestionService#ingestFileSystem()} run is scheduled instead.
+ */
+@Service
+public class FileSystemWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemWatcher.class);
+
+    private final FileSystemProperties properties;
+    private final UnifiedIngestionService ingestionService;
+
+    /** Pending path → first/last event time (nanos). Repeated events on the same path only move lastEvent. */
+    private final Map<Path, PendingChange> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean rescanRequested = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService flushExecutor;
+
+    public FileSystemWatcher(FileSystemProperties properties, UnifiedIngestionService ingestionService) {
+        this.properties = properties;
+        this.ingestionService = ingestionService;
+    }
+
+    /**
+     * Registers all base paths and starts the watch and flush threads. No-op if already running.
+     */
+    public synchronized void start() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (String basePath : properties.getBasePaths()) {
+            Path root = Paths.get(basePath).toAbsolutePath().normalize();
+            if (Files.isDirectory(root)) {
+                register(root);
+            } else {
+                log.warn("Cannot watch {}: not a directory", root);
+            }
+        }
+
+        // Catch up on anything changed while we were not watching; the manifest keeps this cheap
+        rescanRequested.set(true);
+
+        watchThread = new Thread(this::watchLoop, "fs-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+
+        // Single thread: flushes never overlap, and blocking on ingestion here keeps it off the event loops
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fs-watch-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        long tick = Math.max(100, properties.getWatch().getDebounceMs() / 2);
+        flushExecutor.scheduleWithFixedDelay(this::flush, tick, tick, TimeUnit.MILLISECONDS);
+        log.info("Watching {} for changes (debounce {} ms)", properties.getBasePaths(), properties.getWatch().getDebounceMs());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void register(Path root) throws IOException {
+        if (!properties.isRecursive()) {
+            registerDirectory(root);
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                registerDirectory(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void registerDirectory(Path dir) throws IOException {
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    private void watchLoop() {
+        while (running.get()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    log.warn("Filesystem watch queue overflowed, scheduling full rescan");
+                    rescanRequested.set(true);
+                    continue;
+                }
+                Path child = dir.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                        && properties.isRecursive() && Files.isDirectory(child)) {
+                    onDirectoryCreated(child);
+                    continue;
+                }
+                markPending(child);
+            }
+            key.reset();
+        }
+    }
+
+    /**
+     * Registers a new directory tree and queues the files already inside it,
+     * since they may have been created before the registration took effect.
+     */
+    private void onDirectoryCreated(Path dir) {
+        try {
+            register(dir);
+            try (var files = Files.walk(dir)) {
+                files.filter(Files::isRegularFile).forEach(this::markPending);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to watch new directory {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void markPending(Path path) {
+        long now = System.nanoTime();
+        pending.compute(path, (p, existing) -> existing == null
+                ? new PendingChange(now, now)
+                : new PendingChange(existing.firstEventNanos(), now));
+    }
+
+    private void flush() {
+        try {
+            if (rescanRequested.getAndSet(false)) {
+                pending.clear();
+                var result = ingestionService.ingestFileSystem().block();
+                log.info("Watch rescan complete: {} documents, {} chunks",
+                        result != null ? result.documentsProcessed : 0, result != null ? result.chunksProcessed : 0);
+                return;
+            }
+
+            long now = System.nanoTime();
+            long debounce = TimeUnit.MILLISECONDS.toNanos(properties.getWatch().getDebounceMs());
+            long maxDelay = TimeUnit.MILLISECONDS.toNanos(properties.getWatch().getMaxDelayMs());
+            List<Path> ready = new ArrayList<>();
+            Iterator<Map.Entry<Path, PendingChange>> it = pending.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Path, PendingChange> entry = it.next();
+                PendingChange change = entry.getValue();
+                if (now - change.lastEventNanos() >= debounce || now - change.firstEventNanos() >= maxDelay) {
+                    // remove(key, value) so an event that arrived since we read the entry keeps it pending
+                    if (pending.remove(entry.getKey(), change)) {
+                        ready.add(entry.getKey());
+                    }
+                }
+            }
+            if (ready.isEmpty()) {
+                return;
+            }
+            var result = ingestionService.ingestFilePaths(ready).block();
+            log.info("Watch flush: {} paths, {} documents, {} chunks", ready.size(),
+                    result != null ? result.documentsProcessed : 0, result != null ? result.chunksProcessed : 0);
+        } catch (Exception e) {
+            log.error("Filesystem watch flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private record PendingChange(long firstEventNanos, long lastEventNanos) {}
+}
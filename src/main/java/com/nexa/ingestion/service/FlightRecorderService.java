@@ -0,0 +1,88 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.DiagnosticsProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Java Flight Recorder support: an optional in-process continuous recording and on-demand dumps of
+ * whatever is being recorded, including the pipeline's {@code com.nexa.ingestion.*} stage events.
+ */
+@Component
+public class FlightRecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderService.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final DiagnosticsProperties.Jfr properties;
+    private Recording continuous;
+
+    public FlightRecorderService(DiagnosticsProperties diagnosticsProperties) {
+        this.properties = diagnosticsProperties.getJfr();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isContinuous() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            continuous = new Recording(Configuration.getConfiguration("default"));
+            continuous.setName("nexa-continuous");
+            continuous.setToDisk(true);
+            continuous.setMaxAge(Duration.ofMinutes(properties.getMaxAgeMinutes()));
+            continuous.setMaxSize(properties.getMaxSizeMb() * 1024L * 1024L);
+            continuous.start();
+            log.info("Started continuous JFR recording (max age {} min, max size {} MB)",
+                    properties.getMaxAgeMinutes(), properties.getMaxSizeMb());
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            log.warn("Could not start continuous JFR recording: {}", e.getMessage());
+            continuous = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    /**
+     * Writes a snapshot of all running recordings to a new file.
+     *
+     * @return the .jfr file
+     * @throws IllegalStateException if no recording is running
+     */
+    public Path dump() throws IOException {
+        if (!FlightRecorder.isAvailable() || FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .noneMatch(r -> r.getState() == RecordingState.RUNNING)) {
+            throw new IllegalStateException("No JFR recording is running; set diagnostics.jfr.continuous=true "
+                    + "or start the JVM with -XX:StartFlightRecording");
+        }
+        Path directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve("nexa-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            snapshot.dump(file);
+        }
+        log.info("Dumped JFR recording to {}", file);
+        return file;
+    }
+}
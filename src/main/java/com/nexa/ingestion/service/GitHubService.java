@@ -1,7 +1,10 @@
 package com.nexa.ingestion.service;
 
 import com.nexa.ingestion.config.GitHubProperties;
+import com.nexa.ingestion.config.IngestionProperties;
 import com.nexa.ingestion.dto.SourceDocument;
+import com.nexa.ingestion.jfr.DocumentFetchEvent;
+import com.nexa.ingestion.jfr.JfrEvents;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -16,6 +19,7 @@ import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Fetches files from GitHub repositories using the GitHub REST API.
@@ -25,9 +29,18 @@ public class GitHubService {
 
     private final WebClient webClient;
     private final GitHubProperties properties;
+    private final DeadLetterStore deadLetters;
+    private final MemoryBudget memoryBudget;
+    private final PipelineMetrics metrics;
+    private final int fetchConcurrency;
 
-    public GitHubService(WebClient.Builder webClientBuilder, GitHubProperties properties) {
+    public GitHubService(WebClient.Builder webClientBuilder, GitHubProperties properties, DeadLetterStore deadLetters,
+                         MemoryBudget memoryBudget, PipelineMetrics metrics, IngestionProperties ingestionProperties) {
         this.properties = properties;
+        this.deadLetters = deadLetters;
+        this.memoryBudget = memoryBudget;
+        this.metrics = metrics;
+        this.fetchConcurrency = ingestionProperties.getMemory().getFetchConcurrency();
         WebClient.Builder builder = webClientBuilder.baseUrl(properties.getApiUrl());
         if (properties.getApiToken() != null && !properties.getApiToken().isEmpty()) {
             builder.defaultHeader(HttpHeaders.AUTHORIZATION, "token " + properties.getApiToken());
@@ -49,12 +62,30 @@ public class GitHubService {
                 .flatMap(this::getFilesFromRepository);
     }
 
+    /**
+     * Configured repositories in "owner/repo" format.
+     */
+    public List<String> getRepositories() {
+        return properties.getRepositories();
+    }
+
     /**
      * Fetches files from a specific repository.
      *
      * @param repo Repository in format "owner/repo"
      */
     public Flux<SourceDocument> getFilesFromRepository(String repo) {
+        return getFilesFromRepository(repo, sha -> false);
+    }
+
+    /**
+     * Fetches files from a specific repository, skipping blobs whose content need not be downloaded
+     * (e.g. already ingested by an interrupted run).
+     *
+     * @param repo Repository in format "owner/repo"
+     * @param skipSha returns true for blob SHAs to skip
+     */
+    public Flux<SourceDocument> getFilesFromRepository(String repo, Predicate<String> skipSha) {
         String[] parts = repo.split("/");
         if (parts.length != 2) {
             return Flux.error(new IllegalArgumentException("Invalid repository format. Use 'owner/repo'"));
@@ -65,10 +96,29 @@ public class GitHubService {
         return getRepositoryTree(owner, repoName, "HEAD")
                 .flatMapMany(tree -> Flux.fromIterable(tree)
                         .filter(this::shouldProcessFile)
-                        .flatMap(file -> getFileContent(owner, repoName, file))
+                        .filter(file -> !skipSha.test((String) file.get("sha")))
+                        .flatMap(file -> getFileContent(owner, repoName, file), fetchConcurrency)
                         .filter(doc -> doc != null && !doc.getContent().isBlank()));
     }
 
+    /**
+     * Fetches a single file, e.g. to retry one whose download failed earlier.
+     *
+     * @param repo Repository in format "owner/repo"
+     * @param path file path within the repository
+     * @param sha blob SHA (the document id)
+     */
+    public Mono<SourceDocument> getFile(String repo, String path, String sha) {
+        String[] parts = repo.split("/");
+        if (parts.length != 2) {
+            return Mono.error(new IllegalArgumentException("Invalid repository format. Use 'owner/repo'"));
+        }
+        Map<String, Object> file = new HashMap<>();
+        file.put("path", path);
+        file.put("sha", sha);
+        return getFileContent(parts[0], parts[1], file);
+    }
+
     private Mono<List<Map<String, Object>>> getRepositoryTree(String owner, String repo, String ref) {
         String uri = String.format("/repos/%s/%s/git/trees/%s?recursive=1", owner, repo, ref);
         return webClient.get()
@@ -104,10 +154,14 @@ public class GitHubService {
         }
         
         String uri = String.format("/repos/%s/%s/contents/%s", owner, repo, path);
-        return webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(Map.class)
+        // Base64 response body, decoded bytes and text are resident together while downloading
+        return memoryBudget.using(size * 4L, () -> metrics.timeFetch("github", JfrEvents.recorded(
+                        () -> new DocumentFetchEvent("github", owner + "/" + repo + "/" + path, size),
+                        webClient.get()
+                                .uri(uri)
+                                .retrieve()
+                                .bodyToMono(Map.class),
+                        null))
                 .map(content -> {
                     String contentBase64 = (String) content.get("content");
                     String encoding = (String) content.getOrDefault("encoding", "base64");
@@ -142,9 +196,15 @@ public class GitHubService {
                     customFields.put("repository", repo);
                     customFields.put("path", path);
                     doc.setCustomFields(customFields);
-                    
+
+                    deadLetters.resolve("GitHub", sha);
                     return doc;
                 })
-                .onErrorResume(e -> Mono.empty());
+                .onErrorResume(e -> {
+                    metrics.failure(DeadLetterStore.Stage.FETCH, "GitHub");
+                    deadLetters.record("GitHub", sha, DeadLetterStore.Stage.FETCH, e,
+                            Map.of("repository", owner + "/" + repo, "path", path));
+                    return Mono.empty();
+                }));
     }
 }
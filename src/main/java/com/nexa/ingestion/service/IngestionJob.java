@@ -0,0 +1,100 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.dto.IngestionJobStatus;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * An ingestion run submitted through {@link IngestionJobService}.
+ * Holds the live {@link IngestionProgress} and the subscription so the run can be cancelled.
+ */
+public class IngestionJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final String type;
+    private final String target;
+    private final Instant submittedAt = Instant.now();
+    private final IngestionProgress progress = new IngestionProgress();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Disposable subscription;
+
+    IngestionJob(String id, String type, String target) {
+        this.id = id;
+        this.type = type;
+        this.target = target;
+    }
+
+    public String getId() { return id; }
+    public String getType() { return type; }
+    public String getTarget() { return target; }
+    public Status getStatus() { return status; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public IngestionProgress getProgress() { return progress; }
+
+    public boolean isTerminal() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    void attach(Disposable subscription) {
+        this.subscription = subscription;
+        if (status == Status.CANCELLED) {
+            // Cancelled between submit and attach
+            subscription.dispose();
+        }
+    }
+
+    synchronized void markRunning() {
+        if (status == Status.QUEUED) {
+            status = Status.RUNNING;
+            startedAt = Instant.now();
+        }
+    }
+
+    synchronized void markFinished(Status finalStatus, String error) {
+        if (isTerminal()) {
+            return;
+        }
+        this.finishedAt = Instant.now();
+        this.error = error;
+        this.status = finalStatus;
+    }
+
+    /**
+     * Disposes the running pipeline, which cancels in-flight fetch, embed and upsert requests.
+     *
+     * @return true if the job was still active
+     */
+    boolean cancel() {
+        if (isTerminal()) {
+            return false;
+        }
+        markFinished(Status.CANCELLED, null);
+        Disposable s = subscription;
+        if (s != null) {
+            s.dispose();
+        }
+        return true;
+    }
+
+    public IngestionJobStatus snapshot() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = start != null ? Math.max(0.001, Duration.between(start, end).toMillis() / 1000.0) : 0;
+        long embedded = progress.getEmbedded();
+        long upserted = progress.getUpserted();
+        return new IngestionJobStatus(
+                id, type, target, status.name(), submittedAt, start, finishedAt,
+                progress.getDocuments(), progress.getChunks(), embedded, upserted, progress.getErrors(),
+                seconds > 0 ? embedded / seconds : 0,
+                seconds > 0 ? upserted / seconds : 0,
+                error);
+    }
+}
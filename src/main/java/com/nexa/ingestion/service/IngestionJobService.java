@@ -0,0 +1,112 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.dto.IngestionJobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs ingestion in the background as jobs that can be polled, streamed and cancelled.
+ * The HTTP request only submits the job, so long crawls are not cut off by proxy timeouts.
+ */
+@Service
+public class IngestionJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionJobService.class);
+
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Submits an ingestion run. The run is subscribed immediately and progress is tracked
+     * through the job's {@link IngestionProgress} in the Reactor context.
+     *
+     * @param type job type (e.g. "confluence", "filesystem")
+     * @param target space/project key, or null when the job covers all configured sources
+     * @param run cold ingestion pipeline to execute
+     * @return the submitted job
+     */
+    public IngestionJob submit(String type, String target, Mono<UnifiedIngestionService.IngestionResult> run) {
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), type, target);
+        jobs.put(job.getId(), job);
+        evictFinishedJobs();
+
+        job.attach(run
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSubscribe(s -> job.markRunning())
+                .contextWrite(job.getProgress().asContext())
+                .subscribe(
+                        result -> {
+                            job.markFinished(IngestionJob.Status.COMPLETED, null);
+                            log.info("Ingestion job {} ({} {}) completed: {} documents, {} chunks",
+                                    job.getId(), type, target, result.documentsProcessed, result.chunksProcessed);
+                        },
+                        e -> {
+                            job.markFinished(IngestionJob.Status.FAILED, e.getMessage());
+                            log.error("Ingestion job {} ({} {}) failed: {}", job.getId(), type, target, e.getMessage());
+                        },
+                        () -> job.markFinished(IngestionJob.Status.COMPLETED, null)));
+        log.info("Submitted ingestion job {} ({} {})", job.getId(), type, target);
+        return job;
+    }
+
+    public Optional<IngestionJob> get(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<IngestionJobStatus> list() {
+        return jobs.values().stream()
+                .map(IngestionJob::snapshot)
+                .sorted(Comparator.comparing(IngestionJobStatus::submittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Cancels a job by disposing its pipeline.
+     *
+     * @return true if the job existed and was still active
+     */
+    public boolean cancel(String id) {
+        IngestionJob job = jobs.get(id);
+        if (job == null || !job.cancel()) {
+            return false;
+        }
+        log.info("Cancelled ingestion job {}", id);
+        return true;
+    }
+
+    /**
+     * Streams job snapshots at the given interval, ending with the terminal snapshot.
+     */
+    public Flux<IngestionJobStatus> progress(String id, Duration interval) {
+        IngestionJob job = jobs.get(id);
+        if (job == null) {
+            return Flux.empty();
+        }
+        return Flux.interval(Duration.ZERO, interval)
+                .map(tick -> job.snapshot())
+                .takeUntil(IngestionJobStatus::isTerminal);
+    }
+
+    private void evictFinishedJobs() {
+        List<IngestionJob> finished = jobs.values().stream()
+                .filter(IngestionJob::isTerminal)
+                .sorted(Comparator.comparing(IngestionJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.nexa.ingestion.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters for an ingestion run, updated incrementally by the pipeline as it goes.
+ * Carried in the Reactor {@link Context} so pipeline methods need no extra parameters;
+ * runs without a progress in context record into a disabled instance that ignores updates.
+ */
+public class IngestionProgress {
+
+    private static final IngestionProgress DISABLED = new IngestionProgress(false);
+
+    private final boolean enabled;
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder embedded = new LongAdder();
+    private final LongAdder upserted = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public IngestionProgress() {
+        this(true);
+    }
+
+    private IngestionProgress(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Progress of the current run, or a disabled instance if the run is not tracked.
+     */
+    public static IngestionProgress from(ContextView context) {
+        return context.getOrDefault(IngestionProgress.class, DISABLED);
+    }
+
+    /**
+     * Context carrying this progress; apply with {@code contextWrite}.
+     */
+    public Context asContext() {
+        return Context.of(IngestionProgress.class, this);
+    }
+
+    public void documentProcessed() {
+        if (enabled) documents.increment();
+    }
+
+    public void chunksCreated(int count) {
+        if (enabled) chunks.add(count);
+    }
+
+    public void chunksEmbedded(int count) {
+        if (enabled) embedded.add(count);
+    }
+
+    public void pointsUpserted(int count) {
+        if (enabled) upserted.add(count);
+    }
+
+    public void error() {
+        if (enabled) errors.increment();
+    }
+
+    public long getDocuments() { return documents.sum(); }
+    public long getChunks() { return chunks.sum(); }
+    public long getEmbedded() { return embedded.sum(); }
+    public long getUpserted() { return upserted.sum(); }
+    public long getErrors() { return errors.sum(); }
+}
@@ -0,0 +1,189 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.IngestionProperties;
+import com.nexa.ingestion.dto.qdrant.QdrantPoint;
+import com.nexa.ingestion.jfr.EmbedBatchEvent;
+import com.nexa.ingestion.jfr.JfrEvents;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Shared embed and upsert stages for all ingestion runs.
+ * Every run (Confluence space, Jira project, GitHub repository, filesystem, uploads) is a flow in a priority
+ * {@link Lane}. Requests are dispatched by {@link FairShareScheduler}: interactive work first, with aging so
+ * bulk crawls still progress, and within a lane by per-source weights, so the embedding endpoint is kept busy
+ * by whichever sources have work and a large crawl cannot starve a small one.
+ * Flow and lane are carried in the Reactor {@link Context}, like {@link IngestionProgress}.
+ */
+@Component
+public class IngestionScheduler {
+
+    private static final String FLOW_KEY = IngestionScheduler.class.getName() + ".flow";
+    private static final String LANE_KEY = IngestionScheduler.class.getName() + ".lane";
+
+    /**
+     * Priority class of ingestion work, highest first.
+     */
+    public enum Lane {
+        /** A user is waiting, e.g. a file upload. */
+        INTERACTIVE,
+        /** Keeping the index in sync: filesystem changes, retries. */
+        INCREMENTAL,
+        /** Full crawls and backfills. */
+        BULK
+    }
+
+    private final EmbeddingService embeddingService;
+    private final PointSpool pointSpool;
+    private final PipelineMetrics metrics;
+    private final IngestionProperties.Scheduling properties;
+    private final int charsPerToken;
+    private final FairShareScheduler embedScheduler;
+    private final FairShareScheduler upsertScheduler;
+    private final Map<Lane, LatencyHistogram> latencies = new EnumMap<>(Lane.class);
+
+    public IngestionScheduler(EmbeddingService embeddingService,
+                              PointSpool pointSpool,
+                              PipelineMetrics metrics,
+                              IngestionProperties ingestionProperties) {
+        this.embeddingService = embeddingService;
+        this.pointSpool = pointSpool;
+        this.metrics = metrics;
+        this.properties = ingestionProperties.getScheduling();
+        this.charsPerToken = Math.max(1, ingestionProperties.getCharsPerToken());
+        long agingNanos = TimeUnit.MILLISECONDS.toNanos(properties.getAgingMs());
+        int lanes = Lane.values().length;
+        this.embedScheduler = new FairShareScheduler("embed", properties.getEmbedConcurrency(), lanes, agingNanos);
+        this.upsertScheduler = new FairShareScheduler("upsert", properties.getUpsertConcurrency(), lanes, agingNanos);
+        for (Lane lane : Lane.values()) {
+            latencies.put(lane, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Context naming the flow of a pipeline; apply with {@code contextWrite}.
+     *
+     * @param flow run key, e.g. "confluence:TEAM"; the part before ':' selects the weight
+     */
+    public static Context flow(String flow) {
+        return Context.of(FLOW_KEY, flow);
+    }
+
+    /**
+     * Flow of the current pipeline, or the fallback if none was set.
+     */
+    public static String flowFrom(ContextView context, String fallback) {
+        return context.getOrDefault(FLOW_KEY, fallback);
+    }
+
+    /**
+     * Context update setting the lane unless a caller further downstream (e.g. the job API) already chose one;
+     * apply with {@code contextWrite}.
+     */
+    public static Function<Context, Context> defaultLane(Lane lane) {
+        return ctx -> ctx.hasKey(LANE_KEY) ? ctx : ctx.put(LANE_KEY, lane);
+    }
+
+    /**
+     * Context forcing the lane of a pipeline; apply with {@code contextWrite}.
+     */
+    public static Context lane(Lane lane) {
+        return Context.of(LANE_KEY, lane);
+    }
+
+    /**
+     * Lane of the current pipeline; bulk if none was set.
+     */
+    public static Lane laneFrom(ContextView context) {
+        return context.getOrDefault(LANE_KEY, Lane.BULK);
+    }
+
+    /**
+     * Embeds a batch of texts once it is the lane's and flow's turn. Cost is the number of characters.
+     *
+     * @return vectors in input order
+     */
+    public Mono<List<float[]>> embed(Lane lane, String flow, List<String> texts) {
+        long chars = 0;
+        for (String text : texts) {
+            chars += text.length();
+        }
+        long tokens = chars / charsPerToken;
+        long textChars = chars;
+        return embedScheduler.submit(lane.ordinal(), flow, weight(flow), chars,
+                () -> metrics.timeEmbed(texts.size(), tokens, JfrEvents.recorded(
+                        () -> new EmbedBatchEvent(flow, lane.name(), texts.size(), textChars),
+                        embeddingService.embedBatch(texts).collectList(),
+                        null)));
+    }
+
+    /**
+     * Upserts (or spools) a document's points once it is the lane's and flow's turn. Cost is the number of points.
+     */
+    public Mono<Void> upsert(Lane lane, String flow, String documentId, List<QdrantPoint> points) {
+        return upsertScheduler.submit(lane.ordinal(), flow, weight(flow), points.size(),
+                () -> pointSpool.upsert(documentId, points));
+    }
+
+    /**
+     * Records the time from a document entering the pipeline until its points were written.
+     */
+    public void recordSearchable(Lane lane, long submittedNanos) {
+        long nanos = System.nanoTime() - submittedNanos;
+        latencies.get(lane).record(TimeUnit.NANOSECONDS.toMillis(nanos));
+        metrics.searchable(lane, nanos);
+    }
+
+    /**
+     * Embed requests of a lane waiting for a slot.
+     */
+    public int embedQueued(Lane lane) {
+        return embedScheduler.queued(lane.ordinal());
+    }
+
+    /**
+     * Upserts of a lane waiting for a slot.
+     */
+    public int upsertQueued(Lane lane) {
+        return upsertScheduler.queued(lane.ordinal());
+    }
+
+    /**
+     * Per-lane queue depths and submit-to-searchable latency.
+     */
+    public List<LaneStats> laneStats() {
+        List<LaneStats> stats = new ArrayList<>();
+        for (Lane lane : Lane.values()) {
+            LatencyHistogram latency = latencies.get(lane);
+            stats.add(new LaneStats(lane, embedScheduler.queued(lane.ordinal()), upsertScheduler.queued(lane.ordinal()),
+                    latency.count(), latency.meanMillis(), latency.percentileMillis(0.5),
+                    latency.percentileMillis(0.99)));
+        }
+        return stats;
+    }
+
+    private double weight(String flow) {
+        int colon = flow.indexOf(':');
+        String source = (colon >= 0 ? flow.substring(0, colon) : flow).toLowerCase(Locale.ROOT);
+        Double weight = properties.getWeights().get(source);
+        return weight != null && weight > 0 ? weight : 1.0;
+    }
+
+    /**
+     * Queue depths and submit-to-searchable latency of one lane.
+     *
+     * @param documents documents written since startup
+     */
+    public record LaneStats(Lane lane, int embedQueued, int upsertQueued, long documents,
+                            double meanLatencyMs, long p50LatencyMs, long p99LatencyMs) {}
+}
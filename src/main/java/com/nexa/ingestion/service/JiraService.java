@@ -2,6 +2,8 @@ package com.nexa.ingestion.service;
 
 import com.nexa.ingestion.config.JiraProperties;
 import com.nexa.ingestion.dto.SourceDocument;
+import com.nexa.ingestion.jfr.DocumentFetchEvent;
+import com.nexa.ingestion.jfr.JfrEvents;
 import com.nexa.ingestion.util.HtmlToPlainText;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
@@ -30,12 +32,15 @@ public class JiraService {
     private final WebClient webClient;
     private final JiraProperties properties;
     private final HtmlToPlainText htmlToPlainText;
+    private final PipelineMetrics metrics;
 
     public JiraService(WebClient.Builder webClientBuilder,
                        JiraProperties properties,
-                       HtmlToPlainText htmlToPlainText) {
+                       HtmlToPlainText htmlToPlainText,
+                       PipelineMetrics metrics) {
         this.properties = properties;
         this.htmlToPlainText = htmlToPlainText;
+        this.metrics = metrics;
         this.webClient = webClientBuilder
                 .baseUrl(properties.getBaseUrl() + "/rest/api/3")
                 .defaultHeader(HttpHeaders.AUTHORIZATION, basicAuthHeader())
@@ -48,6 +53,13 @@ public class JiraService {
         return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Configured project keys ingested by a full run.
+     */
+    public List<String> getProjects() {
+        return properties.getProjects();
+    }
+
     /**
      * Fetches all issues from a Jira project.
      *
@@ -55,8 +67,23 @@ public class JiraService {
      * @return flux of SourceDocument
      */
     public Flux<SourceDocument> getIssuesFromProject(String projectKey) {
+        return getIssuesFromProject(projectKey, 0);
+    }
+
+    /**
+     * Fetches issues from a Jira project starting at the given result offset.
+     * Issues are ordered by creation date so offsets stay valid as new issues are added (used to resume a run).
+     *
+     * @param projectKey Jira project key
+     * @param startOffset index of the first issue to fetch
+     * @return flux of SourceDocument
+     */
+    public Flux<SourceDocument> getIssuesFromProject(String projectKey, int startOffset) {
         int maxIssues = properties.getMaxIssuesPerProject();
-        return getIssueResults(projectKey, 0)
+        if (maxIssues > 0 && startOffset >= maxIssues) {
+            return Flux.empty();
+        }
+        return getIssueResults(projectKey, startOffset)
                 .expand(result -> {
                     int startAt = result.get("startAt") != null ? ((Number) result.get("startAt")).intValue() : 0;
                     int total = result.get("total") != null ? ((Number) result.get("total")).intValue() : 0;
@@ -76,22 +103,26 @@ public class JiraService {
                     return Flux.fromIterable(issues)
                             .map(this::toSourceDocument)
                             .take(maxIssues > 0 ? maxIssues : Long.MAX_VALUE);
-                });
+                })
+                .take(maxIssues > 0 ? maxIssues - startOffset : Long.MAX_VALUE);
     }
 
     private Mono<Map<String, Object>> getIssueResults(String projectKey, int startAt) {
         String uri = UriComponentsBuilder.fromPath("/search")
-                .queryParam("jql", "project=" + projectKey)
+                .queryParam("jql", "project=" + projectKey + " ORDER BY created ASC")
                 .queryParam("startAt", startAt)
                 .queryParam("maxResults", 50)
                 .queryParam("fields", "summary,description,status,assignee,creator,created,updated,labels")
                 .build()
                 .toUriString();
 
-        return webClient.get()
-                .uri(uri)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {});
+        return metrics.timeFetch("jira", JfrEvents.recorded(
+                () -> new DocumentFetchEvent("jira", projectKey + "@" + startAt, 0),
+                webClient.get()
+                        .uri(uri)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {}),
+                null));
     }
 
     private SourceDocument toSourceDocument(Map<String, Object> issue) {
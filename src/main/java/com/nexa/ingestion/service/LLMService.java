@@ -138,6 +138,28 @@ Start with a direct answer to the question, then provide supporting details if n
         return generateWithSystemPrompt(SYSTEM_PROMPT, userPrompt.toString());
     }
 
+    private static final String SUMMARY_PROMPT = """
+Summarize the document excerpts you are given in 2-3 sentences of plain text.
+Only use information from the excerpts.
+""";
+
+    /**
+     * Short summary of a document's chunks, e.g. for a query that named the document.
+     *
+     * @param title what the chunks were looked up by (issue key, path or title)
+     * @param chunks chunk texts in document order
+     * @param maxTokens token limit of the summary
+     * @return Mono of the summary
+     */
+    public Mono<String> summarize(String title, List<String> chunks, int maxTokens) {
+        StringBuilder userPrompt = new StringBuilder();
+        userPrompt.append("**Document:** ").append(title).append("\n\n");
+        for (String chunk : chunks) {
+            userPrompt.append(chunk).append("\n\n");
+        }
+        return generateWithSystemPrompt(SUMMARY_PROMPT, userPrompt.toString(), maxTokens);
+    }
+
     /**
      * Generates a response with both system and user prompts.
      * Uses OpenAI-compatible chat completions with system message.
@@ -147,13 +169,17 @@ Start with a direct answer to the question, then provide supporting details if n
      * @return Mono of generated text response
      */
     public Mono<String> generateWithSystemPrompt(String systemPrompt, String userPrompt) {
+        return generateWithSystemPrompt(systemPrompt, userPrompt, properties.getMaxTokens());
+    }
+
+    private Mono<String> generateWithSystemPrompt(String systemPrompt, String userPrompt, int maxTokens) {
         Map<String, Object> requestBody = Map.of(
                 "model", properties.getModel(),
                 "messages", List.of(
                         Map.of("role", "system", "content", systemPrompt),
                         Map.of("role", "user", "content", userPrompt)
                 ),
-                "max_tokens", properties.getMaxTokens(),
+                "max_tokens", maxTokens,
                 "temperature", properties.getTemperature(),
                 "stream", false
         );
@@ -0,0 +1,62 @@
+package com.nexa.ingestion.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets (about 10% wide) from 1 ms to about 8 hours,
+ * good enough for percentile reporting without keeping individual samples.
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.1;
+    private static final int BUCKETS = 180;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMillis = new LongAdder();
+
+    public void record(long millis) {
+        long value = Math.max(1, millis);
+        int bucket = (int) Math.min(BUCKETS - 1, Math.floor(Math.log(value) / LOG_GROWTH));
+        counts.incrementAndGet(bucket);
+        count.increment();
+        totalMillis.add(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double meanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) totalMillis.sum() / n;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile, in milliseconds; 0 if empty.
+     *
+     * @param quantile between 0 and 1, e.g. 0.99
+     */
+    public long percentileMillis(double quantile) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return (long) Math.ceil(Math.pow(GROWTH, i + 1));
+            }
+        }
+        return (long) Math.ceil(Math.pow(GROWTH, BUCKETS));
+    }
+}
@@ -0,0 +1,243 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.IngestionProperties;
+import com.nexa.ingestion.config.QdrantProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Global budget of ingestion bytes resident in memory at once (document text, chunks, vectors and payloads),
+ * so a large crawl slows down instead of running the JVM out of heap.
+ *
+ * <p>Work takes a {@link Permit} for its estimated size before it starts: fetches for the duration of the
+ * download, documents from the start of processing until their points are written. Permits are granted in
+ * arrival order while the budget has room; when it is exhausted callers wait without blocking a thread, and
+ * because the pipelines are bounded {@code flatMap}s the waiting propagates upstream as back-pressure, so
+ * sources stop fetching. A request larger than the whole budget is admitted once nothing else holds bytes.
+ *
+ * <p>A document's permit grows as it is chunked and embedded. Growth is served before new admissions, and
+ * the oldest holder is always allowed to grow (overdrawing by at most one document), so documents that already
+ * hold bytes can never deadlock waiting for each other.
+ */
+@Component
+public class MemoryBudget {
+
+    private static final long FLOAT_BYTES = Float.BYTES;
+    private static final long VECTOR_OVERHEAD_BYTES = 64;
+
+    private final long capacity;
+    private final int vectorSize;
+
+    private final TreeMap<Long, Permit> holders = new TreeMap<>();
+    private final ArrayDeque<Waiter> growing = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> admitting = new ArrayDeque<>();
+    private long nextId;
+    private long used;
+    private long peak;
+    private final LongAdder waited = new LongAdder();
+
+    public MemoryBudget(IngestionProperties ingestionProperties, QdrantProperties qdrantProperties) {
+        this.capacity = ingestionProperties.getMemory().getBudgetMb() * 1024L * 1024L;
+        this.vectorSize = qdrantProperties.getVectorSize();
+    }
+
+    /**
+     * Bytes held by a string (UTF-16; compact Latin-1 strings use less, so this errs on the safe side).
+     */
+    public static long bytesOf(String text) {
+        return text == null ? 0 : 2L * text.length();
+    }
+
+    /**
+     * Bytes held by the given number of embedding vectors.
+     */
+    public long vectorBytes(int count) {
+        return count * (vectorSize * FLOAT_BYTES + VECTOR_OVERHEAD_BYTES);
+    }
+
+    /**
+     * Waits until the bytes fit in the budget and takes them. The caller must {@link Permit#release()} the
+     * permit; a permit granted to a subscriber that has since cancelled is released automatically.
+     */
+    public Mono<Permit> acquire(long bytes) {
+        return Mono.<Permit>create(sink -> {
+            Permit permit;
+            Waiter waiter = null;
+            synchronized (this) {
+                long size = capacity > 0 ? Math.min(Math.max(bytes, 0), capacity) : Math.max(bytes, 0);
+                permit = new Permit(nextId++);
+                if (growing.isEmpty() && admitting.isEmpty() && fits(size)) {
+                    take(permit, size);
+                } else {
+                    Permit granted = permit;
+                    waiter = new Waiter(permit, size, () -> sink.success(granted));
+                    admitting.add(waiter);
+                    waited.increment();
+                }
+            }
+            if (waiter == null) {
+                sink.success(permit);
+                return;
+            }
+            Waiter queued = waiter;
+            sink.onCancel(() -> cancel(queued));
+        }).doOnDiscard(Permit.class, Permit::release);
+    }
+
+    /**
+     * Runs work while holding the given number of bytes, e.g. a download whose size is known up front.
+     */
+    public <T> Mono<T> using(long bytes, Supplier<Mono<T>> work) {
+        return acquire(bytes).flatMap(permit -> work.get().doFinally(signal -> permit.release()));
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(capacity, used, peak, capacity > 0 ? (double) used / capacity : 0,
+                holders.size(), growing.size() + admitting.size(), waited.sum());
+    }
+
+    private boolean fits(long bytes) {
+        return capacity <= 0 || used + bytes <= capacity || used == 0;
+    }
+
+    private void take(Permit permit, long bytes) {
+        if (permit.bytes == 0) {
+            holders.put(permit.id, permit);
+        }
+        permit.bytes += bytes;
+        used += bytes;
+        peak = Math.max(peak, used);
+    }
+
+    private void cancel(Waiter waiter) {
+        List<Waiter> granted;
+        synchronized (this) {
+            if (!growing.remove(waiter) && !admitting.remove(waiter)) {
+                return;
+            }
+            granted = grantWaiting();
+        }
+        complete(granted);
+    }
+
+    /**
+     * Grants whatever now fits: any growth request that fits (or belongs to the oldest holder), then new
+     * admissions strictly in arrival order.
+     */
+    private List<Waiter> grantWaiting() {
+        List<Waiter> granted = new ArrayList<>();
+        Iterator<Waiter> it = growing.iterator();
+        while (it.hasNext()) {
+            Waiter waiter = it.next();
+            if (waiter.permit.released) {
+                it.remove();
+                granted.add(waiter);
+            } else if (fits(waiter.bytes) || isOldest(waiter.permit)) {
+                it.remove();
+                take(waiter.permit, waiter.bytes);
+                granted.add(waiter);
+            }
+        }
+        while (growing.isEmpty() && !admitting.isEmpty() && fits(admitting.peek().bytes)) {
+            Waiter waiter = admitting.poll();
+            take(waiter.permit, waiter.bytes);
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private boolean isOldest(Permit permit) {
+        return !holders.isEmpty() && holders.firstKey() == permit.id;
+    }
+
+    private static void complete(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            waiter.onGrant.run();
+        }
+    }
+
+    /**
+     * Bytes held by one fetch or document. Released exactly once; further calls are ignored.
+     */
+    public final class Permit {
+        private final long id;
+        private long bytes;
+        private boolean released;
+
+        private Permit(long id) {
+            this.id = id;
+        }
+
+        /**
+         * Waits until the additional bytes fit and adds them to this permit, e.g. once a document is chunked.
+         * The oldest holder grows at once, even past other waiting growers.
+         */
+        public Mono<Void> grow(long additional) {
+            return Mono.<Void>create(sink -> {
+                Waiter waiter = null;
+                synchronized (MemoryBudget.this) {
+                    long size = Math.max(additional, 0);
+                    if (!released && size > 0) {
+                        // The oldest holder never queues: nothing but its own release would wake it up
+                        if (isOldest(this) || (growing.isEmpty() && fits(size))) {
+                            take(this, size);
+                        } else {
+                            waiter = new Waiter(this, size, sink::success);
+                            growing.add(waiter);
+                            waited.increment();
+                        }
+                    }
+                }
+                if (waiter == null) {
+                    sink.success();
+                    return;
+                }
+                Waiter queued = waiter;
+                sink.onCancel(() -> cancel(queued));
+            });
+        }
+
+        public void release() {
+            List<Waiter> granted;
+            synchronized (MemoryBudget.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                used -= bytes;
+                holders.remove(id);
+                bytes = 0;
+                granted = grantWaiting();
+            }
+            complete(granted);
+        }
+
+        public long bytes() {
+            synchronized (MemoryBudget.this) {
+                return bytes;
+            }
+        }
+    }
+
+    private record Waiter(Permit permit, long bytes, Runnable onGrant) {}
+
+    /**
+     * @param capacityBytes configured budget, 0 if unlimited
+     * @param usedBytes bytes currently held by fetches and documents
+     * @param peakBytes highest usage since startup
+     * @param utilization used / capacity, 0 if unlimited
+     * @param holders fetches and documents holding bytes
+     * @param waiting fetches and documents waiting for bytes
+     * @param waitedTotal requests that had to wait since startup
+     */
+    public record Stats(long capacityBytes, long usedBytes, long peakBytes, double utilization,
+                        int holders, int waiting, long waitedTotal) {}
+}
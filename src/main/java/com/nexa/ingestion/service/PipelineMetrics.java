@@ -0,0 +1,203 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.dto.SearchTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Micrometer instrumentation of the ingestion and search hot paths, scraped at {@code /actuator/prometheus}.
+ *
+ * <p>Ingestion: fetch latency per source, documents and chunks per source (rates come from the counters),
+ * embed and upsert batch sizes and latencies, tokens embedded, failures by stage, and submit-to-searchable
+ * latency per lane. Search: end-to-end latency and its embed / Qdrant / LLM stages. Timers publish
+ * percentile histograms as configured under {@code management.metrics.distribution}.
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times fetching from a source (an API page, a file download or a file read) from subscription
+     * until it completes, fails or is cancelled.
+     */
+    public <T> Mono<T> timeFetch(String source, Mono<T> fetch) {
+        return time(fetch, (outcome, nanos) -> Timer.builder("ingestion.fetch")
+                .description("Time to fetch from a source")
+                .tag("source", tag(source))
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    public void documentIngested(String source) {
+        Counter.builder("ingestion.documents")
+                .description("Documents whose points were written")
+                .tag("source", tag(source))
+                .register(registry)
+                .increment();
+    }
+
+    public void chunksCreated(String source, int chunks) {
+        Counter.builder("ingestion.chunks")
+                .description("Chunks created from documents")
+                .tag("source", tag(source))
+                .register(registry)
+                .increment(chunks);
+    }
+
+    /**
+     * Times one embedding request and records its batch size and estimated token count.
+     */
+    public <T> Mono<T> timeEmbed(int texts, long tokens, Mono<T> embed) {
+        DistributionSummary.builder("ingestion.embed.batch.size")
+                .description("Texts per embedding request")
+                .baseUnit("texts")
+                .register(registry)
+                .record(texts);
+        Counter.builder("ingestion.embed.tokens")
+                .description("Estimated tokens sent for embedding")
+                .register(registry)
+                .increment(tokens);
+        return time(embed, (outcome, nanos) -> Timer.builder("ingestion.embed")
+                .description("Embedding request latency")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Times one Qdrant upsert and records its batch size.
+     */
+    public <T> Mono<T> timeUpsert(int points, Mono<T> upsert) {
+        DistributionSummary.builder("ingestion.upsert.batch.size")
+                .description("Points per Qdrant upsert")
+                .baseUnit("points")
+                .register(registry)
+                .record(points);
+        return time(upsert, (outcome, nanos) -> Timer.builder("ingestion.upsert")
+                .description("Qdrant upsert latency")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    public void failure(DeadLetterStore.Stage stage, String source) {
+        Counter.builder("ingestion.failures")
+                .description("Documents that failed, by pipeline stage")
+                .tag("stage", tag(stage.name()))
+                .tag("source", tag(source))
+                .register(registry)
+                .increment();
+    }
+
+    public void searchable(IngestionScheduler.Lane lane, long nanos) {
+        Timer.builder("ingestion.searchable")
+                .description("Time from a document entering the pipeline until its points are written")
+                .tag("lane", tag(lane.name()))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Times a search stage ("embed", "qdrant" or "llm") and records it in the request's timings.
+     */
+    public <T> Mono<T> timeSearchStage(String stage, SearchTimings timings, Mono<T> work) {
+        return time(work, (outcome, nanos) -> {
+            timings.record(stage, nanos);
+            Timer.builder("search.stage")
+                    .description("Latency of a search stage")
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /**
+     * Records an end-to-end search once its answer is ready (or it failed) and sets the request's total time.
+     *
+     * @param endpoint "json" or "stream"
+     * @param startNanos {@link System#nanoTime()} when the request arrived
+     */
+    public void searchCompleted(String endpoint, boolean success, SearchTimings timings, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        timings.setTotalMs(nanos / 1_000_000.0);
+        Timer.builder("search.request")
+                .description("End-to-end search latency")
+                .tag("endpoint", endpoint)
+                .tag("outcome", success ? "success" : "error")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts an identifier lookup for a query classified as {@code kind}; a miss falls back to the full search.
+     */
+    public void identifierLookup(String kind, boolean hit) {
+        Counter.builder("search.identifier_lookup")
+                .description("Exact identifier lookups")
+                .tag("kind", kind)
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a search that joined an identical in-flight search instead of running its own pipeline.
+     *
+     * @param endpoint "json" or "stream"
+     */
+    public void searchCoalesced(String endpoint) {
+        Counter.builder("search.coalesced")
+                .description("Searches served by an identical in-flight search")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records the size of the context assembled for an LLM call and how many retrieved chunks did not fit the
+     * token budget.
+     */
+    public void contextAssembled(int retrievedChunks, ContextAssembler.Context context) {
+        DistributionSummary.builder("search.context.tokens")
+                .description("Estimated context tokens sent to the LLM")
+                .baseUnit("tokens")
+                .maximumExpectedValue(65536.0)
+                .register(registry)
+                .record(context.tokens());
+        Counter.builder("search.context.chunks_dropped")
+                .description("Retrieved chunks left out of the LLM context by its token budget")
+                .register(registry)
+                .increment(Math.max(0, retrievedChunks - context.chunks()));
+    }
+
+    /**
+     * Measures from subscription until the result (or error) is emitted, before downstream operators run on it.
+     */
+    private <T> Mono<T> time(Mono<T> work, BiConsumer<String, Long> record) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work.doOnSuccess(value -> record.accept("success", System.nanoTime() - start))
+                    .doOnError(e -> record.accept("error", System.nanoTime() - start))
+                    .doOnCancel(() -> record.accept("cancelled", System.nanoTime() - start));
+        });
+    }
+
+    private static String tag(String value) {
+        return value == null ? "unknown" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,685 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.IngestionProperties;
+import com.nexa.ingestion.dto.qdrant.QdrantPoint;
+import io.grpc.Status;
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Durable spool for embedded points that could not be upserted, so vectors already paid for are not thrown away.
+ *
+ * <p>{@link #upsert} writes straight to Qdrant while it is healthy. If an upsert fails or takes longer than
+ * {@code ingestion.spool.slow-upsert-ms}, the points are appended to memory-mapped segment files instead and
+ * the spool goes into degraded mode: further writes are spooled until a background drainer has replayed
+ * the backlog in large batches. Writes for a document that still has spooled points are always spooled
+ * too, so each document's versions reach Qdrant in order. Deletes go through the spool for the same reason:
+ * a delete for a document with spooled points (or one Qdrant rejects) is queued behind them, so replaying an
+ * older upsert cannot bring back deleted points. Point ids are deterministic, so replaying a record twice
+ * (e.g. after a crash mid-drain) is harmless.
+ *
+ * <p>The drainer retries while Qdrant is unavailable, slow or overloaded. A record Qdrant rejects for good
+ * (e.g. vectors of another size after a model change) would block the queue forever, so a rejected batch is
+ * halved until the bad record is alone, and that record is moved to the {@link DeadLetterStore} (stage
+ * {@code UPSERT}) and dropped from the spool.
+ *
+ * <p>Segment record layout: {@code magic(int) length(int) crc32(int) body}. The magic is written last, and
+ * overwritten with a consumed marker once the record is drained; a torn or corrupt record ends the scan of
+ * its segment on recovery. A segment file is deleted when all its records are drained.
+ */
+@Component
+public class PointSpool {
+
+    private static final Logger log = LoggerFactory.getLogger(PointSpool.class);
+
+    private static final int RECORD_LIVE = 0x53504C31;      // "SPL1"
+    private static final int RECORD_CONSUMED = 0x53504C30;  // "SPL0"
+    private static final int HEADER_BYTES = 12;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+    /**
+     * Point count written in place of a point list for a delete record; the first chunk to delete follows.
+     */
+    private static final int DELETE_RECORD = -1;
+    private static final int NOT_DELETE = -1;
+    /**
+     * Dead-letter source of rejected records that do not say which source they came from (deletes).
+     */
+    private static final String SPOOL_SOURCE = "Spool";
+
+    private final IngestionProperties.Spool properties;
+    private final QdrantService qdrantService;
+    private final DeadLetterStore deadLetters;
+    private final Path directory;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private final Map<String, Integer> pendingByDocument = new HashMap<>();
+    private Segment current;
+    private long nextSegmentId;
+    private long spooledPoints;
+    private long diskBytes;
+    private volatile boolean degraded;
+    private int drainLimit = Integer.MAX_VALUE;  // Entries per replayed batch; lowered while isolating a rejected record
+
+    private final AtomicLong drainedPoints = new AtomicLong();
+    private final ArrayDeque<long[]> drainSamples = new ArrayDeque<>();  // {nanoTime, points}
+    private final ScheduledExecutorService drainExecutor;
+
+    public PointSpool(IngestionProperties ingestionProperties, QdrantService qdrantService,
+                      DeadLetterStore deadLetters) {
+        this.properties = ingestionProperties.getSpool();
+        this.qdrantService = qdrantService;
+        this.deadLetters = deadLetters;
+        this.directory = Paths.get(properties.getDirectory());
+        if (properties.isEnabled()) {
+            recover();
+            this.drainExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "spool-drain");
+                t.setDaemon(true);
+                return t;
+            });
+            drainExecutor.scheduleWithFixedDelay(this::drain,
+                    properties.getDrainIntervalMs(), properties.getDrainIntervalMs(), TimeUnit.MILLISECONDS);
+        } else {
+            this.drainExecutor = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (drainExecutor != null) {
+            drainExecutor.shutdownNow();
+        }
+        synchronized (this) {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        }
+    }
+
+    /**
+     * Upserts a document's points, spooling them to disk if Qdrant fails, is slow, or is still being caught up.
+     *
+     * @param documentId source document id, used to keep per-document ordering
+     * @param points points to write
+     * @return Mono that completes once the points are in Qdrant or durably spooled; errors only if both fail
+     */
+    public Mono<Void> upsert(String documentId, List<QdrantPoint> points) {
+        if (!properties.isEnabled()) {
+            return qdrantService.upsert(points);
+        }
+        if (points == null || points.isEmpty()) {
+            return Mono.empty();
+        }
+        if (degraded || hasPending(documentId)) {
+            return spool(documentId, points);
+        }
+        return qdrantService.upsert(points)
+                .timeout(Duration.ofMillis(properties.getSlowUpsertMs()))
+                .onErrorResume(e -> {
+                    if (!degraded) {
+                        log.warn("Qdrant upsert failed or exceeded {} ms, spooling points to {}: {}",
+                                properties.getSlowUpsertMs(), directory, e.getMessage());
+                    }
+                    degraded = true;
+                    return spool(documentId, points);
+                });
+    }
+
+    /**
+     * Deletes all points of a document, after any of its spooled points have been replayed.
+     */
+    public Mono<Void> deleteByDocumentId(String documentId) {
+        return delete(documentId, 0);
+    }
+
+    /**
+     * Deletes a document's chunks from index {@code fromChunkIndex} on, after any of its spooled points have been
+     * replayed (they may include the new, shorter version the delete trims to).
+     */
+    public Mono<Void> deleteChunksFrom(String documentId, int fromChunkIndex) {
+        return delete(documentId, fromChunkIndex);
+    }
+
+    /**
+     * @param fromChunkIndex first chunk to delete; 0 deletes the whole document
+     * @return Mono that completes once the delete is applied or durably spooled
+     */
+    private Mono<Void> delete(String documentId, int fromChunkIndex) {
+        if (!properties.isEnabled()) {
+            return deleteNow(documentId, fromChunkIndex);
+        }
+        return Mono.defer(() -> {
+            if (hasPending(documentId)) {
+                return spoolDelete(documentId, fromChunkIndex);
+            }
+            return deleteNow(documentId, fromChunkIndex)
+                    .onErrorResume(e -> {
+                        log.warn("Qdrant delete of document {} failed, spooling it: {}", documentId, e.getMessage());
+                        degraded = true;
+                        return spoolDelete(documentId, fromChunkIndex);
+                    });
+        });
+    }
+
+    private Mono<Void> deleteNow(String documentId, int fromChunkIndex) {
+        return fromChunkIndex == 0
+                ? qdrantService.deleteByDocumentId(documentId)
+                : qdrantService.deleteChunksFrom(documentId, fromChunkIndex);
+    }
+
+    private Mono<Void> spoolDelete(String documentId, int fromChunkIndex) {
+        return Mono.fromCallable(() -> {
+                    appendRecord(documentId, encodeDelete(documentId, System.currentTimeMillis(), fromChunkIndex),
+                            0, fromChunkIndex);
+                    return true;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private synchronized boolean hasPending(String documentId) {
+        return pendingByDocument.containsKey(documentId);
+    }
+
+    private Mono<Void> spool(String documentId, List<QdrantPoint> points) {
+        return Mono.fromCallable(() -> {
+                    List<Points.PointStruct> structs = new ArrayList<>(points.size());
+                    for (QdrantPoint point : points) {
+                        structs.add(qdrantService.toPointStruct(point));
+                    }
+                    append(documentId, structs);
+                    return true;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Current spool size, oldest entry age and drain rate.
+     */
+    public synchronized Stats stats() {
+        Entry oldest = entries.peekFirst();
+        long oldestAgeMs = oldest != null ? Math.max(0, System.currentTimeMillis() - oldest.createdMillis) : 0;
+        return new Stats(properties.isEnabled(), degraded, entries.size(), spooledPoints, diskBytes,
+                segments.size(), oldestAgeMs, drainRate(), drainedPoints.get());
+    }
+
+    private void append(String documentId, List<Points.PointStruct> structs) throws IOException {
+        appendRecord(documentId, encode(documentId, System.currentTimeMillis(), structs), structs.size(), NOT_DELETE);
+    }
+
+    /**
+     * @param deleteFrom first chunk index of a delete record, {@link #NOT_DELETE} for an upsert
+     */
+    private void appendRecord(String documentId, byte[] body, int pointCount, int deleteFrom) throws IOException {
+        long now = System.currentTimeMillis();
+        int recordSize = HEADER_BYTES + body.length;
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        synchronized (this) {
+            long segmentSize = properties.getSegmentSizeMb() * 1024L * 1024L;
+            if (current == null || current.writePos + recordSize > current.capacity) {
+                long capacity = Math.max(segmentSize, recordSize);
+                if (diskBytes + capacity > properties.getMaxSizeMb() * 1024L * 1024L) {
+                    throw new IOException("Point spool is full (" + diskBytes / (1024 * 1024) + " MB)");
+                }
+                current = Segment.create(directory, nextSegmentId++, capacity);
+                segments.put(current.id, current);
+                diskBytes += current.capacity;
+            }
+            int offset = current.writePos;
+            MappedByteBuffer buffer = current.buffer;
+            buffer.putInt(offset + 4, body.length);
+            buffer.putInt(offset + 8, (int) crc.getValue());
+            buffer.put(offset + HEADER_BYTES, body);
+            buffer.putInt(offset, RECORD_LIVE);
+            buffer.force(offset, recordSize);
+            current.writePos += recordSize;
+            current.liveRecords++;
+
+            entries.addLast(new Entry(current, offset, body.length, documentId, now, pointCount, deleteFrom));
+            pendingByDocument.merge(documentId, 1, Integer::sum);
+            spooledPoints += pointCount;
+        }
+        if (deleteFrom == NOT_DELETE) {
+            log.debug("Spooled {} points of document {}", pointCount, documentId);
+        } else {
+            log.debug("Spooled delete of document {} from chunk {}", documentId, deleteFrom);
+        }
+    }
+
+    /**
+     * Drains the spool in batches until it is empty or Qdrant is unavailable. Runs on the drain thread.
+     */
+    private void drain() {
+        try {
+            while (drainBatch()) {
+                // keep going while Qdrant accepts writes
+            }
+        } catch (Exception e) {
+            log.error("Point spool drain failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean drainBatch() throws IOException {
+        List<Entry> batch = new ArrayList<>();
+        synchronized (this) {
+            if (entries.isEmpty()) {
+                if (degraded) {
+                    log.info("Point spool drained; writing directly to Qdrant again");
+                }
+                degraded = false;
+                drainLimit = Integer.MAX_VALUE;
+                return false;
+            }
+            // A delete is replayed on its own, after the upserts queued before it
+            int points = 0;
+            for (Entry entry : entries) {
+                if (!batch.isEmpty() && (entry.isDelete() || batch.get(0).isDelete() || batch.size() >= drainLimit
+                        || points + entry.pointCount > properties.getDrainBatchSize())) {
+                    break;
+                }
+                batch.add(entry);
+                points += entry.pointCount;
+            }
+        }
+
+        if (batch.get(0).isDelete()) {
+            Entry delete = batch.get(0);
+            try {
+                deleteNow(delete.documentId, delete.deleteFrom).block(Duration.ofSeconds(60));
+            } catch (RuntimeException e) {
+                if (isRejected(e)) {
+                    return rejected(batch, e);
+                }
+                log.debug("Qdrant still unavailable, {} spooled entries pending: {}", entries.size(), e.getMessage());
+                return false;
+            }
+            consumed(batch);
+            log.debug("Replayed spooled delete of document {}", delete.documentId);
+            return true;
+        }
+
+        // Later versions of a point overwrite earlier ones; keep one per id so the request is unambiguous
+        Map<Points.PointId, Points.PointStruct> latest = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            for (Points.PointStruct struct : decodePoints(entry)) {
+                latest.remove(struct.getId());
+                latest.put(struct.getId(), struct);
+            }
+        }
+
+        try {
+            qdrantService.upsertPointStructs(new ArrayList<>(latest.values()))
+                    .block(Duration.ofSeconds(60));
+        } catch (RuntimeException e) {
+            if (isRejected(e)) {
+                return rejected(batch, e);
+            }
+            log.debug("Qdrant still unavailable, {} spooled entries pending: {}", entries.size(), e.getMessage());
+            return false;
+        }
+
+        int drained = consumed(batch);
+        log.debug("Drained {} spooled points ({} entries) to Qdrant", drained, batch.size());
+        return true;
+    }
+
+    /**
+     * Whether Qdrant refused the request itself, so replaying it again cannot succeed. Anything else
+     * (unavailable, deadline exceeded, resource exhausted, timeouts) is retried.
+     */
+    static boolean isRejected(Throwable error) {
+        Status.Code code = Status.fromThrowable(error).getCode();
+        return code == Status.Code.INVALID_ARGUMENT
+                || code == Status.Code.FAILED_PRECONDITION
+                || code == Status.Code.NOT_FOUND;
+    }
+
+    /**
+     * Handles a batch Qdrant rejected: a batch of several entries is retried in halves until the bad entry is
+     * alone, so the others still drain; a single entry is dead-lettered and dropped.
+     *
+     * @return true, as draining can go on
+     */
+    private boolean rejected(List<Entry> batch, RuntimeException error) throws IOException {
+        if (batch.size() > 1) {
+            drainLimit = Math.max(1, batch.size() / 2);
+            log.debug("Qdrant rejected {} spooled entries, retrying {} at a time: {}",
+                    batch.size(), drainLimit, error.getMessage());
+            return true;
+        }
+        Entry entry = batch.get(0);
+        String source = SPOOL_SOURCE;
+        Map<String, String> locator = Map.of();
+        if (!entry.isDelete()) {
+            List<Points.PointStruct> structs = decodePoints(entry);
+            if (!structs.isEmpty()) {
+                Map<String, JsonWithInt.Value> payload = structs.get(0).getPayloadMap();
+                if (payload.containsKey("source_type")) {
+                    source = payload.get("source_type").getStringValue();
+                }
+                if (payload.containsKey("custom_filePath")) {
+                    // Lets the dead-letter retrier re-read the file
+                    locator = Map.of("path", payload.get("custom_filePath").getStringValue());
+                }
+            }
+        }
+        log.warn("Qdrant rejected spooled {} of document {}, moving it to the dead-letter store: {}",
+                entry.isDelete() ? "delete" : entry.pointCount + " points", entry.documentId, error.getMessage());
+        deadLetters.record(source, entry.documentId, DeadLetterStore.Stage.UPSERT, error, locator);
+        consumed(batch);
+        drainLimit = Integer.MAX_VALUE;
+        return true;
+    }
+
+    /**
+     * Marks the replayed head entries consumed and frees segments left without live records.
+     *
+     * @return points replayed
+     */
+    private int consumed(List<Entry> batch) {
+        int drained = 0;
+        synchronized (this) {
+            for (Entry entry : batch) {
+                entries.pollFirst();  // batch is always the head of the queue; only the drainer removes
+                entry.segment.buffer.putInt(entry.offset, RECORD_CONSUMED);
+                entry.segment.buffer.force(entry.offset, 4);
+                entry.segment.liveRecords--;
+                pendingByDocument.computeIfPresent(entry.documentId, (k, n) -> n > 1 ? n - 1 : null);
+                spooledPoints -= entry.pointCount;
+                drained += entry.pointCount;
+                if (entry.segment.liveRecords == 0 && entry.segment != current) {
+                    deleteSegment(entry.segment);
+                }
+            }
+            if (entries.isEmpty() && current != null && current.liveRecords == 0) {
+                deleteSegment(current);
+                current = null;
+            }
+            recordDrained(drained);
+        }
+        return drained;
+    }
+
+    private void deleteSegment(Segment segment) {
+        segments.remove(segment.id);
+        diskBytes -= segment.capacity;
+        segment.close();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Failed to delete drained spool segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private void recordDrained(int points) {
+        long now = System.nanoTime();
+        drainedPoints.addAndGet(points);
+        drainSamples.addLast(new long[]{now, points});
+        pruneSamples(now);
+    }
+
+    private synchronized double drainRate() {
+        long now = System.nanoTime();
+        pruneSamples(now);
+        long total = 0;
+        for (long[] sample : drainSamples) {
+            total += sample[1];
+        }
+        return total / (RATE_WINDOW_NANOS / 1e9);
+    }
+
+    private void pruneSamples(long now) {
+        while (!drainSamples.isEmpty() && now - drainSamples.peekFirst()[0] > RATE_WINDOW_NANOS) {
+            drainSamples.pollFirst();
+        }
+    }
+
+    /**
+     * Reopens existing segments and rebuilds the queue from their live records.
+     */
+    private void recover() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            log.warn("Could not list spool directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long id;
+            try {
+                id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            try {
+                segments.put(id, Segment.open(file, id));
+            } catch (IOException e) {
+                log.warn("Could not open spool segment {}: {}", file, e.getMessage());
+            }
+        }
+        for (Iterator<Segment> it = segments.values().iterator(); it.hasNext(); ) {
+            Segment segment = it.next();
+            scan(segment);
+            nextSegmentId = Math.max(nextSegmentId, segment.id + 1);
+            if (segment.liveRecords == 0) {
+                it.remove();
+                segment.close();
+                try {
+                    Files.deleteIfExists(segment.path);
+                } catch (IOException e) {
+                    // Ignore
+                }
+            } else {
+                diskBytes += segment.capacity;
+            }
+        }
+        if (!entries.isEmpty()) {
+            degraded = true;
+            log.info("Recovered {} spooled points ({} entries) from {}; draining to Qdrant",
+                    spooledPoints, entries.size(), directory);
+        }
+    }
+
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int pos = 0;
+        while (pos + HEADER_BYTES <= segment.capacity) {
+            int magic = buffer.getInt(pos);
+            if (magic != RECORD_LIVE && magic != RECORD_CONSUMED) {
+                break;
+            }
+            int length = buffer.getInt(pos + 4);
+            if (length < 0 || pos + HEADER_BYTES + (long) length > segment.capacity) {
+                break;
+            }
+            if (magic == RECORD_LIVE) {
+                byte[] body = new byte[length];
+                buffer.get(pos + HEADER_BYTES, body);
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != buffer.getInt(pos + 8)) {
+                    log.warn("Corrupt record at offset {} in spool segment {}, ignoring the rest", pos, segment.path);
+                    break;
+                }
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+                    String documentId = in.readUTF();
+                    long createdMillis = in.readLong();
+                    int count = in.readInt();
+                    int deleteFrom = NOT_DELETE;
+                    if (count == DELETE_RECORD) {
+                        deleteFrom = in.readInt();
+                        count = 0;
+                    }
+                    entries.addLast(new Entry(segment, pos, length, documentId, createdMillis, count, deleteFrom));
+                    pendingByDocument.merge(documentId, 1, Integer::sum);
+                    spooledPoints += count;
+                    segment.liveRecords++;
+                } catch (IOException e) {
+                    break;
+                }
+            }
+            pos += HEADER_BYTES + length;
+        }
+        segment.writePos = pos;
+    }
+
+    private static byte[] encode(String documentId, long createdMillis, List<Points.PointStruct> structs) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(documentId);
+            out.writeLong(createdMillis);
+            out.writeInt(structs.size());
+            for (Points.PointStruct struct : structs) {
+                byte[] encoded = struct.toByteArray();
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeDelete(String documentId, long createdMillis, int fromChunkIndex) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(documentId);
+            out.writeLong(createdMillis);
+            out.writeInt(DELETE_RECORD);
+            out.writeInt(fromChunkIndex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Points.PointStruct> decodePoints(Entry entry) throws IOException {
+        byte[] body = new byte[entry.length];
+        entry.segment.buffer.get(entry.offset + HEADER_BYTES, body);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            in.readUTF();
+            in.readLong();
+            int count = in.readInt();
+            List<Points.PointStruct> structs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                structs.add(Points.PointStruct.parseFrom(encoded));
+            }
+            return structs;
+        }
+    }
+
+    /**
+     * One spooled upsert (the points of one document) or delete, located in a segment.
+     *
+     * @param deleteFrom first chunk index a delete removes (0 = the whole document); {@link #NOT_DELETE} for upserts
+     */
+    private record Entry(Segment segment, int offset, int length, String documentId, long createdMillis, int pointCount,
+                         int deleteFrom) {
+        boolean isDelete() {
+            return deleteFrom != NOT_DELETE;
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        int writePos;
+        int liveRecords;
+
+        private Segment(long id, Path path, FileChannel channel, int capacity) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.capacity = capacity;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        static Segment create(Path directory, long id, long capacity) throws IOException {
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IOException("Spool record too large: " + capacity + " bytes");
+            }
+            Files.createDirectories(directory);
+            Path path = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, path, channel, (int) capacity);
+        }
+
+        static Segment open(Path path, long id) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                channel.close();
+                throw new IOException("Spool segment too large: " + size + " bytes");
+            }
+            return new Segment(id, path, channel, (int) size);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * Spool metrics.
+     *
+     * @param degraded true while writes are being spooled instead of sent to Qdrant
+     * @param entries spooled upserts and deletes awaiting replay
+     * @param points points awaiting replay
+     * @param bytes disk space held by segment files
+     * @param oldestEntryAgeMs age of the oldest entry awaiting replay, 0 if empty
+     * @param drainRatePerSecond points replayed per second over the last minute
+     * @param drainedTotal points replayed since startup
+     */
+    public record Stats(boolean enabled, boolean degraded, int entries, long points, long bytes, int segments,
+                        long oldestEntryAgeMs, double drainRatePerSecond, long drainedTotal) {}
+}
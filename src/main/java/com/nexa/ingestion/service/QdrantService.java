@@ -5,6 +5,9 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.nexa.ingestion.config.QdrantProperties;
 import com.nexa.ingestion.dto.DocumentMetadata;
 import com.nexa.ingestion.dto.qdrant.QdrantPoint;
+import com.nexa.ingestion.jfr.JfrEvents;
+import com.nexa.ingestion.jfr.QdrantUpsertEvent;
+import io.qdrant.client.ConditionFactory;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.QdrantGrpcClient;
 import io.qdrant.client.PointIdFactory;
@@ -15,6 +18,7 @@ import io.qdrant.client.grpc.Points;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import jakarta.annotation.PreDestroy;
@@ -35,11 +39,27 @@ public class QdrantService {
 
     private static final Logger log = LoggerFactory.getLogger(QdrantService.class);
 
+    /**
+     * Payload fields with a keyword index: document deletes and exact identifier lookups filter on them.
+     */
+    private static final List<String> KEYWORD_INDEXES =
+            List.of("document_id", "source", "custom_issueKey", "custom_path", "custom_filePath");
+
     private final QdrantClient client;
     private final QdrantProperties properties;
+    private final PipelineMetrics metrics;
+    private final CollectionWriteGeneration writeGeneration;
+    private final Bm25Encoder bm25Encoder;
+    private volatile boolean payloadIndexed;
 
-    public QdrantService(QdrantProperties properties) {
+    public QdrantService(QdrantProperties properties,
+                         PipelineMetrics metrics,
+                         CollectionWriteGeneration writeGeneration,
+                         Bm25Encoder bm25Encoder) {
         this.properties = properties;
+        this.metrics = metrics;
+        this.writeGeneration = writeGeneration;
+        this.bm25Encoder = bm25Encoder;
         var grpcClientBuilder = QdrantGrpcClient.newBuilder(
                 properties.getHost(),
                 properties.getPort(),
@@ -80,8 +100,9 @@ public class QdrantService {
     }
 
     /**
-     * Ensures the collection exists with the configured vector size.
-     * If recreateCollection is true, deletes and recreates it.
+     * Ensures the collection exists with the configured vector size (and the BM25 sparse vector when hybrid
+     * search is enabled). If recreateCollection is true, deletes and recreates it.
+     * An existing collection without the sparse vector keeps working dense-only.
      */
     public Mono<Void> ensureCollection() {
         String collectionName = properties.getCollectionName();
@@ -90,17 +111,42 @@ public class QdrantService {
         if (properties.isRecreateCollection()) {
             return deleteCollection()
                     .then(createCollection(collectionName, size))
-                    .doOnSuccess(v -> log.info("Collection '{}' recreated with vector size {}", collectionName, size));
+                    .doOnSuccess(v -> log.info("Collection '{}' recreated with vector size {}", collectionName, size))
+                    .then(ensurePayloadIndexes(collectionName));
         }
         return collectionExists(collectionName)
                 .flatMap(exists -> {
                     if (exists) {
                         log.debug("Collection '{}' already exists", collectionName);
-                        return Mono.<Void>empty();
+                        return checkSparseVector(collectionName);
                     } else {
                         log.info("Creating collection '{}' with vector size {}", collectionName, size);
                         return createCollection(collectionName, size);
                     }
+                })
+                .then(Mono.defer(() -> ensurePayloadIndexes(collectionName)));
+    }
+
+    /**
+     * Creates the keyword payload indexes, once per process (creating an existing index is a no-op in Qdrant).
+     * A failure is logged and retried on the next call; filters still work unindexed, only slower.
+     */
+    private Mono<Void> ensurePayloadIndexes(String name) {
+        if (payloadIndexed) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(KEYWORD_INDEXES)
+                .concatMap(field -> Mono.fromFuture(() -> toCompletableFuture(client.createPayloadIndexAsync(
+                        name, field, Collections.PayloadSchemaType.Keyword, null, true, null,
+                        Duration.ofSeconds(30)))))
+                .then()
+                .doOnSuccess(v -> {
+                    payloadIndexed = true;
+                    log.debug("Keyword payload indexes ensured on collection '{}': {}", name, KEYWORD_INDEXES);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Could not create payload indexes on collection '{}': {}", name, e.getMessage());
+                    return Mono.empty();
                 });
     }
 
@@ -111,6 +157,30 @@ public class QdrantService {
                 .onErrorReturn(false);
     }
 
+    /**
+     * Turns hybrid search off if the existing collection lacks the sparse vector, since upserting it would fail.
+     */
+    private Mono<Void> checkSparseVector(String name) {
+        if (!bm25Encoder.isEnabled()) {
+            return Mono.empty();
+        }
+        String vectorName = bm25Encoder.getVectorName();
+        return Mono.fromFuture(() -> toCompletableFuture(client.getCollectionInfoAsync(name, Duration.ofSeconds(5))))
+                .map(info -> info.getConfig().getParams().getSparseVectorsConfig().containsMap(vectorName))
+                .onErrorResume(e -> {
+                    log.warn("Could not read collection '{}' info: {}", name, e.getMessage());
+                    return Mono.just(false);
+                })
+                .doOnNext(supported -> {
+                    bm25Encoder.setCollectionSupported(supported);
+                    if (!supported) {
+                        log.warn("Collection '{}' has no sparse vector '{}'; hybrid search is off until it is "
+                                + "recreated (qdrant.recreate-collection=true) and re-ingested", name, vectorName);
+                    }
+                })
+                .then();
+    }
+
     private Mono<Void> createCollection(String name, int vectorSize) {
         var vectorsConfig = Collections.VectorsConfig.newBuilder()
                 .setParams(Collections.VectorParams.newBuilder()
@@ -121,21 +191,27 @@ public class QdrantService {
 
         var createCollection = Collections.CreateCollection.newBuilder()
                 .setCollectionName(name)
-                .setVectorsConfig(vectorsConfig)
-                .build();
+                .setVectorsConfig(vectorsConfig);
+        if (bm25Encoder.isEnabled()) {
+            createCollection.setSparseVectorsConfig(Collections.SparseVectorConfig.newBuilder()
+                    .putMap(bm25Encoder.getVectorName(), Collections.SparseVectorParams.getDefaultInstance()));
+        }
 
-        ListenableFuture<Collections.CollectionOperationResponse> future = client.createCollectionAsync(createCollection, Duration.ofSeconds(10));
+        ListenableFuture<Collections.CollectionOperationResponse> future = client.createCollectionAsync(createCollection.build(), Duration.ofSeconds(10));
         return Mono.fromFuture(toCompletableFuture(future))
-                .then();
+                .then()
+                .doFinally(signal -> writeGeneration.advance());
     }
 
     public Mono<Void> deleteCollection() {
+        payloadIndexed = false;
         ListenableFuture<Collections.CollectionOperationResponse> future = client.deleteCollectionAsync(
                 properties.getCollectionName(),
                 Duration.ofSeconds(10)
         );
         return Mono.fromFuture(toCompletableFuture(future))
                 .then()
+                .doFinally(signal -> writeGeneration.advance())
                 .onErrorResume(e -> Mono.empty());
     }
 
@@ -153,6 +229,19 @@ public class QdrantService {
         List<Points.PointStruct> pointStructs = points.stream()
                 .map(this::toPointStruct)
                 .collect(Collectors.toList());
+        return upsertPointStructs(pointStructs);
+    }
+
+    /**
+     * Upserts already-converted points, e.g. replayed from the {@link PointSpool}.
+     *
+     * @param pointStructs points in gRPC form
+     * @return Mono that completes when the request succeeds
+     */
+    public Mono<Void> upsertPointStructs(List<Points.PointStruct> pointStructs) {
+        if (pointStructs == null || pointStructs.isEmpty()) {
+            return Mono.empty();
+        }
 
         var upsertPoints = Points.UpsertPoints.newBuilder()
                 .setCollectionName(properties.getCollectionName())
@@ -160,10 +249,15 @@ public class QdrantService {
                 .setWait(true)
                 .build();
 
-        ListenableFuture<Points.UpdateResult> future = client.upsertAsync(upsertPoints, Duration.ofSeconds(30));
-        return Mono.fromFuture(toCompletableFuture(future))
-                .doOnSuccess(v -> log.debug("Upserted {} points to collection '{}'", points.size(), properties.getCollectionName()))
+        return metrics.timeUpsert(pointStructs.size(), JfrEvents.recorded(
+                        () -> new QdrantUpsertEvent(properties.getCollectionName(), pointStructs.size()),
+                        Mono.fromFuture(() -> toCompletableFuture(client.upsertAsync(upsertPoints, Duration.ofSeconds(30)))),
+                        null))
+                .doOnSuccess(v -> log.debug("Upserted {} points to collection '{}'", pointStructs.size(), properties.getCollectionName()))
                 .then()
+                .doFinally(signal -> writeGeneration.pointsUpserted(pointStructs.stream()
+                        .map(point -> pointId(point.getId()))
+                        .toList()))
                 .onErrorMap(e -> {
                     String errorMsg = String.format("Failed to upsert points to collection '%s': %s", 
                             properties.getCollectionName(), e.getMessage());
@@ -172,7 +266,64 @@ public class QdrantService {
                 });
     }
 
-    private Points.PointStruct toPointStruct(QdrantPoint point) {
+    /**
+     * Deletes every chunk belonging to a document.
+     * Matches on {@code document_id}, or on {@code custom_filePath} for points written before document_id existed.
+     *
+     * @param documentId source document id (absolute path for filesystem documents)
+     * @return Mono that completes when the delete is applied
+     */
+    public Mono<Void> deleteByDocumentId(String documentId) {
+        return delete(documentFilter(documentId).build(), documentId);
+    }
+
+    /**
+     * Deletes chunks of a document with chunk index >= {@code fromChunkIndex}.
+     * Used after re-ingesting a document that now has fewer chunks than before.
+     *
+     * @param documentId source document id
+     * @param fromChunkIndex first chunk index to delete
+     * @return Mono that completes when the delete is applied
+     */
+    public Mono<Void> deleteChunksFrom(String documentId, int fromChunkIndex) {
+        Points.Filter filter = documentFilter(documentId)
+                .addMust(ConditionFactory.range("chunk_id", Points.Range.newBuilder()
+                        .setGte(fromChunkIndex)
+                        .build()))
+                .build();
+        return delete(filter, documentId);
+    }
+
+    private static Points.Filter.Builder documentFilter(String documentId) {
+        return Points.Filter.newBuilder()
+                .addShould(ConditionFactory.matchKeyword("document_id", documentId))
+                .addShould(ConditionFactory.matchKeyword("custom_filePath", documentId));
+    }
+
+    private Mono<Void> delete(Points.Filter filter, String documentId) {
+        ListenableFuture<Points.UpdateResult> future = client.deleteAsync(
+                properties.getCollectionName(), filter, Duration.ofSeconds(30));
+        return Mono.fromFuture(toCompletableFuture(future))
+                .doOnSuccess(v -> log.debug("Deleted points of document '{}' from collection '{}'",
+                        documentId, properties.getCollectionName()))
+                .then()
+                .doFinally(signal -> writeGeneration.advance())
+                .onErrorMap(e -> {
+                    String errorMsg = String.format("Failed to delete points of document '%s' from collection '%s': %s",
+                            documentId, properties.getCollectionName(), e.getMessage());
+                    log.error(errorMsg);
+                    return new RuntimeException(errorMsg, e);
+                });
+    }
+
+    /**
+     * String form of a point id, as in {@link com.nexa.ingestion.dto.SearchResult#getPointId()}.
+     */
+    public static String pointId(Points.PointId id) {
+        return id.hasUuid() ? id.getUuid() : Long.toString(id.getNum());
+    }
+
+    Points.PointStruct toPointStruct(QdrantPoint point) {
         Points.PointId pointId;
         try {
             // Try parsing as UUID first
@@ -196,11 +347,21 @@ public class QdrantService {
             for (float v : point.getVector()) {
                 vectorBuilder.addData(v);
             }
-            // For single unnamed vector collection, use setVectors with unnamed vector
-            // The Vectors object should contain a single vector without a name
-            builder.setVectors(Points.Vectors.newBuilder()
-                    .setVector(vectorBuilder.build())
-                    .build());
+            if (!hasSparseVector(point)) {
+                // For single unnamed vector collection, use setVectors with unnamed vector
+                // The Vectors object should contain a single vector without a name
+                builder.setVectors(Points.Vectors.newBuilder()
+                        .setVector(vectorBuilder.build())
+                        .build());
+            } else {
+                // The unnamed dense vector is the one named ""
+                builder.setVectors(Points.Vectors.newBuilder()
+                        .setVectors(Points.NamedVectors.newBuilder()
+                                .putVectors("", vectorBuilder.build())
+                                .putVectors(bm25Encoder.getVectorName(),
+                                        toVector(point.getSparseIndices(), point.getSparseValues())))
+                        .build());
+            }
         }
 
         if (point.getPayload() != null && !point.getPayload().isEmpty()) {
@@ -214,7 +375,31 @@ public class QdrantService {
         return builder.build();
     }
 
-    private JsonWithInt.Value toValue(Object obj) {
+    /**
+     * Whether the point's sparse vector (encoded at ingestion) is written; not while the collection lacks it.
+     */
+    private boolean hasSparseVector(QdrantPoint point) {
+        return bm25Encoder.isEnabled() && point.getSparseIndices() != null && point.getSparseIndices().length > 0;
+    }
+
+    /**
+     * Sparse vector in gRPC form, for points and searches.
+     */
+    static Points.Vector toVector(Bm25Encoder.SparseVector sparse) {
+        return toVector(sparse.indices(), sparse.values());
+    }
+
+    private static Points.Vector toVector(int[] sparseIndices, float[] sparseValues) {
+        var vector = Points.Vector.newBuilder();
+        var indices = Points.SparseIndices.newBuilder();
+        for (int i = 0; i < sparseIndices.length; i++) {
+            indices.addData(sparseIndices[i]);
+            vector.addData(sparseValues[i]);
+        }
+        return vector.setIndices(indices).build();
+    }
+
+    JsonWithInt.Value toValue(Object obj) {
         var valueBuilder = JsonWithInt.Value.newBuilder();
         if (obj instanceof String) {
             valueBuilder.setStringValue((String) obj);
@@ -276,6 +461,7 @@ public class QdrantService {
         Map<String, Object> payload = new HashMap<>();
         
         if (metadata.getId() != null) payload.put("id", metadata.getId());
+        if (metadata.getDocumentId() != null) payload.put("document_id", metadata.getDocumentId());
         if (metadata.getText() != null) payload.put("text", metadata.getText());
         if (metadata.getSource() != null) payload.put("source", metadata.getSource());
         if (metadata.getSourceType() != null) payload.put("source_type", metadata.getSourceType());
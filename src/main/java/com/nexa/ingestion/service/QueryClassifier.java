@@ -0,0 +1,83 @@
+package com.nexa.ingestion.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Recognizes queries that name a document instead of asking a question, so they can be answered by an exact
+ * payload lookup instead of embedding, vector search and the LLM.
+ *
+ * <ul>
+ *   <li>A Jira issue key ({@code PROJ-1234}, any case) matches {@code custom_issueKey}.</li>
+ *   <li>A path or file name without spaces ({@code docs/setup.md}, {@code /srv/docs/vpn.pdf}, {@code README.md})
+ *       matches the GitHub path {@code custom_path}, the filesystem path {@code custom_filePath} or the title
+ *       {@code source} (file names are the title of files).</li>
+ *   <li>Any other short query without a question mark may be a page title and is tried against {@code source}.</li>
+ * </ul>
+ *
+ * Matches are exact; a lookup that finds nothing falls back to the normal search.
+ */
+public final class QueryClassifier {
+
+    private static final Pattern ISSUE_KEY = Pattern.compile("[A-Za-z][A-Za-z0-9]+-\\d+");
+    private static final Pattern PATH = Pattern.compile("\\S*[/\\\\]\\S*|[^\\s/\\\\]+\\.[A-Za-z0-9]{1,8}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryClassifier() {
+    }
+
+    /**
+     * The identifier {@code query} consists of, if any.
+     *
+     * @param titleMaxWords longest query (in words) still tried as a title; 0 disables title lookups
+     */
+    public static Optional<Identifier> classify(String query, int titleMaxWords) {
+        if (query == null || query.isBlank()) {
+            return Optional.empty();
+        }
+        String trimmed = query.strip();
+        if (ISSUE_KEY.matcher(trimmed).matches()) {
+            return Optional.of(new Identifier(Kind.ISSUE_KEY, trimmed.toUpperCase(Locale.ROOT)));
+        }
+        if (PATH.matcher(trimmed).matches()) {
+            return Optional.of(new Identifier(Kind.PATH, trimmed));
+        }
+        if (titleMaxWords > 0 && !trimmed.contains("?")
+                && WHITESPACE.split(trimmed).length <= titleMaxWords) {
+            return Optional.of(new Identifier(Kind.TITLE, trimmed));
+        }
+        return Optional.empty();
+    }
+
+    public enum Kind {
+        ISSUE_KEY("issue-key", List.of("custom_issueKey")),
+        PATH("path", List.of("custom_path", "custom_filePath", "source")),
+        TITLE("title", List.of("source"));
+
+        private final String label;
+        private final List<String> fields;
+
+        Kind(String label, List<String> fields) {
+            this.label = label;
+            this.fields = fields;
+        }
+
+        /**
+         * Name used in timings and metric tags.
+         */
+        public String label() {
+            return label;
+        }
+
+        /**
+         * Payload keyword fields any of which may equal the identifier.
+         */
+        public List<String> fields() {
+            return fields;
+        }
+    }
+
+    public record Identifier(Kind kind, String value) {}
+}
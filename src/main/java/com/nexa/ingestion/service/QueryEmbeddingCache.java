@@ -0,0 +1,299 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.HuggingFaceProperties;
+import com.nexa.ingestion.config.SearchProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Caches query embeddings by normalized query text in front of {@link EmbeddingService#embed}, so repeated
+ * questions skip the Hugging Face round trip.
+ *
+ * <p>The cache is an LRU bounded by {@code max-entries} with a TTL per entry; each entry also counts its hits.
+ * Every snapshot interval (and on shutdown) the most hit entries are written to disk and they are loaded again at
+ * startup, so a fresh instance answers popular queries without a cold embedding call. Hit counts are halved on
+ * load so popularity from earlier deployments fades. A snapshot made with a different model is ignored.
+ *
+ * <p>Returned vectors are shared between requests and must not be modified.
+ */
+@Component
+public class QueryEmbeddingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryEmbeddingCache.class);
+    private static final int SNAPSHOT_MAGIC = 0x51454331; // "QEC1"
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.]+$");
+
+    private final EmbeddingService embeddingService;
+    private final SearchProperties.QueryCache properties;
+    private final String model;
+    private final long ttlMillis;
+    private final Path snapshotPath;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean changed;
+
+    public QueryEmbeddingCache(EmbeddingService embeddingService,
+                               SearchProperties searchProperties,
+                               HuggingFaceProperties huggingFaceProperties,
+                               MeterRegistry registry) {
+        this.embeddingService = embeddingService;
+        this.properties = searchProperties.getQueryCache();
+        this.model = huggingFaceProperties.getModel();
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(properties.getTtlMinutes());
+        this.snapshotPath = Paths.get(properties.getSnapshotPath());
+        int maxEntries = properties.getMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("search.query_cache")
+                .description("Query embedding cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("search.query_cache")
+                .description("Query embedding cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("search.query_cache.size", this, QueryEmbeddingCache::size)
+                .description("Query embeddings cached")
+                .register(registry);
+
+        if (properties.isEnabled() && properties.getSnapshotEntries() > 0) {
+            load();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "query-cache-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::snapshot,
+                    properties.getSnapshotIntervalSec(), properties.getSnapshotIntervalSec(), TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            snapshot();
+        }
+    }
+
+    /**
+     * Embeds a search query, from the cache when the same normalized query was embedded within the TTL.
+     * Misses embed the normalized text, so every spelling of a query maps to the same vector.
+     */
+    public Mono<float[]> embed(String query) {
+        if (!properties.isEnabled()) {
+            return embeddingService.embed(query);
+        }
+        return Mono.defer(() -> {
+            String key = normalize(query);
+            if (key.isEmpty()) {
+                return embeddingService.embed(query);
+            }
+            float[] cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            misses.increment();
+            return embeddingService.embed(key).doOnNext(vector -> {
+                if (vector.length > 0) {
+                    put(key, new Entry(vector, System.currentTimeMillis(), 0));
+                }
+            });
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Lowercases, collapses whitespace and drops trailing punctuation: "How do I set up VPN?" and
+     * "how do i set up  vpn" share an entry.
+     */
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String collapsed = WHITESPACE.matcher(query.strip()).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(collapsed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private float[] lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.createdMillis > ttlMillis) {
+                entries.remove(key);
+                return null;
+            }
+            entry.hits++;
+            changed = true;
+            return entry.vector;
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+            changed = true;
+        }
+    }
+
+    /**
+     * Writes the most hit unexpired entries, via a temp file and atomic rename so a crash never leaves the
+     * snapshot truncated.
+     */
+    synchronized void snapshot() {
+        if (!changed) {
+            return;
+        }
+        changed = false;
+        List<Map.Entry<String, Entry>> hot;
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            hot = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (now - e.getValue().createdMillis <= ttlMillis) {
+                    hot.add(Map.entry(e.getKey(), e.getValue().copy()));
+                }
+            }
+        }
+        hot.sort(Comparator.comparingInt((Map.Entry<String, Entry> e) -> e.getValue().hits).reversed());
+        if (hot.size() > properties.getSnapshotEntries()) {
+            hot = hot.subList(0, properties.getSnapshotEntries());
+        }
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeUTF(model);
+                out.writeInt(hot.size());
+                for (Map.Entry<String, Entry> e : hot) {
+                    byte[] query = e.getKey().getBytes(StandardCharsets.UTF_8);
+                    Entry entry = e.getValue();
+                    out.writeInt(query.length);
+                    out.write(query);
+                    out.writeLong(entry.createdMillis);
+                    out.writeInt(entry.hits);
+                    out.writeInt(entry.vector.length);
+                    for (float v : entry.vector) {
+                        out.writeFloat(v);
+                    }
+                }
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} query embeddings to {}", hot.size(), snapshotPath);
+        } catch (IOException e) {
+            changed = true;
+            log.error("Failed to save query embedding snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> loaded = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring query embedding snapshot {}: unknown format", snapshotPath);
+                return;
+            }
+            String snapshotModel = in.readUTF();
+            if (!snapshotModel.equals(model)) {
+                log.info("Ignoring query embedding snapshot {}: made with model {}, now {}",
+                        snapshotPath, snapshotModel, model);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String query = new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+                long createdMillis = in.readLong();
+                int entryHits = in.readInt();
+                float[] vector = new float[in.readInt()];
+                for (int j = 0; j < vector.length; j++) {
+                    vector[j] = in.readFloat();
+                }
+                if (now - createdMillis <= ttlMillis) {
+                    loaded.add(Map.entry(query, new Entry(vector, createdMillis, entryHits / 2)));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read query embedding snapshot {}, starting cold: {}", snapshotPath, e.getMessage());
+            return;
+        }
+        // Least hit first, so the most popular entries end up most recently used
+        loaded.sort(Comparator.comparingInt(e -> e.getValue().hits));
+        synchronized (entries) {
+            for (Map.Entry<String, Entry> e : loaded) {
+                entries.put(e.getKey(), e.getValue());
+            }
+        }
+        log.info("Preloaded {} query embeddings from {}", loaded.size(), snapshotPath);
+    }
+
+    /**
+     * Cached vector; {@code hits} is guarded by the cache lock.
+     */
+    private static final class Entry {
+        private final float[] vector;
+        private final long createdMillis;
+        private int hits;
+
+        private Entry(float[] vector, long createdMillis, int hits) {
+            this.vector = vector;
+            this.createdMillis = createdMillis;
+            this.hits = hits;
+        }
+
+        private Entry copy() {
+            return new Entry(vector, createdMillis, hits);
+        }
+    }
+}
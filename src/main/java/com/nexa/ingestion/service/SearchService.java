@@ -4,8 +4,13 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.nexa.ingestion.config.QdrantProperties;
+import com.nexa.ingestion.config.SearchProperties;
+import com.nexa.ingestion.dto.SearchGroup;
 import com.nexa.ingestion.dto.SearchResult;
-import io.qdrant.client.QdrantClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qdrant.client.ConditionFactory;
+import io.qdrant.client.QdrantGrpcClient;
 import io.qdrant.client.grpc.JsonWithInt;
 import io.qdrant.client.grpc.Points;
 import org.slf4j.Logger;
@@ -13,26 +18,92 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Searches for similar vectors in Qdrant using cosine similarity.
+ *
+ * <p>With hybrid search on ({@link Bm25Encoder#isEnabled()}) and a query text given, a BM25 search over the
+ * sparse vectors runs next to the dense search in the same batch request, each returning
+ * {@code search.hybrid.candidates} points. The two rankings are merged by reciprocal rank fusion: a point's score
+ * becomes the sum of {@code 1 / (rrf-k + rank)} over the searches that found it, and each result records its
+ * rank and score in both. The score threshold applies to the dense search only.
+ *
+ * <p>With {@code search.mmr} on, the search fetches {@code search.mmr.candidates} points with their vectors and
+ * {@link MmrSelector} picks the {@code limit} results from them, skipping near-duplicates of results already
+ * picked. Results keep their search score but are ordered by selection.
+ *
+ * <p>{@link #searchGroups} returns documents instead of chunks, using Qdrant's search groups on
+ * {@code search.groups.field}; it searches the dense vector only and is not cached.
+ *
+ * <p>Results are cached by a hash of the search parameters (collection, vector, limit, score threshold).
+ * Each entry remembers the {@link CollectionWriteGeneration} it was computed at and is dropped once this
+ * instance has written to the collection since (after {@code search.result-cache.max-stale-seconds}), or
+ * after the TTL in any case.
  */
 @Service
 public class SearchService {
 
     private static final Logger log = LoggerFactory.getLogger(SearchService.class);
 
-    private final QdrantClient client;
+    /**
+     * Payload a grouped search returns per chunk: what {@link #extractSearchResult} reads, plus the title.
+     */
+    private static final Points.WithPayloadSelector RESULT_PAYLOAD = Points.WithPayloadSelector.newBuilder()
+            .setInclude(Points.PayloadIncludeSelector.newBuilder()
+                    .addAllFields(List.of("text", "chunk_id", "chunk_index", "page_id", "page_title",
+                            "document_id", "source")))
+            .build();
+
+    private final QdrantGrpcClient grpcClient;
     private final QdrantProperties properties;
+    private final SearchProperties.ResultCache cacheProperties;
+    private final SearchProperties.Hybrid hybridProperties;
+    private final SearchProperties.Mmr mmrProperties;
+    private final SearchProperties.Groups groupProperties;
+    private final Bm25Encoder bm25Encoder;
+    private final CollectionWriteGeneration writeGeneration;
+    private final LinkedHashMap<String, CachedHits> cache;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheStale;
 
-    public SearchService(QdrantProperties properties) {
+    public SearchService(QdrantProperties properties,
+                         SearchProperties searchProperties,
+                         CollectionWriteGeneration writeGeneration,
+                         Bm25Encoder bm25Encoder,
+                         MeterRegistry registry) {
         this.properties = properties;
-        var grpcClientBuilder = io.qdrant.client.QdrantGrpcClient.newBuilder(
+        this.cacheProperties = searchProperties.getResultCache();
+        this.hybridProperties = searchProperties.getHybrid();
+        this.mmrProperties = searchProperties.getMmr();
+        this.groupProperties = searchProperties.getGroups();
+        this.bm25Encoder = bm25Encoder;
+        this.writeGeneration = writeGeneration;
+        int maxEntries = cacheProperties.getMaxEntries();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedHits> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.cacheHits = cacheCounter(registry, "hit");
+        this.cacheMisses = cacheCounter(registry, "miss");
+        this.cacheStale = cacheCounter(registry, "stale");
+        var grpcClientBuilder = QdrantGrpcClient.newBuilder(
                 properties.getHost(),
                 properties.getPort(),
                 properties.isUseTls()
@@ -40,7 +111,7 @@ public class SearchService {
         if (properties.getApiKey() != null && !properties.getApiKey().isBlank()) {
             grpcClientBuilder.withApiKey(properties.getApiKey());
         }
-        this.client = new QdrantClient(grpcClientBuilder.build());
+        this.grpcClient = grpcClientBuilder.build();
     }
 
     /**
@@ -52,41 +123,79 @@ public class SearchService {
      * @return Mono of list of search results
      */
     public Mono<List<SearchResult>> search(float[] queryVector, int limit, double scoreThreshold) {
+        return searchWithStats(null, queryVector, limit, scoreThreshold).map(SearchHits::results);
+    }
+
+    /**
+     * Like {@link #search}, also returning the time Qdrant reports for the search and how many scored
+     * points it returned. Served from the result cache when possible ({@link SearchHits#cached()}).
+     *
+     * @param queryText query for the BM25 side of a hybrid search; null searches the dense vector only
+     */
+    public Mono<SearchHits> searchWithStats(String queryText, float[] queryVector, int limit, double scoreThreshold) {
         if (queryVector == null || queryVector.length == 0) {
             return Mono.error(new IllegalArgumentException("Query vector cannot be empty"));
         }
+        if (!cacheProperties.isEnabled()) {
+            return Mono.defer(() -> query(sparseQuery(queryText), queryVector, limit, scoreThreshold));
+        }
+        return Mono.defer(() -> {
+            Bm25Encoder.SparseVector sparse = sparseQuery(queryText);
+            String key = cacheKey(sparse, queryVector, limit, scoreThreshold);
+            // Read before searching: a write that lands during the search makes the entry stale
+            long generation = writeGeneration.current();
+            SearchHits cached = cached(key, generation);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return query(sparse, queryVector, limit, scoreThreshold)
+                    .doOnNext(hits -> {
+                        synchronized (cache) {
+                            cache.put(key, new CachedHits(hits, generation, System.currentTimeMillis()));
+                        }
+                    });
+        });
+    }
 
-        // Build vector for search - Qdrant expects List<Float>
-        List<Float> vectorList = new java.util.ArrayList<>();
-        for (float v : queryVector) {
-            vectorList.add(v);
+    /**
+     * BM25 query vector, or null for a dense-only search.
+     */
+    private Bm25Encoder.SparseVector sparseQuery(String queryText) {
+        if (queryText == null || !bm25Encoder.isEnabled()) {
+            return null;
         }
+        Bm25Encoder.SparseVector sparse = bm25Encoder.encodeQuery(queryText);
+        return sparse.isEmpty() ? null : sparse;
+    }
 
-        // Use Qdrant client's search method
-        var searchPoints = Points.SearchPoints.newBuilder()
-                .setCollectionName(properties.getCollectionName())
-                .addAllVector(vectorList)  // For single unnamed vector
-                .setLimit(limit)
-                .setWithPayload(Points.WithPayloadSelector.newBuilder()
-                        .setEnable(true)
-                        .build())
-                .setScoreThreshold((float) scoreThreshold)
-                .build();
+    private Mono<SearchHits> query(Bm25Encoder.SparseVector sparse, float[] queryVector, int limit,
+                                   double scoreThreshold) {
+        if (sparse != null) {
+            return hybridQuery(sparse, queryVector, limit, scoreThreshold);
+        }
+        var searchPoints = denseSearch(queryVector, candidates(limit), scoreThreshold);
 
+        // Raw gRPC call rather than QdrantClient.searchAsync, which drops the response's server time
         return Mono.fromFuture(() -> {
-                    ListenableFuture<List<Points.ScoredPoint>> future = client.searchAsync(searchPoints, Duration.ofSeconds(10));
+                    ListenableFuture<Points.SearchResponse> future = grpcClient.points()
+                            .withDeadlineAfter(10, TimeUnit.SECONDS)
+                            .search(searchPoints);
                     return toCompletableFuture(future);
                 })
-                .map(scoredPoints -> {
+                .map(response -> {
                     List<SearchResult> results = new ArrayList<>();
-                    for (Points.ScoredPoint scoredPoint : scoredPoints) {
+                    Map<String, float[]> vectors = new HashMap<>();
+                    for (Points.ScoredPoint scoredPoint : response.getResultList()) {
                         SearchResult result = extractSearchResult(scoredPoint);
                         if (result != null) {
                             results.add(result);
+                            vectors.put(result.getPointId(), denseVector(scoredPoint));
                         }
                     }
+                    results = diversify(results, vectors, limit);
                     log.debug("Found {} similar documents for query", results.size());
-                    return results;
+                    return new SearchHits(List.copyOf(results), response.getResultCount(),
+                            response.getTime() * 1000, false);
                 })
                 .onErrorMap(e -> {
                     String errorMsg = String.format("Vector search failed: %s", e.getMessage());
@@ -95,9 +204,338 @@ public class SearchService {
                 });
     }
 
+    private Mono<SearchHits> hybridQuery(Bm25Encoder.SparseVector sparse, float[] queryVector, int limit,
+                                         double scoreThreshold) {
+        int candidates = Math.max(candidates(limit), hybridProperties.getCandidates());
+        Points.Vector sparseVector = QdrantService.toVector(sparse);
+        var searchBatch = Points.SearchBatchPoints.newBuilder()
+                .setCollectionName(properties.getCollectionName())
+                .addSearchPoints(denseSearch(queryVector, candidates, scoreThreshold))
+                .addSearchPoints(Points.SearchPoints.newBuilder()
+                        .setCollectionName(properties.getCollectionName())
+                        .setVectorName(bm25Encoder.getVectorName())
+                        .addAllVector(sparseVector.getDataList())
+                        .setSparseIndices(sparseVector.getIndices())
+                        .setLimit(candidates)
+                        .setWithPayload(Points.WithPayloadSelector.newBuilder().setEnable(true).build())
+                        .setWithVectors(withVectors()))
+                .build();
+
+        return Mono.fromFuture(() -> {
+                    ListenableFuture<Points.SearchBatchResponse> future = grpcClient.points()
+                            .withDeadlineAfter(10, TimeUnit.SECONDS)
+                            .searchBatch(searchBatch);
+                    return toCompletableFuture(future);
+                })
+                .map(response -> {
+                    List<Points.ScoredPoint> dense = response.getResult(0).getResultList();
+                    List<Points.ScoredPoint> sparseHits = response.getResult(1).getResultList();
+                    List<SearchResult> results;
+                    if (mmrProperties.isEnabled()) {
+                        Map<String, float[]> vectors = new HashMap<>();
+                        for (Points.ScoredPoint point : dense) {
+                            vectors.put(QdrantService.pointId(point.getId()), denseVector(point));
+                        }
+                        for (Points.ScoredPoint point : sparseHits) {
+                            vectors.putIfAbsent(QdrantService.pointId(point.getId()), denseVector(point));
+                        }
+                        results = diversify(fuse(dense, sparseHits, candidates, scoreThreshold), vectors, limit);
+                    } else {
+                        results = fuse(dense, sparseHits, limit, scoreThreshold);
+                    }
+                    log.debug("Found {} documents for query ({} dense, {} sparse candidates)",
+                            results.size(), dense.size(), sparseHits.size());
+                    return new SearchHits(List.copyOf(results), dense.size() + sparseHits.size(),
+                            response.getTime() * 1000, false);
+                })
+                .onErrorMap(e -> {
+                    String errorMsg = String.format("Hybrid search failed: %s", e.getMessage());
+                    log.error(errorMsg, e);
+                    return new RuntimeException(errorMsg, e);
+                });
+    }
+
+    /**
+     * Reciprocal rank fusion of the dense and sparse rankings, keeping the top {@code limit}. With a score
+     * threshold, only points the (thresholded) dense search returned are kept, so a BM25-only hit cannot bypass it.
+     */
+    private List<SearchResult> fuse(List<Points.ScoredPoint> dense, List<Points.ScoredPoint> sparse, int limit,
+                                    double scoreThreshold) {
+        Map<String, SearchResult> fused = new LinkedHashMap<>();
+        addRanking(fused, dense, true);
+        addRanking(fused, sparse, false);
+        return fused.values().stream()
+                .filter(result -> scoreThreshold <= 0 || result.getDenseRank() != null)
+                .sorted(Comparator.comparingDouble(SearchResult::getRankingScore).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void addRanking(Map<String, SearchResult> fused, List<Points.ScoredPoint> ranking, boolean dense) {
+        int k = hybridProperties.getRrfK();
+        for (int i = 0; i < ranking.size(); i++) {
+            Points.ScoredPoint point = ranking.get(i);
+            SearchResult result = fused.get(QdrantService.pointId(point.getId()));
+            if (result == null) {
+                result = extractSearchResult(point);
+                if (result == null) {
+                    continue;
+                }
+                result.setScore(0);
+                result.setFusedScore(0.0);
+                fused.put(result.getPointId(), result);
+            }
+            int rank = i + 1;
+            result.setFusedScore(result.getFusedScore() + 1.0 / (k + rank));
+            if (dense) {
+                result.setScore(point.getScore());
+                result.setDenseRank(rank);
+                result.setDenseScore((double) point.getScore());
+            } else {
+                result.setSparseRank(rank);
+                result.setSparseScore((double) point.getScore());
+            }
+        }
+    }
+
+    /**
+     * The best {@code groups} documents for the query, each with up to {@code groupSize} of its best chunks
+     * (capped at {@code search.groups.max-group-size}). Qdrant groups the hits server-side, so one long document
+     * cannot take every slot, and loads payload only for the chunks it returns.
+     */
+    public Mono<GroupHits> searchGroups(float[] queryVector, int groups, int groupSize, double scoreThreshold) {
+        if (queryVector == null || queryVector.length == 0) {
+            return Mono.error(new IllegalArgumentException("Query vector cannot be empty"));
+        }
+        var searchGroups = Points.SearchPointGroups.newBuilder()
+                .setCollectionName(properties.getCollectionName())
+                .addAllVector(vectorList(queryVector))
+                .setGroupBy(groupProperties.getField())
+                .setGroupSize(Math.min(groupSize, groupProperties.getMaxGroupSize()))
+                .setLimit(groups)
+                .setWithPayload(RESULT_PAYLOAD)
+                .setScoreThreshold((float) scoreThreshold)
+                .build();
+
+        return Mono.fromFuture(() -> {
+                    ListenableFuture<Points.SearchGroupsResponse> future = grpcClient.points()
+                            .withDeadlineAfter(10, TimeUnit.SECONDS)
+                            .searchGroups(searchGroups);
+                    return toCompletableFuture(future);
+                })
+                .map(response -> {
+                    List<SearchGroup> result = new ArrayList<>();
+                    int points = 0;
+                    for (Points.PointGroup group : response.getResult().getGroupsList()) {
+                        points += group.getHitsCount();
+                        List<SearchResult> hits = group.getHitsList().stream()
+                                .map(this::extractSearchResult)
+                                .filter(Objects::nonNull)
+                                .toList();
+                        if (!hits.isEmpty()) {
+                            String title = extractString(group.getHits(0).getPayloadMap(), "source");
+                            result.add(new SearchGroup(groupId(group.getId()), title, hits));
+                        }
+                    }
+                    log.debug("Found {} documents ({} chunks) for query", result.size(), points);
+                    return new GroupHits(List.copyOf(result), points, response.getTime() * 1000);
+                })
+                .onErrorMap(e -> {
+                    String errorMsg = String.format("Grouped search failed: %s", e.getMessage());
+                    log.error(errorMsg, e);
+                    return new RuntimeException(errorMsg, e);
+                });
+    }
+
+    private static String groupId(Points.GroupId id) {
+        return switch (id.getKindCase()) {
+            case STRING_VALUE -> id.getStringValue();
+            case INTEGER_VALUE -> Long.toString(id.getIntegerValue());
+            case UNSIGNED_VALUE -> Long.toUnsignedString(id.getUnsignedValue());
+            default -> "";
+        };
+    }
+
+    /**
+     * Points to fetch for {@code limit} results: the MMR candidates when MMR is on.
+     */
+    private int candidates(int limit) {
+        return mmrProperties.isEnabled() ? Math.max(limit, mmrProperties.getCandidates()) : limit;
+    }
+
+    /**
+     * The {@code limit} results MMR selects from {@code candidates} (best first), or the first {@code limit}
+     * with MMR off.
+     */
+    private List<SearchResult> diversify(List<SearchResult> candidates, Map<String, float[]> vectors, int limit) {
+        if (!mmrProperties.isEnabled() || candidates.size() <= 1) {
+            return candidates.size() > limit ? candidates.subList(0, limit) : candidates;
+        }
+        float[][] candidateVectors = new float[candidates.size()][];
+        double[] scores = new double[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            candidateVectors[i] = vectors.get(candidates.get(i).getPointId());
+            scores[i] = candidates.get(i).getRankingScore();
+        }
+        int[] picks = MmrSelector.select(candidateVectors, scores, limit, mmrProperties.getLambda());
+        List<SearchResult> selected = new ArrayList<>(picks.length);
+        for (int pick : picks) {
+            selected.add(candidates.get(pick));
+        }
+        return selected;
+    }
+
+    /**
+     * Vectors are only needed (and returned) for MMR.
+     */
+    private Points.WithVectorsSelector withVectors() {
+        return Points.WithVectorsSelector.newBuilder().setEnable(mmrProperties.isEnabled()).build();
+    }
+
+    /**
+     * The dense vector Qdrant returned with a point: its only vector, or the unnamed one next to the sparse vector.
+     */
+    private static float[] denseVector(Points.ScoredPoint point) {
+        if (!point.hasVectors()) {
+            return null;
+        }
+        Points.Vectors vectors = point.getVectors();
+        Points.Vector vector = vectors.hasVector() ? vectors.getVector()
+                : vectors.getVectors().getVectorsMap().get("");
+        if (vector == null || vector.hasIndices()) {
+            return null;
+        }
+        float[] data = new float[vector.getDataCount()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = vector.getData(i);
+        }
+        return data;
+    }
+
+    /**
+     * Chunks whose payload {@code fields} (keyword-indexed, see {@link QdrantService}) equal {@code value}
+     * exactly, in document and chunk order, with score 1. Not cached: a filtered scroll costs about as much
+     * as a cache lookup.
+     *
+     * @param limit most chunks returned
+     */
+    public Mono<List<SearchResult>> lookup(List<String> fields, String value, int limit) {
+        Points.Filter.Builder filter = Points.Filter.newBuilder();
+        for (String field : fields) {
+            filter.addShould(ConditionFactory.matchKeyword(field, value));
+        }
+        var scroll = Points.ScrollPoints.newBuilder()
+                .setCollectionName(properties.getCollectionName())
+                .setFilter(filter)
+                .setLimit(limit)
+                .setWithPayload(Points.WithPayloadSelector.newBuilder().setEnable(true).build())
+                .build();
+
+        return Mono.fromFuture(() -> {
+                    ListenableFuture<Points.ScrollResponse> future = grpcClient.points()
+                            .withDeadlineAfter(10, TimeUnit.SECONDS)
+                            .scroll(scroll);
+                    return toCompletableFuture(future);
+                })
+                .map(response -> response.getResultList().stream()
+                        .sorted(Comparator.comparing((Points.RetrievedPoint point) ->
+                                        extractString(point.getPayloadMap(), "document_id"))
+                                .thenComparingInt(point -> extractInt(point.getPayloadMap(), "chunk_id", 0)))
+                        .map(point -> extractSearchResult(point.getId(), point.getPayloadMap(), 1.0))
+                        .filter(Objects::nonNull)
+                        .toList())
+                .onErrorMap(e -> {
+                    String errorMsg = String.format("Lookup of '%s' in %s failed: %s", value, fields, e.getMessage());
+                    log.error(errorMsg, e);
+                    return new RuntimeException(errorMsg, e);
+                });
+    }
+
+    private Points.SearchPoints denseSearch(float[] queryVector, int limit, double scoreThreshold) {
+        return Points.SearchPoints.newBuilder()
+                .setCollectionName(properties.getCollectionName())
+                .addAllVector(vectorList(queryVector))  // For single unnamed vector
+                .setLimit(limit)
+                .setWithPayload(Points.WithPayloadSelector.newBuilder()
+                        .setEnable(true)
+                        .build())
+                .setWithVectors(withVectors())
+                .setScoreThreshold((float) scoreThreshold)
+                .build();
+    }
+
+    /**
+     * Qdrant expects the query vector as List<Float>.
+     */
+    private static List<Float> vectorList(float[] queryVector) {
+        List<Float> vectorList = new ArrayList<>(queryVector.length);
+        for (float v : queryVector) {
+            vectorList.add(v);
+        }
+        return vectorList;
+    }
+
+    private SearchHits cached(String key, long generation) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedHits entry = cache.get(key);
+            if (entry == null) {
+                cacheMisses.increment();
+                return null;
+            }
+            long ageMillis = now - entry.storedMillis();
+            boolean expired = ageMillis > TimeUnit.SECONDS.toMillis(cacheProperties.getTtlSeconds());
+            boolean written = entry.generation() != generation
+                    && ageMillis > TimeUnit.SECONDS.toMillis(cacheProperties.getMaxStaleSeconds());
+            if (expired || written) {
+                cache.remove(key);
+                cacheStale.increment();
+                return null;
+            }
+            cacheHits.increment();
+            SearchHits hits = entry.hits();
+            return new SearchHits(hits.results(), hits.pointsScored(), hits.qdrantTimeMs(), true);
+        }
+    }
+
+    /**
+     * SHA-256 over everything that determines the result.
+     */
+    private String cacheKey(Bm25Encoder.SparseVector sparse, float[] queryVector, int limit, double scoreThreshold) {
+        ByteBuffer params = ByteBuffer.allocate(queryVector.length * Float.BYTES + Integer.BYTES + Double.BYTES);
+        params.asFloatBuffer().put(queryVector);
+        params.position(queryVector.length * Float.BYTES);
+        params.putInt(limit).putDouble(scoreThreshold);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(properties.getCollectionName().getBytes(StandardCharsets.UTF_8));
+            digest.update(params.array());
+            if (sparse != null) {
+                ByteBuffer sparseParams = ByteBuffer.allocate(sparse.indices().length * (Integer.BYTES + Float.BYTES));
+                sparseParams.asIntBuffer().put(sparse.indices());
+                sparseParams.position(sparse.indices().length * Integer.BYTES);
+                sparseParams.asFloatBuffer().put(sparse.values());
+                digest.update(sparseParams.array());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter cacheCounter(MeterRegistry registry, String result) {
+        return Counter.builder("search.result_cache")
+                .description("Search result cache lookups; stale = dropped after a write or the TTL")
+                .tag("result", result)
+                .register(registry);
+    }
+
     private SearchResult extractSearchResult(Points.ScoredPoint scoredPoint) {
+        return extractSearchResult(scoredPoint.getId(), scoredPoint.getPayloadMap(), scoredPoint.getScore());
+    }
+
+    private SearchResult extractSearchResult(Points.PointId id, Map<String, JsonWithInt.Value> payload, double score) {
         try {
-            Map<String, JsonWithInt.Value> payload = scoredPoint.getPayloadMap();
             if (payload == null || payload.isEmpty()) {
                 return null;
             }
@@ -106,11 +544,13 @@ public class SearchService {
             String pageId = extractString(payload, "page_id");
             String pageTitle = extractString(payload, "page_title");
             String text = extractString(payload, "text");
-            int chunkIndex = extractInt(payload, "chunk_index", 0);
-
-            double score = scoredPoint.getScore();
+            // Older Confluence points store the index as chunk_index, the others as chunk_id
+            int chunkIndex = extractInt(payload, "chunk_index", extractInt(payload, "chunk_id", 0));
 
-            return new SearchResult(chunkId, pageId, pageTitle, chunkIndex, text, score);
+            SearchResult result = new SearchResult(chunkId, pageId, pageTitle, chunkIndex, text, score);
+            result.setPointId(QdrantService.pointId(id));
+            result.setDocumentId(extractString(payload, "document_id"));
+            return result;
         } catch (Exception e) {
             log.warn("Failed to extract search result from point: {}", e.getMessage());
             return null;
@@ -152,4 +592,27 @@ public class SearchService {
                 }, java.util.concurrent.Executors.newCachedThreadPool());
         return completableFuture;
     }
+
+    /**
+     * @param pointsScored scored points Qdrant returned (before payload extraction)
+     * @param qdrantTimeMs search time reported by Qdrant
+     * @param cached served from the result cache; the other fields are from the original search
+     */
+    public record SearchHits(List<SearchResult> results, int pointsScored, double qdrantTimeMs, boolean cached) {}
+
+    /**
+     * @param pointsScored chunks Qdrant returned over all groups
+     * @param qdrantTimeMs search time reported by Qdrant
+     */
+    public record GroupHits(List<SearchGroup> groups, int pointsScored, double qdrantTimeMs) {
+
+        /**
+         * The chunks of all groups, best document first.
+         */
+        public List<SearchResult> results() {
+            return groups.stream().flatMap(group -> group.getResults().stream()).toList();
+        }
+    }
+
+    private record CachedHits(SearchHits hits, long generation, long storedMillis) {}
 }
@@ -0,0 +1,219 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.SearchProperties;
+import com.nexa.ingestion.dto.SearchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches LLM answers by query embedding, so a paraphrase of a question answered before reuses its answer.
+ *
+ * <p>A cached answer is returned when the new query's embedding is within {@code min-similarity} (cosine) of
+ * the cached query's and retrieval returned the same set of points: the answer was generated from exactly the
+ * context the new question would get. An entry is dropped as soon as any of its source points is upserted
+ * again (their text may have changed), after its TTL, or by LRU eviction beyond {@code max-entries}. An answer
+ * whose source points were upserted while it was being generated is not cached at all: the cache remembers the
+ * {@link CollectionWriteGeneration} of the most recent upserts of each point and compares it with the generation
+ * the results were retrieved at.
+ *
+ * <p>Lookups compare against every entry; at the default size that is well under a millisecond.
+ */
+@Component
+public class SemanticAnswerCache {
+
+    /**
+     * Points whose latest upsert generation is remembered. Older ones are forgotten, and answers retrieved
+     * before the forgotten generations are then not cached.
+     */
+    static final int RECENT_UPSERTS = 16_384;
+
+    private final SearchProperties.AnswerCache properties;
+    private final long ttlMillis;
+    private final LinkedHashMap<Long, Entry> entries;
+    private final AtomicLong ids = new AtomicLong();
+    private final CollectionWriteGeneration writeGeneration;
+    private final LinkedHashMap<String, Long> recentUpserts = new LinkedHashMap<>();  // point id -> generation
+    private long forgottenGeneration = -1;  // highest generation dropped from recentUpserts
+    private final Counter hits;
+    private final Counter misses;
+
+    public SemanticAnswerCache(SearchProperties searchProperties,
+                               CollectionWriteGeneration writeGeneration,
+                               MeterRegistry registry) {
+        this.properties = searchProperties.getAnswerCache();
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(properties.getTtlMinutes());
+        int maxEntries = properties.getMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("search.answer_cache")
+                .description("Semantic answer cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("search.answer_cache")
+                .description("Semantic answer cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("search.answer_cache.size", this, SemanticAnswerCache::size)
+                .description("Answers cached")
+                .register(registry);
+        this.writeGeneration = writeGeneration;
+        writeGeneration.onPointsUpserted(this::invalidate);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * The cached answer for a query similar enough to {@code queryVector} that retrieved the same points,
+     * or null.
+     */
+    public String lookup(float[] queryVector, List<SearchResult> results) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        float[] query = unit(queryVector);
+        Set<String> sources = sources(results);
+        long now = System.currentTimeMillis();
+        Entry best = null;
+        double bestSimilarity = properties.getMinSimilarity();
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (now - entry.storedMillis > ttlMillis) {
+                    it.remove();
+                    continue;
+                }
+                if (!entry.sources.equals(sources)) {
+                    continue;
+                }
+                double similarity = dot(query, entry.queryVector);
+                if (similarity >= bestSimilarity) {
+                    best = entry;
+                    bestSimilarity = similarity;
+                }
+            }
+            if (best != null) {
+                entries.get(best.id); // refresh LRU position
+            }
+        }
+        if (best == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return best.answer;
+    }
+
+    /**
+     * Caches an answer generated from {@code results} for a query. Results without point ids (which would
+     * make invalidation impossible) are not cached, nor are answers whose source points were upserted after
+     * the results were retrieved.
+     *
+     * @param generation {@link CollectionWriteGeneration#current()} read before the results were retrieved
+     */
+    public void store(float[] queryVector, List<SearchResult> results, String answer, long generation) {
+        if (!properties.isEnabled() || answer == null || answer.isBlank()
+                || results.stream().map(SearchResult::getPointId).anyMatch(Objects::isNull)) {
+            return;
+        }
+        Entry entry = new Entry(ids.incrementAndGet(), unit(queryVector), sources(results), answer,
+                System.currentTimeMillis());
+        synchronized (entries) {
+            if (forgottenGeneration > generation) {
+                return;
+            }
+            for (String source : entry.sources) {
+                Long upserted = recentUpserts.get(source);
+                if (upserted != null && upserted > generation) {
+                    return;
+                }
+            }
+            entries.put(entry.id, entry);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void invalidate(Collection<String> pointIds) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Set<String> written = pointIds instanceof Set<String> set ? set : new HashSet<>(pointIds);
+        // Read after the write advanced it, so it is above the generation of any search that could miss the write
+        long generation = writeGeneration.current();
+        synchronized (entries) {
+            for (String pointId : written) {
+                recentUpserts.remove(pointId);  // re-inserted at the end, keeping the map ordered by generation
+                recentUpserts.put(pointId, generation);
+            }
+            Iterator<Long> oldest = recentUpserts.values().iterator();
+            while (recentUpserts.size() > RECENT_UPSERTS) {
+                forgottenGeneration = Math.max(forgottenGeneration, oldest.next());
+                oldest.remove();
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+            entries.values().removeIf(entry -> entry.sources.stream().anyMatch(written::contains));
+        }
+    }
+
+    private static Set<String> sources(List<SearchResult> results) {
+        Set<String> sources = new HashSet<>();
+        for (SearchResult result : results) {
+            sources.add(result.getPointId());
+        }
+        return sources;
+    }
+
+    private static float[] unit(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] unit = new float[vector.length];
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                unit[i] = vector[i] * scale;
+            }
+        }
+        return unit;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record Entry(long id, float[] queryVector, Set<String> sources, String answer, long storedMillis) {}
+}
@@ -0,0 +1,43 @@
+package com.nexa.ingestion.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight execution among concurrent callers with the same key.
+ *
+ * <p>The first caller for a key starts the work; callers arriving while it runs subscribe to the same execution
+ * and receive its result or error. The key is released when the work terminates, so a caller arriving afterwards
+ * starts a new execution. A caller that goes away does not affect the others, but once the last one has (e.g.
+ * every client disconnected), the execution is cancelled, including any cache fill it would have done, and the
+ * key is released.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Result of the in-flight execution for {@code key}, starting {@code work} if there is none.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> work) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> start(k, work)));
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private Mono<V> start(K key, Supplier<Mono<V>> work) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        // share() is reference-counted: it cancels the work when its last subscriber cancels
+        Mono<V> flight = Mono.defer(work)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(flight);
+        return flight;
+    }
+}
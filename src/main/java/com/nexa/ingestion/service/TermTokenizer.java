@@ -0,0 +1,69 @@
+package com.nexa.ingestion.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into terms for the sparse (BM25) vectors.
+ *
+ * <p>Terms are lowercased runs of letters and digits. Runs joined by {@code - _ . : / #} are also kept as one
+ * compound term next to their parts, so identifiers match exactly: {@code ERR-4711} gives {@code err-4711},
+ * {@code err} and {@code 4711}; {@code spring.datasource.url} gives the property name and its three parts.
+ * Common English stopwords and single letters are dropped.
+ *
+ * <p>Changing the rules changes the terms of new chunks only; chunks already stored keep their old terms
+ * until they are ingested again.
+ */
+public final class TermTokenizer {
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+(?:[-_.:/#][\\p{L}\\p{N}]+)*");
+    private static final Pattern SEPARATOR = Pattern.compile("[-_.:/#]");
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from", "how",
+            "i", "if", "in", "into", "is", "it", "its", "me", "my", "no", "not", "of", "on", "or", "our", "so",
+            "that", "the", "their", "then", "there", "these", "this", "to", "was", "we", "what", "when", "where",
+            "which", "who", "why", "will", "with", "you", "your");
+
+    private TermTokenizer() {
+    }
+
+    /**
+     * Terms of {@code text} in order of occurrence, with repeats.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        Matcher matcher = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String token = matcher.group();
+            if (token.length() > MAX_TERM_LENGTH) {
+                continue;
+            }
+            String[] parts = SEPARATOR.split(token);
+            if (parts.length > 1) {
+                terms.add(token);
+            }
+            for (String part : parts) {
+                if (keep(part)) {
+                    terms.add(part);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static boolean keep(String term) {
+        if (term.length() == 1 && !Character.isDigit(term.charAt(0))) {
+            return false;
+        }
+        return !STOPWORDS.contains(term);
+    }
+}
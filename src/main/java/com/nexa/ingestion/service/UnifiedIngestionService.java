@@ -1,13 +1,14 @@
 package com.nexa.ingestion.service;
 
+import com.nexa.ingestion.config.FileSystemProperties;
 import com.nexa.ingestion.config.HuggingFaceProperties;
 import com.nexa.ingestion.config.IngestionProperties;
 import com.nexa.ingestion.dto.DocumentMetadata;
 import com.nexa.ingestion.dto.SourceDocument;
+import com.nexa.ingestion.dto.confluence.ConfluencePage;
 import com.nexa.ingestion.dto.qdrant.QdrantPoint;
-import com.nexa.ingestion.util.HtmlToPlainText;
-import org.apache.tika.Tika;
-import org.apache.tika.exception.TikaException;
+import com.nexa.ingestion.jfr.ChunkingEvent;
+import com.nexa.ingestion.service.extract.TextExtractorRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
@@ -15,16 +16,20 @@ import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Unified ingestion orchestrator for multiple sources.
@@ -38,54 +43,85 @@ public class UnifiedIngestionService {
     private final ConfluenceService confluenceService;
     private final JiraService jiraService;
     private final GitHubService githubService;
-    private final FileSystemService fileSystemService;
+    private final FileSystemCrawler fileSystemCrawler;
+    private final FileSystemProperties fileSystemProperties;
     private final SemanticChunkingService chunkingService;
-    private final EmbeddingService embeddingService;
     private final QdrantService qdrantService;
     private final HuggingFaceProperties huggingFaceProperties;
     private final IngestionProperties ingestionProperties;
-    private final Tika tika;
+    private final TextExtractorRegistry extractorRegistry;
+    private final CheckpointLog checkpointLog;
+    private final IngestionScheduler ingestionScheduler;
+    private final PointSpool pointSpool;
+    private final Bm25Encoder bm25Encoder;
+    private final DeadLetterStore deadLetters;
+    private final MemoryBudget memoryBudget;
+    private final PipelineMetrics metrics;
 
     public UnifiedIngestionService(
             ConfluenceService confluenceService,
             JiraService jiraService,
             GitHubService githubService,
-            FileSystemService fileSystemService,
+            FileSystemCrawler fileSystemCrawler,
+            FileSystemProperties fileSystemProperties,
             SemanticChunkingService chunkingService,
-            EmbeddingService embeddingService,
             QdrantService qdrantService,
             HuggingFaceProperties huggingFaceProperties,
-            IngestionProperties ingestionProperties) {
+            IngestionProperties ingestionProperties,
+            TextExtractorRegistry extractorRegistry,
+            CheckpointLog checkpointLog,
+            IngestionScheduler ingestionScheduler,
+            PointSpool pointSpool,
+            Bm25Encoder bm25Encoder,
+            DeadLetterStore deadLetters,
+            MemoryBudget memoryBudget,
+            PipelineMetrics metrics) {
         this.confluenceService = confluenceService;
         this.jiraService = jiraService;
         this.githubService = githubService;
-        this.fileSystemService = fileSystemService;
+        this.fileSystemCrawler = fileSystemCrawler;
+        this.fileSystemProperties = fileSystemProperties;
         this.chunkingService = chunkingService;
-        this.embeddingService = embeddingService;
         this.qdrantService = qdrantService;
         this.huggingFaceProperties = huggingFaceProperties;
         this.ingestionProperties = ingestionProperties;
-        this.tika = new Tika();
+        this.extractorRegistry = extractorRegistry;
+        this.checkpointLog = checkpointLog;
+        this.ingestionScheduler = ingestionScheduler;
+        this.pointSpool = pointSpool;
+        this.bm25Encoder = bm25Encoder;
+        this.deadLetters = deadLetters;
+        this.memoryBudget = memoryBudget;
+        this.metrics = metrics;
     }
 
     /**
      * Ingests all configured sources and stores embeddings in Qdrant.
+     * Sources are crawled concurrently and share the embed/upsert stages via {@link IngestionScheduler}.
+     * A failing source is logged and counted as empty; the others run to completion.
      */
     public Mono<IngestionResult> ingestAll() {
         log.info("Starting unified ingestion from all sources");
         return qdrantService.ensureCollection()
-                .then(Flux.concat(
-                        ingestConfluence(),
-                        ingestJira(),
-                        ingestGitHub(),
-                        ingestFileSystem()
-                ).collectList())
-                .map(results -> {
-                    int totalChunks = results.stream().mapToInt(r -> r.chunksProcessed).sum();
-                    int totalDocuments = results.stream().mapToInt(r -> r.documentsProcessed).sum();
-                    log.info("Ingestion complete: {} documents, {} chunks", totalDocuments, totalChunks);
-                    return new IngestionResult(totalDocuments, totalChunks);
-                });
+                .then(Flux.merge(
+                        isolated("Confluence", Mono.defer(this::ingestConfluence)),
+                        isolated("Jira", Mono.defer(this::ingestJira)),
+                        isolated("GitHub", Mono.defer(this::ingestGitHub)),
+                        isolated("filesystem", Mono.defer(this::ingestFileSystem))
+                ).reduce(IngestionResult.EMPTY, IngestionResult::plus))
+                .doOnNext(result -> log.info("Ingestion complete: {} documents, {} chunks",
+                        result.documentsProcessed, result.chunksProcessed));
+    }
+
+    /**
+     * Ingestion of one source, space, project or repository that cannot cancel the others crawled alongside it:
+     * on error it is logged and counts as empty. Its checkpoint run is kept, so the next run resumes it.
+     */
+    private Mono<IngestionResult> isolated(String name, Mono<IngestionResult> ingestion) {
+        return ingestion.onErrorResume(e -> {
+            log.error("Ingestion of {} failed, continuing with the others: {}", name, e.getMessage());
+            return Mono.just(IngestionResult.EMPTY);
+        });
     }
 
     /**
@@ -98,41 +134,59 @@ public class UnifiedIngestionService {
     }
 
     /**
-     * Ingests all Confluence spaces configured.
+     * Ingests all Confluence spaces configured in {@code confluence.spaces}, a few at a time.
+     * A failing space does not stop the others.
      */
     public Mono<IngestionResult> ingestConfluence() {
-        // For now, ingest all spaces found via API
-        // In production, you'd configure specific spaces
-        return Mono.just(new IngestionResult(0, 0)); // Placeholder
+        List<String> spaces = confluenceService.getSpaces();
+        if (spaces.isEmpty()) {
+            return Mono.just(IngestionResult.EMPTY);
+        }
+        log.info("Ingesting Confluence spaces: {}", spaces);
+        return qdrantService.ensureCollection()
+                .then(Flux.fromIterable(spaces)
+                        .flatMap(space -> isolated("Confluence space " + space, ingestConfluenceSpaceInternal(space)),
+                                ingestionProperties.getScheduling().getSourceConcurrency())
+                        .reduce(IngestionResult.EMPTY, IngestionResult::plus));
     }
 
     private Mono<IngestionResult> ingestConfluenceSpaceInternal(String spaceKey) {
-        return confluenceService.getPagesInSpace(spaceKey)
-                .flatMap(page -> {
-                    String text = confluenceService.getPageTitleAndPlainText(page);
-                    SourceDocument doc = new SourceDocument();
-                    doc.setId(page.getId());
-                    doc.setTitle(page.getTitle());
-                    doc.setContent(text);
-                    doc.setSourceType("Confluence");
-                    doc.setUrl(page.getLinks() != null ? page.getLinks().getWebui() : "");
-                    doc.setSecurityLevel("internal");
-                    doc.setLanguage("en");
-                    return processDocument(doc);
-                })
-                .collectList()
-                .map(results -> {
-                    int chunks = results.stream().mapToInt(r -> r.chunksProcessed).sum();
-                    return new IngestionResult(results.size(), chunks);
-                });
+        return ingestWithCheckpoints("confluence:" + spaceKey, true,
+                checkpoint -> confluenceService.getPagesInSpace(spaceKey, (int) checkpoint.startCursor())
+                        .map(this::toSourceDocument));
+    }
+
+    private SourceDocument toSourceDocument(ConfluencePage page) {
+        String text = confluenceService.getPageTitleAndPlainText(page);
+        SourceDocument doc = new SourceDocument();
+        doc.setId(page.getId());
+        doc.setTitle(page.getTitle());
+        doc.setContent(text);
+        doc.setSourceType("Confluence");
+        doc.setUrl(page.getLinks() != null ? page.getLinks().getWebui() : "");
+        doc.setSecurityLevel("internal");
+        doc.setLanguage("en");
+        return doc;
     }
 
     /**
-     * Ingests Jira issues from configured projects.
+     * Ingests all Jira projects configured in {@code jira.projects}, a few at a time.
+     * A failing project does not stop the others.
      */
     public Mono<IngestionResult> ingestJira() {
-        // Placeholder - configure projects in application.yml
-        return Mono.just(new IngestionResult(0, 0));
+        List<String> projects = jiraService.getProjects();
+        if (projects.isEmpty()) {
+            return Mono.just(IngestionResult.EMPTY);
+        }
+        log.info("Ingesting Jira projects: {}", projects);
+        return qdrantService.ensureCollection()
+                .then(Flux.fromIterable(projects)
+                        .flatMap(project -> isolated("Jira project " + project,
+                                        ingestWithCheckpoints("jira:" + project, true,
+                                                checkpoint -> jiraService.getIssuesFromProject(project,
+                                                        (int) checkpoint.startCursor()))),
+                                ingestionProperties.getScheduling().getSourceConcurrency())
+                        .reduce(IngestionResult.EMPTY, IngestionResult::plus));
     }
 
     /**
@@ -141,43 +195,158 @@ public class UnifiedIngestionService {
     public Mono<IngestionResult> ingestJiraProject(String projectKey) {
         log.info("Ingesting Jira project: {}", projectKey);
         return qdrantService.ensureCollection()
-                .then(jiraService.getIssuesFromProject(projectKey)
-                        .flatMap(this::processDocument)
-                        .collectList()
-                        .map(results -> {
-                            int chunks = results.stream().mapToInt(r -> r.chunksProcessed).sum();
-                            return new IngestionResult(results.size(), chunks);
-                        }));
+                .then(ingestWithCheckpoints("jira:" + projectKey, true,
+                        checkpoint -> jiraService.getIssuesFromProject(projectKey, (int) checkpoint.startCursor())));
     }
 
     /**
      * Ingests GitHub repositories.
+     * File order is not stable across runs, so an interrupted run resumes by blob SHA rather than by offset.
+     * A failing repository does not stop the others.
      */
     public Mono<IngestionResult> ingestGitHub() {
         log.info("Ingesting GitHub repositories");
         return qdrantService.ensureCollection()
-                .then(githubService.getAllRepositoryFiles()
-                        .flatMap(this::processDocument)
-                        .collectList()
-                        .map(results -> {
-                            int chunks = results.stream().mapToInt(r -> r.chunksProcessed).sum();
-                            return new IngestionResult(results.size(), chunks);
-                        }));
+                .then(Flux.fromIterable(githubService.getRepositories())
+                        .flatMap(repo -> isolated("GitHub repository " + repo,
+                                        ingestWithCheckpoints("github:" + repo, false,
+                                                checkpoint -> githubService.getFilesFromRepository(repo,
+                                                        checkpoint::isDone))),
+                                ingestionProperties.getScheduling().getSourceConcurrency())
+                        .reduce(IngestionResult.EMPTY, IngestionResult::plus));
+    }
+
+    /**
+     * Runs a source through {@link #processDocument} under a {@link CheckpointLog} run.
+     * Each document gets its source position (resume cursor + index); documents already upserted by an
+     * interrupted run are skipped. The run is completed only if the source completes; on error or cancel
+     * its checkpoint is kept so the next run resumes.
+     *
+     * @param runKey checkpoint key for the source
+     * @param ordered true if the source can be re-read from a position (offset-paged APIs)
+     * @param source documents to ingest, starting at {@link CheckpointLog.RunCheckpoint#startCursor()}
+     */
+    private Mono<IngestionResult> ingestWithCheckpoints(String runKey, boolean ordered,
+                                                        Function<CheckpointLog.RunCheckpoint, Flux<SourceDocument>> source) {
+        return Mono.defer(() -> {
+            CheckpointLog.RunCheckpoint checkpoint = ordered
+                    ? checkpointLog.begin(runKey)
+                    : checkpointLog.beginUnordered(runKey);
+            long start = checkpoint.startCursor();
+            return source.apply(checkpoint)
+                    .index()
+                    .flatMap(indexed -> {
+                        long pos = start + indexed.getT1();
+                        SourceDocument doc = indexed.getT2();
+                        if (checkpoint.isDone(doc.getId())) {
+                            checkpoint.skipped(pos);
+                            return Mono.empty();
+                        }
+                        checkpoint.inFlight(pos, doc.getId());
+                        return processDocument(doc)
+                                .doOnNext(result -> {
+                                    if (result.failed) {
+                                        checkpoint.skipped(pos);
+                                    } else {
+                                        checkpoint.documentDone(pos, doc.getId());
+                                    }
+                                });
+                    }, 10)  // Bounded so documents waiting for the memory budget hold back fetching
+                    .reduce(IngestionResult.EMPTY, IngestionResult::plusDocument)
+                    .doFinally(signal -> {
+                        if (signal == SignalType.ON_COMPLETE) {
+                            checkpoint.complete();
+                        } else {
+                            checkpoint.release();
+                        }
+                    });
+        }).contextWrite(IngestionScheduler.flow(runKey))
+                .contextWrite(IngestionScheduler.defaultLane(IngestionScheduler.Lane.BULK));
     }
 
     /**
      * Ingests files from filesystem.
+     * Only files that are new or changed since the last run (per the crawler manifest) are read;
+     * points of files deleted from disk are removed from Qdrant.
      */
     public Mono<IngestionResult> ingestFileSystem() {
         log.info("Ingesting filesystem");
         return qdrantService.ensureCollection()
-                .then(Flux.fromStream(fileSystemService.scanFiles())
-                        .flatMap(this::processDocument, 10)  // Limit concurrency
-                        .collectList()
-                        .map(results -> {
-                            int chunks = results.stream().mapToInt(r -> r.chunksProcessed).sum();
-                            return new IngestionResult(results.size(), chunks);
-                        }));
+                .then(fileSystemCrawler.scan())
+                .flatMap(scan -> {
+                    log.info("Filesystem scan: {} changed, {} unchanged, {} deleted",
+                            scan.changed().size(), scan.unchanged(), scan.deleted().size());
+                    Mono<IngestionResult> changed = Flux.fromIterable(scan.changed())
+                            .flatMap(fileSystemCrawler::read, fileSystemProperties.getReadConcurrency())
+                            .flatMap(this::processFileSnapshot, 10)  // Limit concurrency
+                            .reduce(IngestionResult.EMPTY, IngestionResult::plusDocument);
+                    return changed.flatMap(result -> deleteRemovedFiles(scan.deleted()).thenReturn(result));
+                })
+                .doFinally(signal -> fileSystemCrawler.saveManifest())
+                .contextWrite(IngestionScheduler.flow("filesystem"))
+                .contextWrite(IngestionScheduler.defaultLane(IngestionScheduler.Lane.INCREMENTAL));
+    }
+
+    /**
+     * Ingests only the given filesystem paths, without rescanning base paths.
+     * Paths that still exist are re-read (if their content changed); paths that are gone,
+     * including deleted directories, have their points removed.
+     *
+     * @param paths files or directories reported as changed
+     * @return ingestion result for the files that were re-ingested
+     */
+    public Mono<IngestionResult> ingestFilePaths(Collection<Path> paths) {
+        List<Path> existing = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.exists(path)) {
+                existing.add(path);
+            } else {
+                removed.addAll(fileSystemCrawler.ingestedPathsUnder(path));
+            }
+        }
+        log.info("Ingesting {} changed and {} removed filesystem paths", existing.size(), removed.size());
+        return qdrantService.ensureCollection()
+                .then(Flux.fromIterable(existing)
+                        .flatMap(fileSystemCrawler::stat)
+                        .flatMap(fileSystemCrawler::read, fileSystemProperties.getReadConcurrency())
+                        .flatMap(this::processFileSnapshot, 10)
+                        .reduce(IngestionResult.EMPTY, IngestionResult::plusDocument))
+                .flatMap(result -> deleteRemovedFiles(removed).thenReturn(result))
+                .doFinally(signal -> fileSystemCrawler.saveManifest())
+                .contextWrite(IngestionScheduler.flow("filesystem"))
+                .contextWrite(IngestionScheduler.defaultLane(IngestionScheduler.Lane.INCREMENTAL));
+    }
+
+    /**
+     * Processes a changed file and records it in the manifest once its points are upserted.
+     * Chunks beyond the new chunk count are deleted so a shrunk file leaves no stale points; like all deletes,
+     * this goes through the {@link PointSpool} so it cannot overtake the file's spooled points.
+     */
+    private Mono<DocumentProcessResult> processFileSnapshot(FileSystemCrawler.FileSnapshot snapshot) {
+        SourceDocument doc = snapshot.document();
+        return processDocument(doc)
+                .flatMap(result -> {
+                    if (result.failed || deadLetters.contains(doc.getSourceType(), doc.getId())) {
+                        // Not recorded in the manifest, so the next scan tries the file again
+                        return Mono.just(result);
+                    }
+                    Mono<Void> cleanup = snapshot.previouslyIngested()
+                            ? pointSpool.deleteChunksFrom(doc.getId(), result.chunksProcessed)
+                            : Mono.empty();
+                    return cleanup
+                            .doOnSuccess(v -> fileSystemCrawler.markIngested(snapshot))
+                            .thenReturn(result)
+                            .onErrorResume(e -> Mono.just(result));
+                });
+    }
+
+    private Mono<Void> deleteRemovedFiles(List<String> deletedIds) {
+        return Flux.fromIterable(deletedIds)
+                .flatMap(id -> pointSpool.deleteByDocumentId(id)
+                        .doOnSuccess(v -> fileSystemCrawler.markDeleted(id))
+                        .onErrorResume(e -> Mono.empty()), 4)
+                .then();
     }
 
     // Supported file extensions for upload
@@ -202,7 +371,7 @@ public class UnifiedIngestionService {
         }
 
         return qdrantService.ensureCollection()
-                .then(readFileContent(filePart, extension))
+                .then(readFileContent(filePart))
                 .flatMap(content -> {
                     if (content == null || content.isBlank()) {
                         return Mono.just(new IngestionResult(0, 0));
@@ -219,12 +388,14 @@ public class UnifiedIngestionService {
                     doc.setUpdatedAt(Instant.now());
 
                     return processDocument(doc)
-                            .map(r -> new IngestionResult(1, r.chunksProcessed));
+                            .map(r -> new IngestionResult(1, r.chunksProcessed, r.failed ? 1 : 0));
                 })
                 .onErrorResume(e -> {
                     log.error("Error ingesting file {}: {}", filename, e.getMessage());
                     return Mono.just(new IngestionResult(0, 0));
-                });
+                })
+                .contextWrite(IngestionScheduler.flow("upload"))
+                .contextWrite(IngestionScheduler.defaultLane(IngestionScheduler.Lane.INTERACTIVE));
     }
 
     /**
@@ -237,21 +408,16 @@ public class UnifiedIngestionService {
         log.info("Ingesting multiple uploaded files");
         return qdrantService.ensureCollection()
                 .thenMany(files.flatMap(this::ingestUploadedFile, 5))
-                .collectList()
-                .map(results -> {
-                    int totalDocs = results.stream().mapToInt(r -> r.documentsProcessed).sum();
-                    int totalChunks = results.stream().mapToInt(r -> r.chunksProcessed).sum();
-                    log.info("Uploaded files ingestion complete: {} documents, {} chunks", totalDocs, totalChunks);
-                    return new IngestionResult(totalDocs, totalChunks);
-                });
+                .reduce(IngestionResult.EMPTY, IngestionResult::plus)
+                .doOnNext(result -> log.info("Uploaded files ingestion complete: {} documents, {} chunks",
+                        result.documentsProcessed, result.chunksProcessed));
     }
 
     /**
-     * Reads file content using Apache Tika.
-     * Supports: .txt, .md, .html, .pdf, .docx, and many other formats.
-     * Tika automatically detects file type and extracts text.
+     * Reads file content via the extractor registry.
+     * Text, markdown and HTML are decoded directly; DOCX is streamed; Tika handles PDF and anything else.
      */
-    private Mono<String> readFileContent(FilePart filePart, String extension) {
+    private Mono<String> readFileContent(FilePart filePart) {
         return DataBufferUtils.join(filePart.content())
                 .map(dataBuffer -> {
                     byte[] bytes = new byte[dataBuffer.readableByteCount()];
@@ -259,61 +425,13 @@ public class UnifiedIngestionService {
                     DataBufferUtils.release(dataBuffer);
                     return bytes;
                 })
-                .map(bytes -> {
-                    try {
-                        String extensionLower = extension.toLowerCase();
-
-                        // Use Tika for PDF and DOCX (handles font issues better than PDFBox)
-                        if (".pdf".equals(extensionLower) || ".docx".equals(extensionLower)) {
-                            return extractTextWithTika(bytes);
-                        }
-
-                        // Handle HTML files - convert to plain text
-                        if (".html".equals(extensionLower) || ".htm".equals(extensionLower)) {
-                            String content = new String(bytes, StandardCharsets.UTF_8);
-                            return HtmlToPlainText.convert(content);
-                        }
-
-                        // For other text files, try Tika first (handles encoding better)
-                        // Fallback to plain string if Tika fails
-                        try {
-                            return extractTextWithTika(bytes);
-                        } catch (Exception e) {
-                            log.debug("Tika extraction failed for {}, using plain text: {}", extension, e.getMessage());
-                            return new String(bytes, StandardCharsets.UTF_8);
-                        }
-                    } catch (Exception e) {
-                        log.error("Error reading file content: {}", e.getMessage(), e);
-                        return "";
-                    }
-                })
+                .map(bytes -> extractorRegistry.extract(filePart.filename(), bytes))
                 .onErrorResume(e -> {
                     log.error("Error processing file: {}", e.getMessage(), e);
                     return Mono.just("");
                 });
     }
 
-    /**
-     * Extracts text from files using Apache Tika.
-     * Tika automatically detects file type and extracts text.
-     * Handles PDF, DOCX, and many other formats without font issues.
-     *
-     * @param fileBytes file bytes
-     * @return extracted text, empty string on error
-     */
-    private String extractTextWithTika(byte[] fileBytes) {
-        try (InputStream inputStream = new ByteArrayInputStream(fileBytes)) {
-            String text = tika.parseToString(inputStream);
-            return text != null ? text.trim() : "";
-        } catch (IOException | TikaException e) {
-            log.warn("Error extracting text with Tika: {}", e.getMessage());
-            return "";
-        } catch (Exception e) {
-            log.error("Unexpected error in Tika extraction: {}", e.getMessage(), e);
-            return "";
-        }
-    }
-
     private String getFileExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
             return "";
@@ -323,22 +441,67 @@ public class UnifiedIngestionService {
 
     /**
      * Processes a single document: chunks, generates embeddings, stores in Qdrant.
+     * Reports to the {@link IngestionProgress} in the subscriber context, if any, and schedules the embed and
+     * upsert requests in the context's {@link IngestionScheduler} lane and flow.
+     * The document holds a {@link MemoryBudget} permit for its text, grown by its chunks before embedding and
+     * by its vectors and payloads before they are built, until its points are written.
      */
     private Mono<DocumentProcessResult> processDocument(SourceDocument doc) {
+        return Mono.deferContextual(ctx -> processDocument(doc, IngestionProgress.from(ctx),
+                IngestionScheduler.laneFrom(ctx),
+                IngestionScheduler.flowFrom(ctx, String.valueOf(doc.getSourceType()).toLowerCase())));
+    }
+
+    private Mono<DocumentProcessResult> processDocument(SourceDocument doc, IngestionProgress progress,
+                                                        IngestionScheduler.Lane lane, String flow) {
+        long submittedNanos = System.nanoTime();
         if (doc.getContent() == null || doc.getContent().isBlank()) {
+            progress.documentProcessed();
             return Mono.just(new DocumentProcessResult(0));
         }
+        return memoryBudget.acquire(MemoryBudget.bytesOf(doc.getContent()))
+                .flatMap(permit -> processDocument(doc, progress, lane, flow, submittedNanos, permit)
+                        .doFinally(signal -> permit.release()));
+    }
 
-        List<String> chunks = chunkingService.chunkWithOverlap(
-                doc.getContent(),
-                ingestionProperties.getChunk().getTargetTokensMin(),
-                ingestionProperties.getChunk().getTargetTokensMax(),
-                ingestionProperties.getChunk().getOverlapTokens()
-        );
+    private Mono<DocumentProcessResult> processDocument(SourceDocument doc, IngestionProgress progress,
+                                                        IngestionScheduler.Lane lane, String flow,
+                                                        long submittedNanos, MemoryBudget.Permit permit) {
+
+        List<String> chunks;
+        ChunkingEvent chunkingEvent = new ChunkingEvent();
+        chunkingEvent.begin();
+        try {
+            chunks = chunkingService.chunkWithOverlap(
+                    doc.getContent(),
+                    ingestionProperties.getChunk().getTargetTokensMin(),
+                    ingestionProperties.getChunk().getTargetTokensMax(),
+                    ingestionProperties.getChunk().getOverlapTokens()
+            );
+        } catch (RuntimeException e) {
+            commitChunking(chunkingEvent, doc, -1);
+            return Mono.just(documentFailed(doc, DeadLetterStore.Stage.CHUNK, e, progress));
+        }
+        commitChunking(chunkingEvent, doc, chunks.size());
 
         if (chunks.isEmpty()) {
+            progress.documentProcessed();
             return Mono.just(new DocumentProcessResult(0));
         }
+        progress.chunksCreated(chunks.size());
+        metrics.chunksCreated(doc.getSourceType(), chunks.size());
+
+        long chunkBytes = 0;
+        for (String chunk : chunks) {
+            chunkBytes += MemoryBudget.bytesOf(chunk);
+        }
+        // Each point carries a vector and a payload with its chunk text
+        long pointBytes = memoryBudget.vectorBytes(chunks.size()) + chunkBytes;
+
+        // BM25 sparse vectors for hybrid search, encoded once per chunk alongside its embedding
+        List<Bm25Encoder.SparseVector> sparseVectors = bm25Encoder.isEnabled()
+                ? chunks.stream().map(bm25Encoder::encodeDocument).toList()
+                : List.of();
 
         // Generate embeddings in batches
         int batchSize = ingestionProperties.getEmbedBatchSize();
@@ -349,7 +512,8 @@ public class UnifiedIngestionService {
             List<String> batch = chunks.subList(i, end);
             final int startIdx = i;
             
-            Mono<List<QdrantPoint>> batchMono = embeddingService.embedBatch(batch)
+            Mono<List<QdrantPoint>> batchMono = ingestionScheduler.embed(lane, flow, batch)
+                    .flatMapIterable(vectors -> vectors)
                     .index()
                     .map(tuple -> {
                         int idx = tuple.getT1().intValue();
@@ -358,33 +522,139 @@ public class UnifiedIngestionService {
                         int chunkIndex = startIdx + idx;
                         
                         DocumentMetadata metadata = buildMetadata(doc, chunkText, chunkIndex);
-                        return QdrantService.toPoint(metadata, vector);
+                        QdrantPoint point = QdrantService.toPoint(metadata, vector);
+                        if (!sparseVectors.isEmpty()) {
+                            point.setSparseIndices(sparseVectors.get(chunkIndex).indices());
+                            point.setSparseValues(sparseVectors.get(chunkIndex).values());
+                        }
+                        return point;
                     })
-                    .collectList();
+                    .collectList()
+                    .doOnNext(points -> progress.chunksEmbedded(points.size()));
             
             batchMonos.add(batchMono);
         }
 
-        return Flux.fromIterable(batchMonos)
+        return permit.grow(chunkBytes)
+                .then(permit.grow(pointBytes))
+                .thenMany(Flux.fromIterable(batchMonos))
                 .flatMap(mono -> mono)
                 .collectList()
+                .onErrorMap(e -> new StageException(DeadLetterStore.Stage.EMBED, e))
                 .flatMap(batches -> {
                     List<QdrantPoint> allPoints = batches.stream()
                             .flatMap(List::stream)
                             .toList();
                     
-                    return qdrantService.upsert(allPoints)
-                            .thenReturn(new DocumentProcessResult(allPoints.size()));
+                    // Spooled to disk if Qdrant is down or slow, so the embeddings are not lost
+                    return ingestionScheduler.upsert(lane, flow, doc.getId(), allPoints)
+                            .onErrorMap(e -> new StageException(DeadLetterStore.Stage.UPSERT, e))
+                            .then(Mono.fromCallable(() -> {
+                                // Counted once the points are written, never on retries of the write
+                                bm25Encoder.count(sparseVectors);
+                                progress.pointsUpserted(allPoints.size());
+                                progress.documentProcessed();
+                                ingestionScheduler.recordSearchable(lane, submittedNanos);
+                                metrics.documentIngested(doc.getSourceType());
+                                deadLetters.resolve(doc.getSourceType(), doc.getId());
+                                return new DocumentProcessResult(allPoints.size());
+                            }));
                 })
                 .onErrorResume(e -> {
-                    log.error("Error processing document {}: {}", doc.getId(), e.getMessage());
-                    return Mono.just(new DocumentProcessResult(0));
+                    DeadLetterStore.Stage stage = e instanceof StageException se ? se.stage : DeadLetterStore.Stage.UPSERT;
+                    Throwable cause = e instanceof StageException ? e.getCause() : e;
+                    return Mono.just(documentFailed(doc, stage, cause, progress));
                 });
     }
 
+    private DocumentProcessResult documentFailed(SourceDocument doc, DeadLetterStore.Stage stage, Throwable error,
+                                                 IngestionProgress progress) {
+        log.error("Error processing document {} at {}: {}", doc.getId(), stage, error.getMessage());
+        progress.error();
+        metrics.failure(stage, doc.getSourceType());
+        deadLetters.record(doc, stage, error);
+        return new DocumentProcessResult(0, true);
+    }
+
+    /**
+     * Commits a chunking event begun before chunking, if it took longer than its threshold.
+     *
+     * @param chunks chunks created, negative if chunking failed
+     */
+    private static void commitChunking(ChunkingEvent event, SourceDocument doc, int chunks) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.documentId = doc.getId();
+            event.source = doc.getSourceType();
+            event.inputChars = doc.getContent().length();
+            event.chunks = Math.max(chunks, 0);
+            event.failed = chunks < 0;
+            event.commit();
+        }
+    }
+
+    /**
+     * Retries dead-lettered documents through the normal pipeline.
+     * Stored documents go straight to chunking/embedding; filesystem entries are re-read together in one
+     * {@link #ingestFilePaths} batch; failed GitHub downloads are fetched again. Documents that succeed are
+     * removed from the store, and those that fail again get their attempt count and backoff bumped.
+     *
+     * @param letters entries to retry
+     * @return ingestion result for the retried documents; documents that could not be fetched again count as failed
+     */
+    public Mono<IngestionResult> replayDeadLetters(List<DeadLetterStore.DeadLetter> letters) {
+        if (letters.isEmpty()) {
+            return Mono.just(IngestionResult.EMPTY);
+        }
+        log.info("Retrying {} dead-lettered documents", letters.size());
+        List<Path> paths = new ArrayList<>();
+        List<Mono<SourceDocument>> fetches = new ArrayList<>();
+        for (DeadLetterStore.DeadLetter letter : letters) {
+            Map<String, String> locator = letter.locator() != null ? letter.locator() : Map.of();
+            if (letter.hasDocument()) {
+                fetches.add(Mono.fromCallable(() -> deadLetters.document(letter)));
+            } else if (locator.containsKey("path") && !locator.containsKey("repository")) {
+                Path path = Paths.get(locator.get("path"));
+                if (Files.exists(path)) {
+                    paths.add(path);
+                } else {
+                    // Gone from disk; nothing left to ingest
+                    deadLetters.purge(letter.id());
+                }
+            } else if (locator.containsKey("repository")) {
+                fetches.add(githubService.getFile(locator.get("repository"), locator.get("path"), letter.documentId()));
+            } else {
+                log.warn("Dead letter {} for {} cannot be replayed automatically", letter.id(), letter.documentId());
+            }
+        }
+        Mono<IngestionResult> fetched = Flux.fromIterable(fetches)
+                .flatMap(mono -> mono.map(Optional::of).defaultIfEmpty(Optional.empty()), 4)
+                .flatMap(doc -> doc.map(this::processDocument)
+                        .orElseGet(() -> Mono.just(new DocumentProcessResult(0, true))), 10)
+                .reduce(IngestionResult.EMPTY, IngestionResult::plusDocument);
+        Mono<IngestionResult> files = paths.isEmpty() ? Mono.just(IngestionResult.EMPTY) : ingestFilePaths(paths);
+        return qdrantService.ensureCollection()
+                .then(Mono.zip(fetched, files, IngestionResult::plus))
+                .contextWrite(IngestionScheduler.flow("dead-letter"))
+                .contextWrite(IngestionScheduler.defaultLane(IngestionScheduler.Lane.INCREMENTAL));
+    }
+
+    /**
+     * Tags a pipeline error with the stage it happened in, for the dead-letter store.
+     */
+    private static class StageException extends RuntimeException {
+        final DeadLetterStore.Stage stage;
+
+        StageException(DeadLetterStore.Stage stage, Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+            this.stage = stage;
+        }
+    }
+
     private DocumentMetadata buildMetadata(SourceDocument doc, String chunkText, int chunkIndex) {
         DocumentMetadata metadata = new DocumentMetadata();
         metadata.setId(generateChunkId(doc.getId(), chunkIndex));
+        metadata.setDocumentId(doc.getId());
         metadata.setText(chunkText);
         metadata.setSource(doc.getTitle());
         metadata.setSourceType(doc.getSourceType());
@@ -408,20 +678,48 @@ public class UnifiedIngestionService {
     }
 
     public static class IngestionResult {
-        public final int documentsProcessed;
+        static final IngestionResult EMPTY = new IngestionResult(0, 0);
+
+        public final int documentsProcessed;  // Including documentsFailed
         public final int chunksProcessed;
+        public final int documentsFailed;  // Dead-lettered (again)
 
         public IngestionResult(int documentsProcessed, int chunksProcessed) {
+            this(documentsProcessed, chunksProcessed, 0);
+        }
+
+        public IngestionResult(int documentsProcessed, int chunksProcessed, int documentsFailed) {
             this.documentsProcessed = documentsProcessed;
             this.chunksProcessed = chunksProcessed;
+            this.documentsFailed = documentsFailed;
+        }
+
+        public int documentsSucceeded() {
+            return documentsProcessed - documentsFailed;
+        }
+
+        IngestionResult plus(IngestionResult other) {
+            return new IngestionResult(documentsProcessed + other.documentsProcessed,
+                    chunksProcessed + other.chunksProcessed, documentsFailed + other.documentsFailed);
+        }
+
+        IngestionResult plusDocument(DocumentProcessResult document) {
+            return new IngestionResult(documentsProcessed + 1, chunksProcessed + document.chunksProcessed,
+                    documentsFailed + (document.failed ? 1 : 0));
         }
     }
 
     private static class DocumentProcessResult {
         public final int chunksProcessed;
+        public final boolean failed;
 
         public DocumentProcessResult(int chunksProcessed) {
+            this(chunksProcessed, false);
+        }
+
+        public DocumentProcessResult(int chunksProcessed, boolean failed) {
             this.chunksProcessed = chunksProcessed;
+            this.failed = failed;
         }
     }
 
@@ -0,0 +1,14 @@
+package com.nexa.ingestion.service.extract;
+
+/**
+ * Document formats the extractor registry knows how to handle.
+ * Anything that is not recognised falls through to {@link #OTHER} and is handed to Tika.
+ */
+public enum DocumentType {
+    PLAIN_TEXT,
+    MARKDOWN,
+    HTML,
+    DOCX,
+    PDF,
+    OTHER
+}
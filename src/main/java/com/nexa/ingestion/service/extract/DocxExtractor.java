@@ -0,0 +1,81 @@
+package com.nexa.ingestion.service.extract;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streams text out of a DOCX package by reading {@code word/document.xml} with StAX.
+ * Avoids building the full POI object model that Tika uses for Office documents.
+ */
+public class DocxExtractor implements TextExtractor {
+
+    private static final String DOCUMENT_ENTRY = "word/document.xml";
+    private static final String WORDML_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private final XMLInputFactory xmlInputFactory;
+
+    public DocxExtractor() {
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        // document.xml never needs DTDs or external entities
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Override
+    public String extract(byte[] bytes) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (DOCUMENT_ENTRY.equals(entry.getName())) {
+                    return readDocumentXml(zip);
+                }
+            }
+        }
+        throw new IOException("Not a DOCX package: " + DOCUMENT_ENTRY + " not found");
+    }
+
+    private String readDocumentXml(ZipInputStream zip) throws IOException {
+        StringBuilder text = new StringBuilder();
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(zip);
+            boolean inText = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && WORDML_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> text.append('\t');
+                        case "br", "cr" -> text.append('\n');
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WORDML_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = false;
+                        case "p" -> text.append("\n\n");
+                        default -> { }
+                    }
+                } else if (inText && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                    text.append(reader.getText());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed DOCX document.xml: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Ignore
+                }
+            }
+        }
+        return text.toString().trim();
+    }
+}
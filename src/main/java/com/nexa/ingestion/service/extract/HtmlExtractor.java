@@ -0,0 +1,14 @@
+package com.nexa.ingestion.service.extract;
+
+import com.nexa.ingestion.util.HtmlToPlainText;
+
+/**
+ * Decodes HTML with charset sniffing and converts it to plain text in a single Jsoup pass.
+ */
+public class HtmlExtractor implements TextExtractor {
+
+    @Override
+    public String extract(byte[] bytes) {
+        return HtmlToPlainText.convert(PlainTextExtractor.decode(bytes));
+    }
+}
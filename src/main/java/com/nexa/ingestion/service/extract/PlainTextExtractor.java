@@ -0,0 +1,64 @@
+package com.nexa.ingestion.service.extract;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes plain text and markdown directly, without going through Tika.
+ * Charset is sniffed from the BOM, then by strict UTF-8 validation, falling back to windows-1252.
+ */
+public class PlainTextExtractor implements TextExtractor {
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    @Override
+    public String extract(byte[] bytes) {
+        return decode(bytes);
+    }
+
+    /**
+     * Decodes bytes to a string using a sniffed charset. Strips any BOM.
+     *
+     * @param bytes raw bytes
+     * @return decoded text, never null
+     */
+    public static String decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return "";
+        }
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
+            return new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8);
+        }
+        if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0xFE && (bytes[1] & 0xFF) == 0xFF) {
+            return new String(bytes, 2, bytes.length - 2, StandardCharsets.UTF_16BE);
+        }
+        if (bytes.length >= 2 && (bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xFE) {
+            return new String(bytes, 2, bytes.length - 2, StandardCharsets.UTF_16LE);
+        }
+        if (isAscii(bytes)) {
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            // Not valid UTF-8: most legacy docs we see are Windows-encoded
+            return new String(bytes, WINDOWS_1252);
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
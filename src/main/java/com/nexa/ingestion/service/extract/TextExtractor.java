@@ -0,0 +1,16 @@
+package com.nexa.ingestion.service.extract;
+
+import java.io.IOException;
+
+/**
+ * Extracts plain text from the raw bytes of a document.
+ */
+public interface TextExtractor {
+
+    /**
+     * @param bytes raw file bytes
+     * @return extracted plain text, never null
+     * @throws IOException if the bytes cannot be decoded in this format
+     */
+    String extract(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,166 @@
+package com.nexa.ingestion.service.extract;
+
+import com.nexa.ingestion.jfr.ExtractionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Picks a text extractor by detected document type.
+ * Plain text, markdown, HTML and DOCX use cheap direct decoders; Tika is only used as the fallback.
+ * Shared by the upload path and {@link com.nexa.ingestion.service.FileSystemService}.
+ */
+@Component
+public class TextExtractorRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TextExtractorRegistry.class);
+
+    private final Map<DocumentType, TextExtractor> extractors = new EnumMap<>(DocumentType.class);
+    private final TextExtractor fallback;
+
+    public TextExtractorRegistry() {
+        TextExtractor plainText = new PlainTextExtractor();
+        this.fallback = new TikaExtractor();
+        extractors.put(DocumentType.PLAIN_TEXT, plainText);
+        extractors.put(DocumentType.MARKDOWN, plainText);
+        extractors.put(DocumentType.HTML, new HtmlExtractor());
+        extractors.put(DocumentType.DOCX, new DocxExtractor());
+        extractors.put(DocumentType.PDF, fallback);
+        extractors.put(DocumentType.OTHER, fallback);
+    }
+
+    /**
+     * Reads a file and extracts its text.
+     *
+     * @param path file to read
+     * @return extracted text, empty string on error
+     */
+    public String extract(Path path) {
+        try {
+            return extract(path.getFileName().toString(), Files.readAllBytes(path));
+        } catch (IOException e) {
+            log.warn("Error reading file {}: {}", path, e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * Extracts text from file bytes, choosing the extractor by detected type.
+     * If a fast-path extractor fails, Tika is tried before giving up.
+     *
+     * @param filename original file name (used for extension hints)
+     * @param bytes raw file bytes
+     * @return extracted text, empty string on error
+     */
+    public String extract(String filename, byte[] bytes) {
+        try {
+            return extractOrThrow(filename, bytes);
+        } catch (IOException e) {
+            log.warn(e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * Like {@link #extract(String, byte[])}, but reports a failure instead of returning an empty string,
+     * so callers can tell an unreadable file from an empty one.
+     *
+     * @throws IOException if neither the fast-path extractor nor Tika could extract the text
+     */
+    public String extractOrThrow(String filename, byte[] bytes) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            return "";
+        }
+        DocumentType type = detectType(filename, bytes);
+        ExtractionEvent event = new ExtractionEvent();
+        event.begin();
+        boolean failed = true;
+        String text = null;
+        try {
+            text = extract(type, filename, bytes);
+            failed = false;
+            return text;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.fileName = filename;
+                event.documentType = type.name();
+                event.inputBytes = bytes.length;
+                event.outputChars = text != null ? text.length() : 0;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private String extract(DocumentType type, String filename, byte[] bytes) throws IOException {
+        TextExtractor extractor = extractors.get(type);
+        try {
+            return extractor.extract(bytes);
+        } catch (Exception e) {
+            if (extractor == fallback) {
+                throw new IOException("Error extracting text from " + filename + " (" + type + "): " + e.getMessage(), e);
+            }
+            log.debug("{} extractor failed for {}, falling back to Tika: {}", type, filename, e.getMessage());
+            try {
+                return fallback.extract(bytes);
+            } catch (Exception ex) {
+                throw new IOException("Error extracting text from " + filename + " with Tika: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Detects the document type from magic bytes first, then from the file extension.
+     */
+    public DocumentType detectType(String filename, byte[] bytes) {
+        if (startsWith(bytes, "%PDF")) {
+            return DocumentType.PDF;
+        }
+        String extension = extensionOf(filename);
+        if (startsWith(bytes, "PK\u0003\u0004")) {
+            // Any zip container other than DOCX (xlsx, pptx, odt...) is left to Tika
+            return ".docx".equals(extension) ? DocumentType.DOCX : DocumentType.OTHER;
+        }
+        return switch (extension) {
+            case ".txt", ".text", ".log", ".csv", ".rst", ".adoc" -> DocumentType.PLAIN_TEXT;
+            case ".md", ".markdown" -> DocumentType.MARKDOWN;
+            case ".html", ".htm", ".xhtml" -> DocumentType.HTML;
+            case ".pdf" -> DocumentType.PDF;
+            default -> looksLikeHtml(bytes) ? DocumentType.HTML : DocumentType.OTHER;
+        };
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return "";
+        }
+        return filename.substring(filename.lastIndexOf(".")).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean startsWith(byte[] bytes, String magic) {
+        if (bytes.length < magic.length()) {
+            return false;
+        }
+        for (int i = 0; i < magic.length(); i++) {
+            if (bytes[i] != (byte) magic.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean looksLikeHtml(byte[] bytes) {
+        int len = Math.min(bytes.length, 256);
+        String head = new String(bytes, 0, len, StandardCharsets.ISO_8859_1).stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("<!doctype html") || head.startsWith("<html");
+    }
+}
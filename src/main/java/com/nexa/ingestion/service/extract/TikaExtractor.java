@@ -0,0 +1,27 @@
+package com.nexa.ingestion.service.extract;
+
+import org.apache.tika.Tika;
+import org.apache.tika.exception.TikaException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fallback extractor using Apache Tika auto-detection.
+ * Used for PDF and any format without a dedicated fast path.
+ */
+public class TikaExtractor implements TextExtractor {
+
+    private final Tika tika = new Tika();
+
+    @Override
+    public String extract(byte[] bytes) throws IOException {
+        try (InputStream inputStream = new ByteArrayInputStream(bytes)) {
+            String text = tika.parseToString(inputStream);
+            return text != null ? text.trim() : "";
+        } catch (TikaException e) {
+            throw new IOException("Tika extraction failed: " + e.getMessage(), e);
+        }
+    }
+}
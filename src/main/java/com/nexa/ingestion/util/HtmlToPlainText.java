@@ -1,7 +1,7 @@
 package com.nexa.ingestion.util;
 
 import org.jsoup.Jsoup;
-import org.jsoup.safety.Safelist;
+import org.jsoup.nodes.Document;
 import org.springframework.stereotype.Component;
 
 /**
@@ -22,6 +22,8 @@ public class HtmlToPlainText {
 
     /**
      * Static method to convert HTML to plain text.
+     * Parses once and reads the body text directly; script/style contents are not text nodes
+     * so they are dropped without a separate clean pass.
      *
      * @param html raw HTML
      * @return plain text, never null
@@ -30,8 +32,8 @@ public class HtmlToPlainText {
         if (html == null || html.isBlank()) {
             return "";
         }
-        String cleaned = Jsoup.clean(html, Safelist.none());
-        String text = Jsoup.parse(cleaned).text();
+        Document document = Jsoup.parse(html);
+        String text = document.body() != null ? document.body().text() : document.text();
         return normalizeWhitespace(text);
     }
 
@@ -0,0 +1,96 @@
+package com.nexa.ingestion.web;
+
+import com.nexa.ingestion.dto.IngestionJobStatus;
+import com.nexa.ingestion.service.DeadLetterStore;
+import com.nexa.ingestion.service.IngestionJobService;
+import com.nexa.ingestion.service.UnifiedIngestionService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Documents that failed ingestion: list them, replay them through the pipeline, or purge them.
+ */
+@RestController
+@RequestMapping("/api/ingest/dead-letters")
+public class DeadLetterController {
+
+    private final DeadLetterStore store;
+    private final UnifiedIngestionService unifiedIngestionService;
+    private final IngestionJobService jobService;
+
+    public DeadLetterController(DeadLetterStore store,
+                                UnifiedIngestionService unifiedIngestionService,
+                                IngestionJobService jobService) {
+        this.store = store;
+        this.unifiedIngestionService = unifiedIngestionService;
+        this.jobService = jobService;
+    }
+
+    /**
+     * List failed documents, oldest first.
+     * GET /api/ingest/dead-letters?source=GitHub&stage=FETCH
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<DeadLetterStore.DeadLetter> list(@RequestParam(required = false) String source,
+                                                 @RequestParam(required = false) DeadLetterStore.Stage stage) {
+        return store.list(source, stage);
+    }
+
+    /**
+     * One failed document.
+     * GET /api/ingest/dead-letters/{id}
+     */
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeadLetterStore.DeadLetter> get(@PathVariable String id) {
+        DeadLetterStore.DeadLetter letter = store.get(id);
+        return letter != null ? ResponseEntity.ok(letter) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Replay one failed document now, regardless of its backoff or attempt count.
+     * POST /api/ingest/dead-letters/{id}/replay
+     */
+    @PostMapping(value = "/{id}/replay", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<IngestionController.IngestionResultDto>> replay(@PathVariable String id) {
+        DeadLetterStore.DeadLetter letter = store.get(id);
+        if (letter == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return unifiedIngestionService.replayDeadLetters(List.of(letter))
+                .map(r -> ResponseEntity.ok(new IngestionController.IngestionResultDto(r.documentsProcessed, r.chunksProcessed)));
+    }
+
+    /**
+     * Replay all failed documents (optionally of one source) as a background job.
+     * POST /api/ingest/dead-letters/replay?source=Confluence
+     */
+    @PostMapping(value = "/replay", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> replayAll(@RequestParam(required = false) String source) {
+        List<DeadLetterStore.DeadLetter> letters = store.list(source, null);
+        return ResponseEntity.accepted().body(jobService.submit("dead-letters", source,
+                unifiedIngestionService.replayDeadLetters(letters)).snapshot());
+    }
+
+    /**
+     * Drop one failed document without retrying it.
+     * DELETE /api/ingest/dead-letters/{id}
+     */
+    @DeleteMapping(value = "/{id}")
+    public ResponseEntity<Void> purge(@PathVariable String id) {
+        return store.purge(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Drop all failed documents, optionally of one source.
+     * DELETE /api/ingest/dead-letters?source=GitHub
+     */
+    @DeleteMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Integer> purgeAll(@RequestParam(required = false) String source) {
+        return Map.of("purged", store.purgeAll(source));
+    }
+}
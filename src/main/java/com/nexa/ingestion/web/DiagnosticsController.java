@@ -0,0 +1,64 @@
+package com.nexa.ingestion.web;
+
+import com.nexa.ingestion.service.EventLoopMonitor;
+import com.nexa.ingestion.service.FlightRecorderService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+
+/**
+ * Runtime diagnostics.
+ * POST /api/diagnostics/jfr/dump - Download a snapshot of the running JFR recordings
+ * GET /api/diagnostics/event-loops - Event loop lag and recent stalls with stack traces
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    private final FlightRecorderService flightRecorderService;
+    private final EventLoopMonitor eventLoopMonitor;
+
+    public DiagnosticsController(FlightRecorderService flightRecorderService, EventLoopMonitor eventLoopMonitor) {
+        this.flightRecorderService = flightRecorderService;
+        this.eventLoopMonitor = eventLoopMonitor;
+    }
+
+    /**
+     * Dumps all running JFR recordings to a file (kept under diagnostics.jfr.directory) and returns it.
+     * Open with JDK Mission Control or {@code jfr print --events com.nexa.ingestion.*}.
+     */
+    @PostMapping("/jfr/dump")
+    public Mono<ResponseEntity<Resource>> dumpJfr() {
+        return Mono.fromCallable(flightRecorderService::dump)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(IllegalStateException.class,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage()))
+                .map(DiagnosticsController::download);
+    }
+
+    @GetMapping("/event-loops")
+    public EventLoopMonitor.Report eventLoops() {
+        return eventLoopMonitor.report();
+    }
+
+    private static ResponseEntity<Resource> download(Path file) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
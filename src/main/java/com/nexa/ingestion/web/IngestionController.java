@@ -1,5 +1,8 @@
 package com.nexa.ingestion.web;
 
+import com.nexa.ingestion.service.IngestionScheduler;
+import com.nexa.ingestion.service.MemoryBudget;
+import com.nexa.ingestion.service.PointSpool;
 import com.nexa.ingestion.service.UnifiedIngestionService;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.multipart.FilePart;
@@ -17,9 +20,18 @@ import java.util.List;
 public class IngestionController {
 
     private final UnifiedIngestionService unifiedIngestionService;
+    private final PointSpool pointSpool;
+    private final IngestionScheduler ingestionScheduler;
+    private final MemoryBudget memoryBudget;
 
-    public IngestionController(UnifiedIngestionService unifiedIngestionService) {
+    public IngestionController(UnifiedIngestionService unifiedIngestionService,
+                               PointSpool pointSpool,
+                               IngestionScheduler ingestionScheduler,
+                               MemoryBudget memoryBudget) {
         this.unifiedIngestionService = unifiedIngestionService;
+        this.pointSpool = pointSpool;
+        this.ingestionScheduler = ingestionScheduler;
+        this.memoryBudget = memoryBudget;
     }
 
     /**
@@ -104,5 +116,32 @@ public class IngestionController {
                 .map(r -> new IngestionResultDto(r.documentsProcessed, r.chunksProcessed));
     }
 
+    /**
+     * Disk spool of points awaiting upsert: size, oldest entry age, drain rate.
+     * GET /api/ingest/spool
+     */
+    @GetMapping(value = "/spool", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<PointSpool.Stats> spool() {
+        return Mono.fromSupplier(pointSpool::stats);
+    }
+
+    /**
+     * Priority lanes: queued embed/upsert requests and submit-to-searchable latency per lane.
+     * GET /api/ingest/lanes
+     */
+    @GetMapping(value = "/lanes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<IngestionScheduler.LaneStats> lanes() {
+        return ingestionScheduler.laneStats();
+    }
+
+    /**
+     * In-flight bytes budget: usage, utilization and fetches/documents waiting for room.
+     * GET /api/ingest/memory
+     */
+    @GetMapping(value = "/memory", produces = MediaType.APPLICATION_JSON_VALUE)
+    public MemoryBudget.Stats memory() {
+        return memoryBudget.stats();
+    }
+
     public record IngestionResultDto(int documentsProcessed, int chunksProcessed) {}
 }
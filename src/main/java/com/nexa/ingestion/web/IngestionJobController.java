@@ -0,0 +1,162 @@
+package com.nexa.ingestion.web;
+
+import com.nexa.ingestion.dto.IngestionJobStatus;
+import com.nexa.ingestion.service.IngestionJob;
+import com.nexa.ingestion.service.IngestionJobService;
+import com.nexa.ingestion.service.IngestionScheduler;
+import com.nexa.ingestion.service.UnifiedIngestionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Asynchronous ingestion jobs: submit returns a job id immediately (202 Accepted),
+ * progress is available via status polling or SSE, and jobs can be cancelled.
+ */
+@RestController
+@RequestMapping("/api/ingest/jobs")
+public class IngestionJobController {
+
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(1);
+
+    private final IngestionJobService jobService;
+    private final UnifiedIngestionService unifiedIngestionService;
+
+    public IngestionJobController(IngestionJobService jobService,
+                                  UnifiedIngestionService unifiedIngestionService) {
+        this.jobService = jobService;
+        this.unifiedIngestionService = unifiedIngestionService;
+    }
+
+    /**
+     * Submit ingestion of all configured sources.
+     * POST /api/ingest/jobs/all?priority=bulk
+     */
+    @PostMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> ingestAll(@RequestParam(required = false) String priority) {
+        return accepted(jobService.submit("all", null, inLane(unifiedIngestionService.ingestAll(), priority)));
+    }
+
+    /**
+     * Submit ingestion of a Confluence space.
+     * POST /api/ingest/jobs/confluence/{spaceKey}
+     */
+    @PostMapping(value = "/confluence/{spaceKey}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> ingestConfluenceSpace(@PathVariable String spaceKey,
+                                                                    @RequestParam(required = false) String priority) {
+        return accepted(jobService.submit("confluence", spaceKey,
+                inLane(unifiedIngestionService.ingestConfluenceSpace(spaceKey), priority)));
+    }
+
+    /**
+     * Submit ingestion of a Jira project.
+     * POST /api/ingest/jobs/jira/{projectKey}
+     */
+    @PostMapping(value = "/jira/{projectKey}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> ingestJiraProject(@PathVariable String projectKey,
+                                                                @RequestParam(required = false) String priority) {
+        return accepted(jobService.submit("jira", projectKey,
+                inLane(unifiedIngestionService.ingestJiraProject(projectKey), priority)));
+    }
+
+    /**
+     * Submit ingestion of GitHub repositories.
+     * POST /api/ingest/jobs/github
+     */
+    @PostMapping(value = "/github", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> ingestGitHub(@RequestParam(required = false) String priority) {
+        return accepted(jobService.submit("github", null, inLane(unifiedIngestionService.ingestGitHub(), priority)));
+    }
+
+    /**
+     * Submit filesystem ingestion.
+     * POST /api/ingest/jobs/filesystem
+     */
+    @PostMapping(value = "/filesystem", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> ingestFileSystem(@RequestParam(required = false) String priority) {
+        return accepted(jobService.submit("filesystem", null, inLane(unifiedIngestionService.ingestFileSystem(), priority)));
+    }
+
+    /**
+     * List recent jobs, newest first.
+     * GET /api/ingest/jobs
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<IngestionJobStatus> list() {
+        return jobService.list();
+    }
+
+    /**
+     * Job status.
+     * GET /api/ingest/jobs/{id}
+     */
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> status(@PathVariable String id) {
+        return jobService.get(id)
+                .map(job -> ResponseEntity.ok(job.snapshot()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Live job progress as Server-Sent Events, one "progress" event per second and a final "done" event.
+     * GET /api/ingest/jobs/{id}/events
+     *
+     * Example curl:
+     * curl -N http://localhost:8080/api/ingest/jobs/{id}/events
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<IngestionJobStatus>> events(@PathVariable String id) {
+        return jobService.progress(id, PROGRESS_INTERVAL)
+                .map(status -> ServerSentEvent.<IngestionJobStatus>builder()
+                        .id(id)
+                        .event(status.isTerminal() ? "done" : "progress")
+                        .data(status)
+                        .build());
+    }
+
+    /**
+     * Cancel a running job.
+     * DELETE /api/ingest/jobs/{id}
+     */
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJobStatus> cancel(@PathVariable String id) {
+        if (jobService.get(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!jobService.cancel(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(jobService.get(id).get().snapshot());
+        }
+        return ResponseEntity.ok(jobService.get(id).get().snapshot());
+    }
+
+    /**
+     * Runs the job in the requested priority lane (interactive, incremental, bulk) instead of the source's default.
+     */
+    private static <T> Mono<T> inLane(Mono<T> run, String priority) {
+        if (priority == null || priority.isBlank()) {
+            return run;
+        }
+        IngestionScheduler.Lane lane;
+        try {
+            lane = IngestionScheduler.Lane.valueOf(priority.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "priority must be one of " + Arrays.toString(IngestionScheduler.Lane.values()));
+        }
+        return run.contextWrite(IngestionScheduler.lane(lane));
+    }
+
+    private static ResponseEntity<IngestionJobStatus> accepted(IngestionJob job) {
+        return ResponseEntity.accepted().body(job.snapshot());
+    }
+}
@@ -1,11 +1,26 @@
 package com.nexa.ingestion.web;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexa.ingestion.config.SearchProperties;
+import com.nexa.ingestion.dto.SearchGroup;
 import com.nexa.ingestion.dto.SearchRequest;
 import com.nexa.ingestion.dto.SearchResponse;
 import com.nexa.ingestion.dto.SearchResult;
-import com.nexa.ingestion.service.EmbeddingService;
+import com.nexa.ingestion.dto.SearchTimings;
+import com.nexa.ingestion.jfr.JfrEvents;
+import com.nexa.ingestion.jfr.LlmCallEvent;
+import com.nexa.ingestion.jfr.QueryEmbedEvent;
+import com.nexa.ingestion.jfr.VectorSearchEvent;
+import com.nexa.ingestion.service.CollectionWriteGeneration;
+import com.nexa.ingestion.service.ContextAssembler;
 import com.nexa.ingestion.service.LLMService;
+import com.nexa.ingestion.service.PipelineMetrics;
+import com.nexa.ingestion.service.QueryClassifier;
+import com.nexa.ingestion.service.QueryEmbeddingCache;
 import com.nexa.ingestion.service.SearchService;
+import com.nexa.ingestion.service.SemanticAnswerCache;
+import com.nexa.ingestion.service.SingleFlight;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +33,8 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * REST API for semantic search with LLM-powered responses (RAG).
@@ -29,23 +45,48 @@ import java.util.stream.Collectors;
 public class SearchController {
 
     private static final Logger log = LoggerFactory.getLogger(SearchController.class);
+    private static final String SERVER_TIMING = "Server-Timing";
 
-    private final EmbeddingService embeddingService;
+    private final QueryEmbeddingCache queryEmbeddingCache;
     private final SearchService searchService;
     private final LLMService llmService;
+    private final ContextAssembler contextAssembler;
+    private final SemanticAnswerCache answerCache;
+    private final CollectionWriteGeneration writeGeneration;
+    private final PipelineMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final boolean coalesce;
+    private final SearchProperties.IdentifierLookup identifierLookup;
+    private final SingleFlight<FlightKey, Answered> flights = new SingleFlight<>();
 
-    public SearchController(EmbeddingService embeddingService,
+    public SearchController(QueryEmbeddingCache queryEmbeddingCache,
                            SearchService searchService,
-                           LLMService llmService) {
-        this.embeddingService = embeddingService;
+                           LLMService llmService,
+                           ContextAssembler contextAssembler,
+                           SemanticAnswerCache answerCache,
+                           CollectionWriteGeneration writeGeneration,
+                           PipelineMetrics metrics,
+                           ObjectMapper objectMapper,
+                           SearchProperties searchProperties) {
+        this.queryEmbeddingCache = queryEmbeddingCache;
         this.searchService = searchService;
         this.llmService = llmService;
+        this.contextAssembler = contextAssembler;
+        this.answerCache = answerCache;
+        this.writeGeneration = writeGeneration;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.coalesce = searchProperties.isCoalesce();
+        this.identifierLookup = searchProperties.getIdentifierLookup();
     }
 
     /**
      * Search endpoint with streaming response using Server-Sent Events (SSE).
      * Simulates ChatGPT-style streaming with chunk-by-chunk delivery.
      * RAG flow: embed query → vector search → LLM with context → stream answer chunks.
+     * After {@code done}, a final {@code timings} event carries the request's {@link SearchTimings} as JSON.
+     * A query answered by identifier lookup first gets a {@code results} event with the matching chunks as JSON;
+     * the answer is then the optional summary (none unless requested).
      *
      * @param request search request with query, limit, and score threshold
      * @return Flux of Server-Sent Events containing answer text chunks
@@ -54,20 +95,18 @@ public class SearchController {
     public Flux<ServerSentEvent<String>> searchStream(@Valid @RequestBody SearchRequest request) {
         log.info("Search stream request: query='{}', limit={}, threshold={}",
                 request.getQuery(), request.getLimit(), request.getScoreThreshold());
+        long start = System.nanoTime();
+        SearchTimings timings = new SearchTimings();
+        String requestId = newRequestId();
 
-        return embeddingService.embed(request.getQuery())
-                .flatMap(queryVector -> searchService.search(
-                        queryVector,
-                        request.getLimit(),
-                        request.getScoreThreshold()
-                ))
-                .flatMapMany(results -> {
-                    List<String> contextTexts = results.stream()
-                            .map(SearchResult::getText)
-                            .collect(Collectors.toList());
-                    return llmService.generateWithContext(request.getQuery(), contextTexts)
-                            .flatMapMany(fullAnswer -> streamAnswerChunks(fullAnswer));
-                })
+        return lookup(request, timings)
+                .switchIfEmpty(Mono.defer(() -> answer("stream", request, requestId, timings)))
+                // The answer is complete here; the word-by-word replay below is not search latency
+                .doOnSuccess(answered -> metrics.searchCompleted("stream", true, timings, start))
+                .doOnError(e -> metrics.searchCompleted("stream", false, timings, start))
+                .flatMapMany(answered -> resultsEvent(answered)
+                        .concatWith(streamAnswerChunks(answered.answer()))
+                        .concatWith(Mono.fromCallable(() -> timingsEvent(timings))))
                 .onErrorResume(e -> {
                     log.error("Search stream failed: {}", e.getMessage(), e);
                     return Flux.just(
@@ -107,6 +146,8 @@ public class SearchController {
     /**
      * Search endpoint with JSON response (non-streaming).
      *
+     * The per-stage {@link SearchTimings} are returned in the body and as a {@code Server-Timing} header.
+     *
      * @param request search request with query, limit, and score threshold
      * @return search response with similar documents and LLM-generated answer
      */
@@ -114,33 +155,240 @@ public class SearchController {
     public Mono<ResponseEntity<SearchResponse>> search(@Valid @RequestBody SearchRequest request) {
         log.info("Search request: query='{}', limit={}, threshold={}",
                 request.getQuery(), request.getLimit(), request.getScoreThreshold());
+        long start = System.nanoTime();
+        SearchTimings timings = new SearchTimings();
+        String requestId = newRequestId();
 
-        return embeddingService.embed(request.getQuery())
-                .flatMap(queryVector -> searchService.search(
-                        queryVector,
-                        request.getLimit(),
-                        request.getScoreThreshold()
-                ))
-                .flatMap(results -> {
-                    List<String> contextTexts = results.stream()
-                            .map(SearchResult::getText)
-                            .collect(Collectors.toList());
-                    return llmService.generateWithContext(request.getQuery(), contextTexts)
-                            .map(answer -> {
-                                SearchResponse response = new SearchResponse(
-                                        request.getQuery(),
-                                        results,
-                                        answer,
-                                        "LLM"
-                                );
-                                return ResponseEntity.ok(response);
-                            });
+        return lookup(request, timings)
+                .switchIfEmpty(Mono.defer(() -> answer("json", request, requestId, timings)))
+                .map(answered -> {
+                    metrics.searchCompleted("json", true, timings, start);
+                    SearchResponse response = new SearchResponse(
+                            request.getQuery(),
+                            answered.results(),
+                            answered.answer(),
+                            answered.answer() != null ? "LLM" : null
+                    );
+                    if (answered.groups() != null) {
+                        response.setResults(null);
+                        response.setGroups(answered.groups());
+                    }
+                    response.setTimings(timings);
+                    return ResponseEntity.ok()
+                            .header(SERVER_TIMING, timings.toServerTiming())
+                            .body(response);
                 })
                 .onErrorResume(e -> {
                     log.error("Search failed: {}", e.getMessage(), e);
+                    metrics.searchCompleted("json", false, timings, start);
+                    SearchResponse response = new SearchResponse(request.getQuery(), List.of(),
+                            "Error: " + e.getMessage(), null);
+                    response.setTimings(timings);
                     return Mono.just(ResponseEntity.internalServerError()
-                            .body(new SearchResponse(request.getQuery(), List.of(),
-                                    "Error: " + e.getMessage(), null)));
+                            .header(SERVER_TIMING, timings.toServerTiming())
+                            .body(response));
                 });
     }
+
+    /**
+     * Answers a query that is a Jira key, path or page title ({@link QueryClassifier}) with the chunks whose payload
+     * matches it exactly, skipping query embedding and, unless the request asks for a summary, the LLM.
+     * Empty if the query is no identifier or nothing matched, in which case the full search runs.
+     */
+    private Mono<Answered> lookup(SearchRequest request, SearchTimings timings) {
+        if (!identifierLookup.isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.justOrEmpty(QueryClassifier.classify(request.getQuery(), identifierLookup.getTitleMaxWords()))
+                .flatMap(identifier -> metrics.timeSearchStage("qdrant", timings, searchService.lookup(
+                                identifier.kind().fields(), identifier.value(), identifierLookup.getMaxChunks()))
+                        .doOnNext(results -> metrics.identifierLookup(identifier.kind().label(), !results.isEmpty()))
+                        .filter(results -> !results.isEmpty())
+                        .flatMap(results -> {
+                            timings.setIdentifierMatch(identifier.kind().label());
+                            if (!request.isSummarize()) {
+                                return Mono.just(new Answered(results, null, null, timings, true));
+                            }
+                            ContextAssembler.Context context = assembleContext(request, results, timings);
+                            return metrics.timeSearchStage("llm", timings, llmService.summarize(
+                                            identifier.value(), context.passages(),
+                                            identifierLookup.getSummaryMaxTokens()))
+                                    .map(summary -> new Answered(results, null, summary, timings, true));
+                        }));
+    }
+
+    /**
+     * Runs the RAG pipeline (retrieve, then generate) for a request. Identical requests arriving while one is in
+     * flight (same normalized query and parameters, from either endpoint) share its pipeline; they get its results,
+     * answer and stage timings, and the streaming endpoint replays the shared answer to each of them.
+     */
+    private Mono<Answered> answer(String endpoint, SearchRequest request, String requestId, SearchTimings timings) {
+        Supplier<Mono<Answered>> pipeline = () -> retrieve(request, requestId, timings)
+                .flatMap(retrieval -> generate(request, requestId, retrieval, timings)
+                        .map(answer -> new Answered(retrieval.results(), retrieval.groups(),
+                                answer, timings, false)));
+        if (!coalesce) {
+            return pipeline.get();
+        }
+        return flights.execute(FlightKey.of(request), pipeline)
+                .doOnNext(answered -> {
+                    if (answered.timings() != timings) {
+                        timings.joined(answered.timings());
+                        metrics.searchCoalesced(endpoint);
+                    }
+                });
+    }
+
+    /**
+     * Embeds the query (through the query embedding cache) and searches Qdrant, timing both stages into {@code timings}.
+     * Debug requests also get Qdrant's own search time and the number of scored points it returned.
+     */
+    private Mono<Retrieval> retrieve(SearchRequest request, String requestId, SearchTimings timings) {
+        return Mono.defer(() -> {
+            // Read before searching, so points upserted from here on are known to be newer than the results
+            long generation = writeGeneration.current();
+            return metrics.timeSearchStage("embed", timings, JfrEvents.recorded(
+                            () -> new QueryEmbedEvent(requestId, request.getQuery().length()),
+                            queryEmbeddingCache.embed(request.getQuery()),
+                            null))
+                    .flatMap(queryVector -> request.isGrouped()
+                            ? retrieveGroups(request, requestId, queryVector, generation, timings)
+                            : retrieveChunks(request, requestId, queryVector, generation, timings));
+        });
+    }
+
+    private Mono<Retrieval> retrieveChunks(SearchRequest request, String requestId, float[] queryVector,
+                                           long generation, SearchTimings timings) {
+        return metrics.timeSearchStage("qdrant", timings, JfrEvents.recorded(
+                        () -> new VectorSearchEvent(requestId, request.getLimit()),
+                        searchService.searchWithStats(request.getQuery(), queryVector, request.getLimit(),
+                                request.getScoreThreshold()),
+                        (event, hits) -> {
+                            event.results = hits.results().size();
+                            event.cached = hits.cached();
+                            event.qdrantTimeMs = Math.round(hits.qdrantTimeMs());
+                        }))
+                .map(hits -> {
+                    if (hits.cached()) {
+                        timings.setResultCached(true);
+                    }
+                    if (request.isDebug()) {
+                        timings.setQdrantServerMs(hits.qdrantTimeMs());
+                        timings.setPointsScored(hits.pointsScored());
+                    }
+                    return new Retrieval(queryVector, hits.results(), null, generation);
+                });
+    }
+
+    /**
+     * Qdrant stage of a grouped request: the best {@code limit} documents with up to {@code groupSize} chunks each.
+     * The chunks of all groups are the LLM's context.
+     */
+    private Mono<Retrieval> retrieveGroups(SearchRequest request, String requestId, float[] queryVector,
+                                           long generation, SearchTimings timings) {
+        return metrics.timeSearchStage("qdrant", timings, JfrEvents.recorded(
+                        () -> new VectorSearchEvent(requestId, request.getLimit()),
+                        searchService.searchGroups(queryVector, request.getLimit(), request.getGroupSize(),
+                                request.getScoreThreshold()),
+                        (event, hits) -> {
+                            event.results = hits.pointsScored();
+                            event.qdrantTimeMs = Math.round(hits.qdrantTimeMs());
+                        }))
+                .map(hits -> {
+                    if (request.isDebug()) {
+                        timings.setQdrantServerMs(hits.qdrantTimeMs());
+                        timings.setPointsScored(hits.pointsScored());
+                    }
+                    return new Retrieval(queryVector, hits.results(), hits.groups(), generation);
+                });
+    }
+
+    /**
+     * Generates the answer from the retrieved chunks, timing the LLM call into {@code timings}.
+     * A near-identical earlier question that retrieved the same chunks gets its cached answer instead.
+     * The chunks are sent as passages built by the {@link ContextAssembler}, within its token budget.
+     */
+    private Mono<String> generate(SearchRequest request, String requestId, Retrieval retrieval,
+                                  SearchTimings timings) {
+        List<SearchResult> results = retrieval.results();
+        String cached = answerCache.lookup(retrieval.queryVector(), results);
+        if (cached != null) {
+            timings.setAnswerCached(true);
+            return Mono.just(cached);
+        }
+        List<String> contextTexts = assembleContext(request, results, timings).passages();
+        long contextChars = contextTexts.stream().mapToLong(String::length).sum();
+        return metrics.timeSearchStage("llm", timings, JfrEvents.recorded(
+                        () -> new LlmCallEvent(requestId, contextTexts.size(), contextChars),
+                        llmService.generateWithContext(request.getQuery(), contextTexts),
+                        (event, answer) -> event.answerChars = answer.length()))
+                .doOnNext(answer -> answerCache.store(retrieval.queryVector(), results, answer,
+                        retrieval.generation()));
+    }
+
+    private ContextAssembler.Context assembleContext(SearchRequest request, List<SearchResult> results,
+                                                     SearchTimings timings) {
+        ContextAssembler.Context context = contextAssembler.assemble(results);
+        metrics.contextAssembled(results.size(), context);
+        if (request.isDebug()) {
+            timings.setContextTokens(context.tokens());
+            timings.setContextChunks(context.chunks());
+        }
+        return context;
+    }
+
+    /**
+     * Short id correlating a request's JFR events.
+     */
+    private static String newRequestId() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Query embedding and the chunks retrieved for it.
+     *
+     * @param groups the chunks by document for a grouped request, else null
+     * @param generation {@link CollectionWriteGeneration} read before the search
+     */
+    private record Retrieval(float[] queryVector, List<SearchResult> results, List<SearchGroup> groups,
+                             long generation) {}
+
+    /**
+     * Outcome of a pipeline run; {@code timings} belong to the request that ran it.
+     *
+     * @param groups the results by document for a grouped request, else null
+     * @param lookup answered by identifier lookup; {@code answer} is then the optional summary
+     */
+    private record Answered(List<SearchResult> results, List<SearchGroup> groups, String answer,
+                            SearchTimings timings, boolean lookup) {}
+
+    /**
+     * Requests with equal keys are answered identically.
+     */
+    private record FlightKey(String query, int limit, int groupSize, double scoreThreshold, boolean debug) {
+        static FlightKey of(SearchRequest request) {
+            return new FlightKey(QueryEmbeddingCache.normalize(request.getQuery()), request.getLimit(),
+                    request.getGroupSize(), request.getScoreThreshold(), request.isDebug());
+        }
+    }
+
+    /**
+     * The matching chunks of an identifier lookup, which the streamed answer does not contain.
+     */
+    private Flux<ServerSentEvent<String>> resultsEvent(Answered answered) {
+        if (!answered.lookup()) {
+            return Flux.empty();
+        }
+        return Mono.fromCallable(() -> ServerSentEvent.<String>builder()
+                .event("results")
+                .data(objectMapper.writeValueAsString(answered.results()))
+                .build()).flux();
+    }
+
+    private ServerSentEvent<String> timingsEvent(SearchTimings timings) throws JsonProcessingException {
+        return ServerSentEvent.<String>builder()
+                .event("timings")
+                .data(objectMapper.writeValueAsString(timings))
+                .build();
+    }
 }
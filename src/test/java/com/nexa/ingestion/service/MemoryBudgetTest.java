@@ -0,0 +1,39 @@
+package com.nexa.ingestion.service;
+
+import com.nexa.ingestion.config.IngestionProperties;
+import com.nexa.ingestion.config.QdrantProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryBudgetTest {
+
+    @Test
+    void oldestHolderGrowsPastAQueuedGrower() {
+        IngestionProperties ingestionProperties = new IngestionProperties();
+        ingestionProperties.getMemory().setBudgetMb(1);
+        MemoryBudget budget = new MemoryBudget(ingestionProperties, new QdrantProperties());
+
+        MemoryBudget.Permit a = budget.acquire(400_000).block();
+        MemoryBudget.Permit b = budget.acquire(500_000).block();
+
+        AtomicBoolean bGrown = new AtomicBoolean();
+        AtomicBoolean aGrown = new AtomicBoolean();
+        b.grow(300_000).subscribe(null, null, () -> bGrown.set(true));
+        a.grow(300_000).subscribe(null, null, () -> aGrown.set(true));
+
+        assertTrue(aGrown.get(), "oldest holder must not wait behind a younger grower");
+        assertFalse(bGrown.get());
+        assertEquals(1, budget.stats().waiting());
+
+        a.release();
+        assertTrue(bGrown.get(), "queued grower is granted once the oldest holder releases");
+        assertEquals(800_000, budget.stats().usedBytes());
+        b.release();
+        assertEquals(0, budget.stats().usedBytes());
+    }
+}